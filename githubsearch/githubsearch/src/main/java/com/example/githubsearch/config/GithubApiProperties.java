@@ -1,25 +1,57 @@
 package com.example.githubsearch.config;
 
+import lombok.Builder;
 import lombok.Getter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Immutable, type-safe configuration for GitHub API properties.
  * <p>
- * Holds authentication token and API-specific settings.
+ * Holds authentication tokens and API-specific settings. Requests are spread over the
+ * pool of {@code tokens}; a single {@code token} is used when no pool is configured.
  */
 @Getter
 @ConfigurationProperties(prefix = "github")
 public class GithubApiProperties {
 
     private final String token;
+    /**
+     * The token pool: the configured {@code tokens} without blanks and duplicates, or just
+     * {@code token} if none are configured. Empty for unauthenticated access.
+     */
+    private final List<String> tokens;
     private final Api api;
 
     public GithubApiProperties(String token, Api api) {
+        this(token, null, api);
+    }
+
+    @ConstructorBinding
+    public GithubApiProperties(String token, List<String> tokens, Api api) {
         this.token = token;
+        this.tokens = tokenPool(token, tokens);
         this.api = api;
     }
 
+    private static List<String> tokenPool(String token, List<String> tokens) {
+        final List<String> pool = tokens == null ? List.of() : tokens.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(candidate -> !candidate.isEmpty())
+                .distinct()
+                .toList();
+        if (!pool.isEmpty()) {
+            return pool;
+        }
+        return token == null || token.isBlank() ? List.of() : List.of(token.trim());
+    }
+
     @Getter
     public static class Api {
         private final String baseUrl;
@@ -27,24 +59,434 @@ public class GithubApiProperties {
         private final int defaultPerPage;
         private final int defaultPage;
         private final RetryProperties retry;
+        private final CacheProperties cache;
+        private final FetchProperties fetch;
+        private final ScoringProperties scoring;
+        private final RateLimitProperties rateLimit;
+        private final SchedulerProperties scheduler;
+        private final HedgingProperties hedging;
+        private final DeadlineProperties deadline;
+        private final LeaderboardProperties leaderboard;
 
         public Api(String baseUrl, String defaultQuery, int defaultPerPage, int defaultPage, RetryProperties retry) {
+            this(baseUrl, defaultQuery, defaultPerPage, defaultPage, retry, null, null, null, null, null, null, null,
+                    null);
+        }
+
+        @Builder
+        @ConstructorBinding
+        public Api(String baseUrl, String defaultQuery, int defaultPerPage, int defaultPage, RetryProperties retry,
+                   CacheProperties cache, FetchProperties fetch, ScoringProperties scoring,
+                   RateLimitProperties rateLimit, SchedulerProperties scheduler, HedgingProperties hedging,
+                   DeadlineProperties deadline, LeaderboardProperties leaderboard) {
             this.baseUrl = baseUrl;
             this.defaultQuery = defaultQuery;
             this.defaultPerPage = defaultPerPage;
             this.defaultPage = defaultPage;
-            this.retry = retry;
+            this.retry = retry != null ? retry : RetryProperties.defaults();
+            this.cache = cache != null ? cache : CacheProperties.defaults();
+            this.fetch = fetch != null ? fetch : FetchProperties.defaults();
+            this.scoring = scoring != null ? scoring : ScoringProperties.defaults();
+            this.rateLimit = rateLimit != null ? rateLimit : RateLimitProperties.defaults();
+            this.scheduler = scheduler != null ? scheduler : SchedulerProperties.defaults();
+            this.hedging = hedging != null ? hedging : HedgingProperties.defaults();
+            this.deadline = deadline != null ? deadline : DeadlineProperties.defaults();
+            this.leaderboard = leaderboard != null ? leaderboard : LeaderboardProperties.defaults();
         }
     }
 
+    /**
+     * Settings for retrying failed upstream requests. A request is retried at most
+     * {@code attempts} times after a {@code 5xx} or a rate-limited {@code 403}/{@code 429},
+     * with full-jitter backoff: a random delay between zero and
+     * {@code backoff-seconds * 2^retry}, capped at {@code max-backoff}. A rate-limited
+     * response is retried no earlier than its {@code Retry-After}, and not at all if that is
+     * longer than {@code max-retry-after}. All requests share a budget of retries holding up
+     * to {@code budget-capacity} retries, refilled by {@code budget-ratio} per successful
+     * request, so a brownout cannot multiply the load on GitHub.
+     * Unset values fall back to the defaults below.
+     */
     @Getter
     public static class RetryProperties {
+        private static final int DEFAULT_ATTEMPTS = 3;
+        private static final int DEFAULT_BACKOFF_SECONDS = 1;
+        private static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(30);
+        private static final double DEFAULT_BUDGET_RATIO = 0.1;
+        private static final int DEFAULT_BUDGET_CAPACITY = 10;
+        private static final Duration DEFAULT_MAX_RETRY_AFTER = Duration.ofSeconds(10);
+
         private final int attempts;
         private final int backoffSeconds;
+        private final Duration maxBackoff;
+        private final double budgetRatio;
+        private final int budgetCapacity;
+        private final Duration maxRetryAfter;
 
         public RetryProperties(int attempts, int backoffSeconds) {
-            this.attempts = attempts;
-            this.backoffSeconds = backoffSeconds;
+            this(attempts, backoffSeconds, null, null, null, null);
+        }
+
+        @Builder
+        @ConstructorBinding
+        public RetryProperties(Integer attempts, Integer backoffSeconds, Duration maxBackoff, Double budgetRatio,
+                               Integer budgetCapacity, Duration maxRetryAfter) {
+            this.attempts = attempts != null ? attempts : DEFAULT_ATTEMPTS;
+            this.backoffSeconds = backoffSeconds != null ? backoffSeconds : DEFAULT_BACKOFF_SECONDS;
+            this.maxBackoff = maxBackoff != null ? maxBackoff : DEFAULT_MAX_BACKOFF;
+            this.budgetRatio = budgetRatio != null ? Math.max(0, budgetRatio) : DEFAULT_BUDGET_RATIO;
+            this.budgetCapacity = budgetCapacity != null ? Math.max(0, budgetCapacity) : DEFAULT_BUDGET_CAPACITY;
+            this.maxRetryAfter = maxRetryAfter != null ? maxRetryAfter : DEFAULT_MAX_RETRY_AFTER;
+        }
+
+        public static RetryProperties defaults() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * Settings for the in-memory search result cache placed in front of the GitHub client,
+     * the per-page upstream cache shared across queries, and the ETag validator store used
+     * to revalidate upstream pages.
+     * A search result is fresh for {@code ttl}. For {@code stale-while-revalidate} after
+     * that it is still answered at once, marked stale, while it is refreshed in the
+     * background; for {@code stale-if-error} after {@code ttl} it is answered, marked stale,
+     * when GitHub fails or the rate limit is exhausted. Zero turns either mode off.
+     * Queries GitHub rejected with {@code 422} or that matched nothing are remembered for
+     * {@code negative-ttl}, up to {@code negative-maximum-size} of them.
+     * With {@code off-heap}, the repositories of cached search results are kept in a compact
+     * binary encoding in direct memory instead of as objects on the heap; size the JVM's
+     * {@code -XX:MaxDirectMemorySize} for it.
+     * The serialized JSON of complete search responses is kept for {@code response-ttl}, up to
+     * {@code response-maximum-size} of it, and written as-is for repeated searches; zero
+     * {@code response-ttl} turns this off.
+     * Unset values fall back to the defaults below.
+     */
+    @Getter
+    public static class CacheProperties {
+        private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+        private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+        private static final Duration DEFAULT_STALE_WHILE_REVALIDATE = Duration.ofMinutes(1);
+        private static final Duration DEFAULT_STALE_IF_ERROR = Duration.ofMinutes(10);
+        private static final long DEFAULT_PAGE_MAXIMUM_SIZE = 5_000;
+        private static final Duration DEFAULT_PAGE_TTL = Duration.ofMinutes(2);
+        private static final long DEFAULT_VALIDATOR_MAXIMUM_SIZE = 5_000;
+        private static final Duration DEFAULT_VALIDATOR_TTL = Duration.ofHours(1);
+        private static final long DEFAULT_NEGATIVE_MAXIMUM_SIZE = 10_000;
+        private static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofMinutes(1);
+        private static final Duration DEFAULT_RESPONSE_TTL = Duration.ofSeconds(30);
+        private static final DataSize DEFAULT_RESPONSE_MAXIMUM_SIZE = DataSize.ofMegabytes(64);
+
+        private final boolean enabled;
+        private final long maximumSize;
+        private final Duration ttl;
+        private final Duration staleWhileRevalidate;
+        private final Duration staleIfError;
+        private final long pageMaximumSize;
+        private final Duration pageTtl;
+        private final long validatorMaximumSize;
+        private final Duration validatorTtl;
+        private final long negativeMaximumSize;
+        private final Duration negativeTtl;
+        private final boolean offHeap;
+        private final Duration responseTtl;
+        private final DataSize responseMaximumSize;
+
+        @Builder
+        public CacheProperties(Boolean enabled, Long maximumSize, Duration ttl,
+                               Duration staleWhileRevalidate, Duration staleIfError,
+                               Long pageMaximumSize, Duration pageTtl,
+                               Long validatorMaximumSize, Duration validatorTtl,
+                               Long negativeMaximumSize, Duration negativeTtl, Boolean offHeap,
+                               Duration responseTtl, DataSize responseMaximumSize) {
+            this.enabled = enabled == null || enabled;
+            this.maximumSize = maximumSize != null ? maximumSize : DEFAULT_MAXIMUM_SIZE;
+            this.ttl = ttl != null ? ttl : DEFAULT_TTL;
+            this.staleWhileRevalidate = staleWhileRevalidate != null
+                    ? staleWhileRevalidate : DEFAULT_STALE_WHILE_REVALIDATE;
+            this.staleIfError = staleIfError != null ? staleIfError : DEFAULT_STALE_IF_ERROR;
+            this.pageMaximumSize = pageMaximumSize != null ? pageMaximumSize : DEFAULT_PAGE_MAXIMUM_SIZE;
+            this.pageTtl = pageTtl != null ? pageTtl : DEFAULT_PAGE_TTL;
+            this.validatorMaximumSize = validatorMaximumSize != null
+                    ? validatorMaximumSize : DEFAULT_VALIDATOR_MAXIMUM_SIZE;
+            this.validatorTtl = validatorTtl != null ? validatorTtl : DEFAULT_VALIDATOR_TTL;
+            this.negativeMaximumSize = negativeMaximumSize != null
+                    ? negativeMaximumSize : DEFAULT_NEGATIVE_MAXIMUM_SIZE;
+            this.negativeTtl = negativeTtl != null ? negativeTtl : DEFAULT_NEGATIVE_TTL;
+            this.offHeap = offHeap != null && offHeap;
+            this.responseTtl = responseTtl != null ? responseTtl : DEFAULT_RESPONSE_TTL;
+            this.responseMaximumSize = responseMaximumSize != null
+                    ? responseMaximumSize : DEFAULT_RESPONSE_MAXIMUM_SIZE;
+        }
+
+        public static CacheProperties defaults() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * Settings for the multi-page fetch performed when no page number is requested.
+     * {@code max-pages} is counted in pages of {@code default-per-page} results, so it caps
+     * an all-pages search at {@code max-pages * default-per-page} results.
+     * {@code upstream-per-page} is the page size requested from GitHub, independent of the
+     * page size served to clients; results are sliced locally.
+     * {@code concurrency} bounds how many page requests are in flight at once, which keeps
+     * the fan-out below GitHub's secondary rate limits; {@code prefetch} is the per-page
+     * demand passed to the fan-out operator; {@code ordered} emits pages in page order
+     * instead of arrival order.
+     * Unset values fall back to the defaults below.
+     */
+    @Getter
+    public static class FetchProperties {
+        /**
+         * Largest {@code per_page} GitHub's search API accepts.
+         */
+        public static final int GITHUB_MAX_PER_PAGE = 100;
+
+        private static final int DEFAULT_MAX_PAGES = 10;
+        private static final int DEFAULT_CONCURRENCY = 4;
+        private static final int DEFAULT_PREFETCH = 32;
+
+        private final FetchStrategy strategy;
+        private final int maxPages;
+        private final int upstreamPerPage;
+        private final int concurrency;
+        private final int prefetch;
+        private final boolean ordered;
+
+        @Builder
+        public FetchProperties(FetchStrategy strategy, Integer maxPages, Integer upstreamPerPage, Integer concurrency,
+                               Integer prefetch, Boolean ordered) {
+            this.strategy = strategy != null ? strategy : FetchStrategy.ADAPTIVE;
+            this.maxPages = maxPages != null ? maxPages : DEFAULT_MAX_PAGES;
+            this.upstreamPerPage = upstreamPerPage != null
+                    ? Math.max(1, Math.min(GITHUB_MAX_PER_PAGE, upstreamPerPage)) : GITHUB_MAX_PER_PAGE;
+            this.concurrency = concurrency != null ? concurrency : DEFAULT_CONCURRENCY;
+            this.prefetch = prefetch != null ? prefetch : DEFAULT_PREFETCH;
+            this.ordered = ordered != null && ordered;
+        }
+
+        public static FetchProperties defaults() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * Settings for popularity scoring of a search result. Batches smaller than
+     * {@code parallel-threshold} items are scored inline on the calling thread; larger ones
+     * are split into chunks of {@code chunk-size} items scored on the parallel scheduler.
+     * Unset values fall back to the defaults below.
+     */
+    @Getter
+    public static class ScoringProperties {
+        private static final int DEFAULT_PARALLEL_THRESHOLD = 4_096;
+        private static final int DEFAULT_CHUNK_SIZE = 1_024;
+
+        private final int parallelThreshold;
+        private final int chunkSize;
+
+        @Builder
+        public ScoringProperties(Integer parallelThreshold, Integer chunkSize) {
+            this.parallelThreshold = parallelThreshold != null ? parallelThreshold : DEFAULT_PARALLEL_THRESHOLD;
+            this.chunkSize = chunkSize != null ? chunkSize : DEFAULT_CHUNK_SIZE;
+        }
+
+        public static ScoringProperties defaults() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * Settings for the client-side limiter that paces upstream requests by GitHub's
+     * {@code X-RateLimit-*} response headers, with one budget per token. Until the first
+     * response for a token is seen the limiter assumes {@code initial-limit} requests per
+     * {@code window}; afterwards the token's remaining budget is spread evenly over the time
+     * left until its reported reset, with up to {@code burst} requests sent back to back.
+     * Each request goes to the token that can send it soonest. A request that would have to
+     * wait longer than {@code max-wait} for a permit on every token fails with {@code 429}.
+     * Unset values fall back to the defaults below.
+     */
+    @Getter
+    public static class RateLimitProperties {
+        private static final int DEFAULT_INITIAL_LIMIT = 30;
+        private static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1);
+        private static final int DEFAULT_BURST = 10;
+        private static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(10);
+
+        private final boolean enabled;
+        private final int initialLimit;
+        private final Duration window;
+        private final int burst;
+        private final Duration maxWait;
+
+        @Builder
+        public RateLimitProperties(Boolean enabled, Integer initialLimit, Duration window, Integer burst,
+                                   Duration maxWait) {
+            this.enabled = enabled == null || enabled;
+            this.initialLimit = initialLimit != null ? initialLimit : DEFAULT_INITIAL_LIMIT;
+            this.window = window != null ? window : DEFAULT_WINDOW;
+            this.burst = burst != null ? Math.max(1, burst) : DEFAULT_BURST;
+            this.maxWait = maxWait != null ? maxWait : DEFAULT_MAX_WAIT;
+        }
+
+        public static RateLimitProperties defaults() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * Settings for the scheduler that queues upstream requests in priority lanes before
+     * they take a rate-limit permit. At most {@code max-in-flight} upstream requests run at
+     * once across all searches. Interactive requests are always dequeued first; prefetch and
+     * background requests share what is left in the ratio
+     * {@code prefetch-weight : background-weight}.
+     * Unset values fall back to the defaults below.
+     */
+    @Getter
+    public static class SchedulerProperties {
+        private static final int DEFAULT_MAX_IN_FLIGHT = 8;
+        private static final int DEFAULT_PREFETCH_WEIGHT = 3;
+        private static final int DEFAULT_BACKGROUND_WEIGHT = 1;
+
+        private final boolean enabled;
+        private final int maxInFlight;
+        private final int prefetchWeight;
+        private final int backgroundWeight;
+
+        @Builder
+        public SchedulerProperties(Boolean enabled, Integer maxInFlight, Integer prefetchWeight,
+                                   Integer backgroundWeight) {
+            this.enabled = enabled == null || enabled;
+            this.maxInFlight = maxInFlight != null ? Math.max(1, maxInFlight) : DEFAULT_MAX_IN_FLIGHT;
+            this.prefetchWeight = prefetchWeight != null ? Math.max(1, prefetchWeight) : DEFAULT_PREFETCH_WEIGHT;
+            this.backgroundWeight = backgroundWeight != null
+                    ? Math.max(1, backgroundWeight) : DEFAULT_BACKGROUND_WEIGHT;
+        }
+
+        public static SchedulerProperties defaults() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * Settings for hedged upstream requests. When enabled, a page request that has not
+     * answered within the {@code percentile} of the last {@code window-size} upstream
+     * latencies (but at least {@code min-delay}) is sent a second time and whichever copy
+     * answers first is used. Hedging starts once {@code min-samples} latencies are known,
+     * and at most {@code budget-ratio} extra requests are sent per request.
+     * Unset values fall back to the defaults below; hedging is off unless enabled.
+     */
+    @Getter
+    public static class HedgingProperties {
+        private static final double DEFAULT_PERCENTILE = 0.95;
+        private static final double DEFAULT_BUDGET_RATIO = 0.05;
+        private static final int DEFAULT_WINDOW_SIZE = 256;
+        private static final int DEFAULT_MIN_SAMPLES = 20;
+        private static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(50);
+
+        private final boolean enabled;
+        private final double percentile;
+        private final double budgetRatio;
+        private final int windowSize;
+        private final int minSamples;
+        private final Duration minDelay;
+
+        @Builder
+        public HedgingProperties(Boolean enabled, Double percentile, Double budgetRatio, Integer windowSize,
+                                 Integer minSamples, Duration minDelay) {
+            this.enabled = enabled != null && enabled;
+            this.percentile = percentile != null ? Math.max(0, Math.min(1, percentile)) : DEFAULT_PERCENTILE;
+            this.budgetRatio = budgetRatio != null ? Math.max(0, budgetRatio) : DEFAULT_BUDGET_RATIO;
+            this.windowSize = windowSize != null ? Math.max(1, windowSize) : DEFAULT_WINDOW_SIZE;
+            this.minSamples = minSamples != null ? Math.max(1, minSamples) : DEFAULT_MIN_SAMPLES;
+            this.minDelay = minDelay != null ? minDelay : DEFAULT_MIN_DELAY;
         }
+
+        public static HedgingProperties defaults() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * Settings for the time budget of a search. When enabled, a search that is still
+     * waiting for upstream pages after {@code timeout} returns the pages received so far
+     * with {@code incomplete_results} set, and the outstanding page requests are cancelled.
+     * Clients may ask for another budget per request, which is capped at {@code max-timeout}.
+     * Unset values fall back to the defaults below.
+     */
+    @Getter
+    public static class DeadlineProperties {
+        private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+        private static final Duration DEFAULT_MAX_TIMEOUT = Duration.ofSeconds(30);
+
+        private final boolean enabled;
+        private final Duration timeout;
+        private final Duration maxTimeout;
+
+        @Builder
+        public DeadlineProperties(Boolean enabled, Duration timeout, Duration maxTimeout) {
+            this.enabled = enabled == null || enabled;
+            this.timeout = timeout != null ? timeout : DEFAULT_TIMEOUT;
+            this.maxTimeout = maxTimeout != null ? maxTimeout : DEFAULT_MAX_TIMEOUT;
+        }
+
+        public static DeadlineProperties defaults() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * Settings for the materialized per-language leaderboards. When enabled, the
+     * popularity-ranked results for each of {@code languages} are refreshed in the background
+     * every {@code refresh-interval}, randomly moved by up to {@code jitter} of the interval so
+     * the languages do not refresh together, and ranked searches for one of these languages
+     * without further filters are answered from them. A leaderboard that has not been
+     * refreshed for {@code max-age} is no longer served.
+     * Unset values fall back to the defaults below; leaderboards are off unless enabled.
+     */
+    @Getter
+    public static class LeaderboardProperties {
+        private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMinutes(10);
+        private static final double DEFAULT_JITTER = 0.1;
+        private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(30);
+
+        private final boolean enabled;
+        private final List<String> languages;
+        private final Duration refreshInterval;
+        private final double jitter;
+        private final Duration maxAge;
+
+        @Builder
+        public LeaderboardProperties(Boolean enabled, List<String> languages, Duration refreshInterval, Double jitter,
+                                     Duration maxAge) {
+            this.enabled = enabled != null && enabled;
+            this.languages = languages == null ? List.of() : languages.stream()
+                    .filter(Objects::nonNull)
+                    .map(String::trim)
+                    .filter(language -> !language.isEmpty())
+                    .distinct()
+                    .toList();
+            this.refreshInterval = refreshInterval != null ? refreshInterval : DEFAULT_REFRESH_INTERVAL;
+            this.jitter = jitter != null ? Math.max(0, Math.min(1, jitter)) : DEFAULT_JITTER;
+            this.maxAge = maxAge != null ? maxAge : DEFAULT_MAX_AGE;
+        }
+
+        public static LeaderboardProperties defaults() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * How many upstream pages the all-pages mode requests.
+     */
+    public enum FetchStrategy {
+        /**
+         * Always request every page up to {@code max-pages}.
+         */
+        EXHAUSTIVE,
+        /**
+         * Read {@code total_count} from the first page and request only the pages that can
+         * contain results, stopping early when a page comes back short.
+         */
+        ADAPTIVE
     }
-}
\ No newline at end of file
+}
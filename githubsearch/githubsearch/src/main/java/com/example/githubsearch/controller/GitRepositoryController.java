@@ -3,6 +3,7 @@ package com.example.githubsearch.controller;
 import com.example.githubsearch.dto.ApiErrorResponseDto;
 import com.example.githubsearch.dto.GitRepositoryPaginatedResponseDto;
 import com.example.githubsearch.dto.SearchRequestDto;
+import com.example.githubsearch.dto.SearchStreamEventDto;
 import com.example.githubsearch.mapper.GitRepositoryMapper;
 import com.example.githubsearch.model.SearchRequest;
 import com.example.githubsearch.service.GitRepositoryService;
@@ -12,18 +13,28 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Locale;
+
 /**
  * REST controller for handling GitHub repository search requests.
  * <p>
  * Provides endpoints to search repositories with popularity scoring and
- * pagination.
+ * pagination. Search responses are written as pre-serialized JSON from
+ * {@link SearchResponseCache}, so repeated searches skip the search, mapping and
+ * serialization.
  */
 @Slf4j
 @RestController
@@ -31,28 +42,89 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class GitRepositoryController {
 
+    /**
+     * Request header carrying the client's time budget for a search, in milliseconds.
+     */
+    public static final String DEADLINE_HEADER = "X-Search-Deadline-Ms";
+
     private final GitRepositoryService gitRepositoryService;
     private final GitRepositoryMapper gitRepositoryMapper;
+    private final SearchResponseCache searchResponseCache;
 
     /**
      * Endpoint to search GitHub repositories with popularity scoring.
      *
      * @param searchRequestDTO The search criteria (passed as JSON in POST request).
-     * @return A Mono wrapping a paginated response of repository results.
+     * @param deadlineMillis   Optional time budget in milliseconds; when it runs out the pages
+     *                         received so far are returned with {@code incompleteResults} set.
+     * @return A Mono wrapping a paginated response of repository results, as JSON bytes with
+     *         {@code Content-Length} and {@code ETag} headers.
      */
     @Operation(summary = "Search GitHub repositories with popularity scoring")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Successful response"),
+            @ApiResponse(responseCode = "200", description = "Successful response", content = @Content(schema = @Schema(implementation = GitRepositoryPaginatedResponseDto.class))),
             @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(schema = @Schema(implementation = ApiErrorResponseDto.class))),
             @ApiResponse(responseCode = "429", description = "Rate limit exceeded", content = @Content(schema = @Schema(implementation = ApiErrorResponseDto.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(schema = @Schema(implementation = ApiErrorResponseDto.class)))
     })
     @PostMapping(value = "/search", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<GitRepositoryPaginatedResponseDto> searchGitRepositories(@Valid @RequestBody final SearchRequestDto searchRequestDTO) {
+    public Mono<ResponseEntity<DataBuffer>> searchGitRepositories(@Valid @RequestBody final SearchRequestDto searchRequestDTO,
+                                                                  @RequestHeader(name = DEADLINE_HEADER, required = false) @Positive final Long deadlineMillis) {
         log.info("Received repository search request from user. Request: {}", searchRequestDTO);
-        SearchRequest searchRequest = gitRepositoryMapper.toInternal(searchRequestDTO);
+        SearchRequest searchRequest = withTimeBudget(gitRepositoryMapper.toInternal(searchRequestDTO), deadlineMillis);
+        return Mono.defer(() -> {
+            final SearchResponseCache.SerializedResponse cached = searchResponseCache.lookup(searchRequest);
+            if (cached != null) {
+                return Mono.just(cached.toResponseEntity());
+            }
+            return gitRepositoryService
+                    .searchRepositories(searchRequest)
+                    .map(response -> searchResponseCache
+                            .store(searchRequest, response, gitRepositoryMapper.toDto(response))
+                            .toResponseEntity());
+        });
+    }
+
+    /**
+     * Streaming variant of {@link #searchGitRepositories(SearchRequestDto)} that writes each
+     * scored repository as newline-delimited JSON as soon as its upstream page arrives,
+     * ending with a SUMMARY event that carries the counts.
+     *
+     * @param searchRequestDTO The search criteria (passed as JSON in POST request).
+     * @param deadlineMillis   Optional time budget in milliseconds for the whole stream.
+     * @return A Flux of ITEM events followed by one SUMMARY event.
+     */
+    @Operation(summary = "Stream GitHub repositories with popularity scoring as NDJSON")
+    @PostMapping(value = "/search/stream", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SearchStreamEventDto> streamGitRepositories(@Valid @RequestBody final SearchRequestDto searchRequestDTO,
+                                                            @RequestHeader(name = DEADLINE_HEADER, required = false) @Positive final Long deadlineMillis) {
+        log.info("Received streaming repository search request from user. Request: {}", searchRequestDTO);
+        SearchRequest searchRequest = withTimeBudget(gitRepositoryMapper.toInternal(searchRequestDTO), deadlineMillis);
         return gitRepositoryService
-                .searchRepositories(searchRequest)
+                .streamRepositories(searchRequest)
                 .map(gitRepositoryMapper::toDto);
     }
-}
\ No newline at end of file
+
+    /**
+     * Server-Sent Events variant of {@link #streamGitRepositories(SearchRequestDto)}. Each
+     * event is named after its type ({@code item} or {@code summary}).
+     *
+     * @param searchRequestDTO The search criteria (passed as JSON in POST request).
+     * @param deadlineMillis   Optional time budget in milliseconds for the whole stream.
+     * @return A Flux of {@code item} events followed by one {@code summary} event.
+     */
+    @Operation(summary = "Stream GitHub repositories with popularity scoring as Server-Sent Events")
+    @PostMapping(value = "/search/stream", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<SearchStreamEventDto>> streamGitRepositoryEvents(@Valid @RequestBody final SearchRequestDto searchRequestDTO,
+                                                                                 @RequestHeader(name = DEADLINE_HEADER, required = false) @Positive final Long deadlineMillis) {
+        return streamGitRepositories(searchRequestDTO, deadlineMillis)
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.getType().name().toLowerCase(Locale.ROOT))
+                        .build());
+    }
+
+    private static SearchRequest withTimeBudget(final SearchRequest searchRequest, final Long deadlineMillis) {
+        return deadlineMillis == null ? searchRequest
+                : searchRequest.toBuilder().timeBudget(Duration.ofMillis(deadlineMillis)).build();
+    }
+}
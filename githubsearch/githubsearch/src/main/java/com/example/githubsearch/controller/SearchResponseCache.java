@@ -0,0 +1,120 @@
+package com.example.githubsearch.controller;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.dto.GitRepositoryPaginatedResponseDto;
+import com.example.githubsearch.exception.ApiException;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.service.impl.cache.SearchCacheKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Cache of search responses as the JSON bytes sent to clients.
+ * <p>
+ * Every search response is serialized once, with the application's {@link ObjectMapper},
+ * and written as a {@link DataBuffer} wrapping those bytes with a {@code Content-Length}
+ * and a strong {@code ETag} derived from them. Complete, fresh responses are kept for
+ * {@code response-ttl}, keyed on the normalized {@link SearchCacheKey}, so a repeated
+ * search is answered with the stored bytes without running the search, mapping or
+ * serialization again. Scores in a stored response are those computed when it was stored.
+ * <p>
+ * The cache is bounded by {@code response-maximum-size} bytes of JSON. Lookups are
+ * published as {@code cache.*} metrics tagged {@code cache=github.search.responses}.
+ */
+@Slf4j
+@Component
+public class SearchResponseCache {
+
+    static final String CACHE_NAME = "github.search.responses";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<SearchCacheKey, SerializedResponse> responses;
+
+    public SearchResponseCache(final GithubApiProperties githubApiProperties, final ObjectMapper objectMapper,
+                               final MeterRegistry meterRegistry) {
+        final GithubApiProperties.CacheProperties cacheProperties = githubApiProperties.getApi().getCache();
+        this.objectMapper = objectMapper;
+        this.enabled = cacheProperties.isEnabled() && !cacheProperties.getResponseTtl().isZero();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(cacheProperties.getResponseMaximumSize().toBytes())
+                .weigher((SearchCacheKey key, SerializedResponse response) -> response.getJson().length)
+                .expireAfterWrite(cacheProperties.getResponseTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    }
+
+    /**
+     * @param searchRequest the search criteria (internal model)
+     * @return the stored response for an equivalent search, or null if there is none
+     */
+    public SerializedResponse lookup(final SearchRequest searchRequest) {
+        if (!enabled) {
+            return null;
+        }
+        final SerializedResponse cached = responses.getIfPresent(SearchCacheKey.from(searchRequest));
+        if (cached != null) {
+            log.debug("Answering search {} with a stored response", searchRequest);
+        }
+        return cached;
+    }
+
+    /**
+     * Serializes {@code dto} and stores it for {@code searchRequest}, unless {@code response}
+     * is incomplete or stale.
+     *
+     * @param searchRequest the search criteria (internal model)
+     * @param response      the search response (internal model) {@code dto} was mapped from
+     * @param dto           the response to send
+     * @return the serialized response
+     */
+    public SerializedResponse store(final SearchRequest searchRequest, final GitRepositoryPaginatedResponse response,
+                                    final GitRepositoryPaginatedResponseDto dto) {
+        final byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to serialize the search response", e);
+        }
+        final SerializedResponse serialized = new SerializedResponse(json, "\"0" + DigestUtils.md5DigestAsHex(json) + "\"");
+        if (enabled && !response.isIncompleteResults() && !response.isStale()) {
+            responses.put(SearchCacheKey.from(searchRequest), serialized);
+        }
+        return serialized;
+    }
+
+    /**
+     * A search response as JSON bytes and their entity tag.
+     */
+    @Value
+    public static class SerializedResponse {
+        byte[] json;
+        String eTag;
+
+        /**
+         * @return a {@code 200 OK} writing the bytes as they are, without copying them
+         */
+        public ResponseEntity<DataBuffer> toResponseEntity() {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentLength(json.length)
+                    .eTag(eTag)
+                    .body(DefaultDataBufferFactory.sharedInstance.wrap(json));
+        }
+    }
+}
@@ -26,6 +26,13 @@ public class GitRepositoryPaginatedResponseDto {
     @Schema(description = "Flag indicating if the search results are incomplete")
     boolean incompleteResults;
 
+    /**
+     * True if the results were answered from cache after they expired, because they were
+     * being refreshed or GitHub could not be reached.
+     */
+    @Schema(description = "True if the results are an expired cached copy, served while they are refreshed or GitHub is unavailable")
+    boolean stale;
+
     /**
      * True if there exists at least one more page of results beyond the current page.
      */
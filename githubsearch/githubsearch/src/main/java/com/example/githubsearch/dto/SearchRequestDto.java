@@ -1,6 +1,7 @@
 package com.example.githubsearch.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import lombok.Builder;
@@ -16,6 +17,16 @@ import java.time.Instant;
 @Builder
 public class SearchRequestDto {
 
+    /**
+     * Attribute results are ranked by, highest first.
+     */
+    public enum SortKey {
+        SCORE,
+        STARS,
+        FORKS,
+        UPDATED_AT
+    }
+
     /**
      * Programming language to filter by.
      */
@@ -35,4 +46,34 @@ public class SearchRequestDto {
     @Schema(description = "Page number (1-9)", example = "1", minimum = "1", maximum = "9")
     @Min(value = 1, message = "Page number must be at least 1")
     Integer pageNumber;
-}
\ No newline at end of file
+
+    /**
+     * Minimum number of stars (sent to GitHub as a {@code stars:>=} qualifier).
+     */
+    @Schema(description = "Minimum number of stars", example = "100", minimum = "0")
+    @Min(value = 0, message = "Minimum stars must not be negative")
+    Integer minStars;
+
+    /**
+     * Minimum number of forks (sent to GitHub as a {@code forks:>=} qualifier).
+     */
+    @Schema(description = "Minimum number of forks", example = "10", minimum = "0")
+    @Min(value = 0, message = "Minimum forks must not be negative")
+    Integer minForks;
+
+    /**
+     * Attribute to rank results by, highest first. Ranking spans every fetched page; when
+     * only {@code limit} is given, results are ranked by popularity score. Ignored by the
+     * streaming endpoint.
+     */
+    @Schema(description = "Rank results across all fetched pages by this attribute, highest first", example = "SCORE")
+    SortKey sortBy;
+
+    /**
+     * Maximum number of ranked results to return (1-1000).
+     */
+    @Schema(description = "Return only the top results after ranking (1-1000)", example = "10", minimum = "1", maximum = "1000")
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 1000, message = "Limit must be at most 1000")
+    Integer limit;
+}
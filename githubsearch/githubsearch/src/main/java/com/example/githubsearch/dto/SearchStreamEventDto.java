@@ -0,0 +1,42 @@
+package com.example.githubsearch.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Immutable Data Transfer Object for one event of the streaming repository search API.
+ * Either {@code item} or {@code summary} is set, according to {@code type}.
+ */
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchStreamEventDto {
+
+    /**
+     * Kind of event.
+     */
+    public enum Type {
+        ITEM,
+        SUMMARY
+    }
+
+    /**
+     * Event type: ITEM for a repository, SUMMARY for the final event.
+     */
+    @Schema(description = "Event type: ITEM for a repository, SUMMARY for the final event")
+    Type type;
+
+    /**
+     * Scored repository, present on ITEM events.
+     */
+    @Schema(description = "Scored repository, present on ITEM events")
+    RepositoryItemDto item;
+
+    /**
+     * Counts for the whole search, present on the SUMMARY event.
+     */
+    @Schema(description = "Counts for the whole search, present on the SUMMARY event")
+    SearchStreamSummaryDto summary;
+}
@@ -0,0 +1,37 @@
+package com.example.githubsearch.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Immutable Data Transfer Object for the counts that end a streamed repository search.
+ */
+@Value
+@Builder
+public class SearchStreamSummaryDto {
+
+    /**
+     * Total number of repositories matching the search query.
+     */
+    @Schema(description = "Total number of repositories matching the search query")
+    int totalCount;
+
+    /**
+     * Number of repositories emitted by the stream.
+     */
+    @Schema(description = "Number of repositories emitted by the stream")
+    int itemCount;
+
+    /**
+     * Number of upstream pages the repositories were read from.
+     */
+    @Schema(description = "Number of upstream pages the repositories were read from")
+    int pageCount;
+
+    /**
+     * Flag indicating if the search results are incomplete.
+     */
+    @Schema(description = "Flag indicating if the search results are incomplete")
+    boolean incompleteResults;
+}
@@ -2,6 +2,8 @@ package com.example.githubsearch.exception;
 
 import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
+
 /**
  * Custom unchecked exception that encapsulates error details from external API calls,
  * specifically tailored for handling GitHub API failures within the application.
@@ -10,6 +12,7 @@ import org.springframework.http.HttpStatus;
  */
 public class ApiException extends RuntimeException{
     private final HttpStatus status;
+    private final Duration retryAfter;
 
     /**
      * Constructor with HTTP status and message.
@@ -17,8 +20,19 @@ public class ApiException extends RuntimeException{
      * @param message descriptive error message
      */
     public ApiException(HttpStatus status, String message) {
+        this(status, message, (Duration) null);
+    }
+
+    /**
+     * Constructor with HTTP status, message, and the time GitHub asked to wait before retrying.
+     * @param status HTTP status returned from API
+     * @param message descriptive error message
+     * @param retryAfter how long to wait before retrying, or null if the failure is not a rate limit
+     */
+    public ApiException(HttpStatus status, String message, Duration retryAfter) {
         super(message);
         this.status = status;
+        this.retryAfter = retryAfter;
     }
 
     /**
@@ -31,6 +45,7 @@ public class ApiException extends RuntimeException{
     public ApiException(HttpStatus status, String message, Throwable cause) {
         super(message, cause);
         this.status = status;
+        this.retryAfter = null;
     }
 
     /**
@@ -40,4 +55,12 @@ public class ApiException extends RuntimeException{
     public HttpStatus getStatus() {
         return status;
     }
+
+    /**
+     * Retrieves how long GitHub asked to wait before retrying a rate-limited request.
+     * @return the wait, or null if the failure is not a rate limit
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
 }
@@ -3,9 +3,13 @@ package com.example.githubsearch.mapper;
 import com.example.githubsearch.dto.GitRepositoryPaginatedResponseDto;
 import com.example.githubsearch.dto.RepositoryItemDto;
 import com.example.githubsearch.dto.SearchRequestDto;
+import com.example.githubsearch.dto.SearchStreamEventDto;
+import com.example.githubsearch.dto.SearchStreamSummaryDto;
 import com.example.githubsearch.model.GitRepositoryItems;
 import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
 import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.model.SearchStreamEvent;
+import com.example.githubsearch.model.SearchStreamSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
@@ -28,6 +32,7 @@ public interface GitRepositoryMapper {
      * @param dto the API request DTO
      * @return the internal model
      */
+    @Mapping(target = "timeBudget", ignore = true)
     SearchRequest toInternal(SearchRequestDto dto);
 
     /**
@@ -58,4 +63,20 @@ public interface GitRepositoryMapper {
             @Mapping(source = "items", target = "items")
     })
     GitRepositoryPaginatedResponseDto toDto(GitRepositoryPaginatedResponse response);
+
+    /**
+     * Maps a streamed search event to a DTO.
+     *
+     * @param event the internal stream event
+     * @return the DTO stream event
+     */
+    SearchStreamEventDto toDto(SearchStreamEvent event);
+
+    /**
+     * Maps the trailing counts of a streamed search to a DTO.
+     *
+     * @param summary the internal summary
+     * @return the DTO summary
+     */
+    SearchStreamSummaryDto toDto(SearchStreamSummary summary);
 }
\ No newline at end of file
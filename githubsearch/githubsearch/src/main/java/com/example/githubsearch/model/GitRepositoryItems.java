@@ -3,6 +3,7 @@ package com.example.githubsearch.model;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Value;
+import lombok.With;
 
 import java.time.Instant;
 
@@ -34,5 +35,6 @@ public class GitRepositoryItems {
     @JsonProperty("created_at")
     Instant createdAt;
 
+    @With
     double popularityScore;
 }
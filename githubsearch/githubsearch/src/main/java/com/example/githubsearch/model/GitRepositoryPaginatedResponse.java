@@ -27,6 +27,12 @@ public class GitRepositoryPaginatedResponse {
     @JsonProperty("incomplete_results")
     boolean incompleteResults;
 
+    /**
+     * True if the results were answered from cache after they expired, because they were
+     * being refreshed or GitHub could not be reached.
+     */
+    boolean stale;
+
     /**
      * True if there exists at least one more page of results beyond the current page.
      */
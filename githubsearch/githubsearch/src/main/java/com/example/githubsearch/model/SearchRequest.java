@@ -1,10 +1,12 @@
 package com.example.githubsearch.model;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import lombok.Builder;
 import lombok.Value;
 
+import java.time.Duration;
 import java.time.Instant;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -17,6 +19,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 @Value
 @Builder(toBuilder = true)
 public class SearchRequest {
+
+    /**
+     * Attribute results are ranked by, highest first.
+     */
+    public enum SortKey {
+        SCORE,
+        STARS,
+        FORKS,
+        UPDATED_AT
+    }
+
     @Schema(description = "Programming language to filter by", example = "Java")
     @Pattern(regexp = "^[a-zA-Z0-9+#\\-]+( [a-zA-Z0-9+#\\-]+)*$", message = "Invalid language format")
     String language;
@@ -27,4 +40,24 @@ public class SearchRequest {
     @Schema(description = "Page number (1-9)", example = "1", minimum = "1", maximum = "9")
     @Min(value = 1, message = "Page number must be at least 1")
     Integer pageNumber;
-}
\ No newline at end of file
+
+    @Schema(description = "Minimum number of stars", example = "100", minimum = "0")
+    @Min(value = 0, message = "Minimum stars must not be negative")
+    Integer minStars;
+
+    @Schema(description = "Minimum number of forks", example = "10", minimum = "0")
+    @Min(value = 0, message = "Minimum forks must not be negative")
+    Integer minForks;
+
+    @Schema(description = "Rank results by this attribute, highest first", example = "SCORE")
+    SortKey sortBy;
+
+    @Schema(description = "Return only the top results after ranking", example = "10", minimum = "1", maximum = "1000")
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 1000, message = "Limit must be at most 1000")
+    Integer limit;
+
+    @Schema(description = "Time the search may take before partial results are returned; the configured timeout if unset",
+            example = "PT5S")
+    Duration timeBudget;
+}
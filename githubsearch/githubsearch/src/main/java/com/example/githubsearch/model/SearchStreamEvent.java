@@ -0,0 +1,43 @@
+package com.example.githubsearch.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Immutable model for one event of a streamed repository search.
+ * <p>
+ * A stream carries one {@link Type#ITEM} event per scored repository, emitted as soon as
+ * its upstream page arrives, followed by a single {@link Type#SUMMARY} event with the counts.
+ */
+@Value
+@Builder
+public class SearchStreamEvent {
+
+    /**
+     * Kind of event.
+     */
+    public enum Type {
+        ITEM,
+        SUMMARY
+    }
+
+    Type type;
+
+    /**
+     * The scored repository, set on {@link Type#ITEM} events.
+     */
+    GitRepositoryItems item;
+
+    /**
+     * The trailing counts, set on the {@link Type#SUMMARY} event.
+     */
+    SearchStreamSummary summary;
+
+    public static SearchStreamEvent item(final GitRepositoryItems item) {
+        return builder().type(Type.ITEM).item(item).build();
+    }
+
+    public static SearchStreamEvent summary(final SearchStreamSummary summary) {
+        return builder().type(Type.SUMMARY).summary(summary).build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.githubsearch.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Immutable model for the counts that end a streamed repository search.
+ */
+@Value
+@Builder
+public class SearchStreamSummary {
+
+    /**
+     * Total number of repositories matching the search query, as reported by GitHub.
+     */
+    int totalCount;
+
+    /**
+     * Number of repositories emitted by the stream.
+     */
+    int itemCount;
+
+    /**
+     * Number of upstream pages the repositories were read from.
+     */
+    int pageCount;
+
+    /**
+     * Flag indicating if any upstream page reported incomplete results.
+     */
+    boolean incompleteResults;
+}
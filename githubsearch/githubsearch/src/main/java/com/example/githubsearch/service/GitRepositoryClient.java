@@ -2,6 +2,7 @@ package com.example.githubsearch.service;
 
 import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
 import com.example.githubsearch.model.SearchRequest;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
@@ -19,4 +20,13 @@ public interface GitRepositoryClient {
      * @return Mono emitting a {@link GitRepositoryPaginatedResponse} containing results.
      */
     Mono<GitRepositoryPaginatedResponse> fetchRepositories(SearchRequest searchRequest);
+
+    /**
+     * Fetches the same pages as {@link #fetchRepositories(SearchRequest)}, but emits each
+     * non-empty upstream page as soon as it arrives instead of assembling them first.
+     *
+     * @param searchRequest encapsulates query, sorting, pagination.
+     * @return Flux emitting upstream {@link GitRepositoryPaginatedResponse} pages in arrival order.
+     */
+    Flux<GitRepositoryPaginatedResponse> fetchPages(SearchRequest searchRequest);
 }
@@ -2,6 +2,8 @@ package com.example.githubsearch.service;
 
 import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
 import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.model.SearchStreamEvent;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -17,4 +19,13 @@ public interface GitRepositoryService {
      * @return Mono emitting enriched repository page response
      */
     Mono<GitRepositoryPaginatedResponse> searchRepositories(SearchRequest searchRequest);
+
+    /**
+     * Streams scored repositories for the specified search request as their upstream
+     * pages arrive, followed by a summary event with the counts.
+     *
+     * @param searchRequest search and filter criteria
+     * @return Flux emitting one item event per repository, then one summary event
+     */
+    Flux<SearchStreamEvent> streamRepositories(SearchRequest searchRequest);
 }
\ No newline at end of file
@@ -0,0 +1,327 @@
+package com.example.githubsearch.service.impl;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.exception.ApiException;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.service.GitRepositoryClient;
+import com.example.githubsearch.service.impl.cache.CompactItems;
+import com.example.githubsearch.service.impl.cache.LanguageDictionary;
+import com.example.githubsearch.service.impl.cache.SearchCacheKey;
+import com.example.githubsearch.service.impl.cache.SingleFlight;
+import com.example.githubsearch.service.impl.deadline.SearchDeadline;
+import com.example.githubsearch.service.impl.scheduling.RequestPriority;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caching decorator for {@link GitRepositoryClient}.
+ * <p>
+ * Keeps recently fetched search results in a bounded Caffeine cache (TinyLFU eviction)
+ * keyed on the normalized {@link SearchCacheKey}, so repeated searches are answered
+ * locally instead of spending GitHub rate-limit budget. A result is fresh for {@code ttl};
+ * after that it may still be answered, marked {@code stale}:
+ * <ul>
+ *     <li>for {@code stale-while-revalidate}, at once, while one refresh per key runs in
+ *     the background in the {@link RequestPriority#PREFETCH} lane;</li>
+ *     <li>for {@code stale-if-error}, when fetching a replacement fails with a server
+ *     error, a rate limit or a network failure.</li>
+ * </ul>
+ * Hit, miss and eviction counters are published to Micrometer under {@value #CACHE_NAME}
+ * (a stale answer while revalidating counts as a hit), and stale answers are counted in
+ * {@value #STALE_NAME} tagged {@code reason=revalidate|error}.
+ * <p>
+ * Misses are coalesced through a {@link SingleFlight}: concurrent callers with an
+ * equivalent request share one upstream fetch instead of each starting their own fan-out.
+ * The shared fetch runs in the subscriber context of the caller that started it, so it
+ * keeps that caller's priority and deadline; results cut short by a deadline are not cached.
+ * Every caller that joins applies its own deadline: if it passes before the shared result
+ * arrives, that caller is answered with an empty incomplete result, and if the shared result
+ * was cut short by an earlier deadline, a caller with time left fetches again on its own,
+ * finding the pages received so far in the page cache.
+ * <p>
+ * With {@code off-heap}, the repositories of every cached result are stored as
+ * {@link CompactItems} in direct memory and decoded only as they are read, so a large cache
+ * adds little to the heap the garbage collector has to trace. The direct memory held is the
+ * {@value #OFF_HEAP_BYTES_NAME} gauge and the languages coded so far the
+ * {@value #OFF_HEAP_LANGUAGES_NAME} gauge.
+ */
+@Slf4j
+@Primary
+@Service
+public class CachingGitRepositoryClient implements GitRepositoryClient {
+
+    static final String CACHE_NAME = "github.search.results";
+    static final String STALE_NAME = "github.search.stale";
+    static final String OFF_HEAP_BYTES_NAME = "github.search.results.offheap.bytes";
+    static final String OFF_HEAP_LANGUAGES_NAME = "github.search.results.offheap.languages";
+
+    private final GitRepositoryClient delegate;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final long staleWhileRevalidateNanos;
+    private final long staleIfErrorNanos;
+    private final boolean offHeap;
+    private final LanguageDictionary languages = new LanguageDictionary();
+    private final AtomicLong offHeapBytes = new AtomicLong();
+    private final Ticker ticker;
+    private final StatsCounter stats = new ConcurrentStatsCounter();
+    private final Cache<SearchCacheKey, CachedResult> cache;
+    private final SingleFlight<SearchCacheKey, GitRepositoryPaginatedResponse> inFlight = new SingleFlight<>();
+    private final Counter staleWhileRevalidating;
+    private final Counter staleOnError;
+
+    @Autowired
+    public CachingGitRepositoryClient(@Qualifier("gitRepositoryClientImpl") final GitRepositoryClient delegate,
+                                      final GithubApiProperties githubApiProperties,
+                                      final MeterRegistry meterRegistry) {
+        this(delegate, githubApiProperties, meterRegistry, Ticker.systemTicker());
+    }
+
+    CachingGitRepositoryClient(final GitRepositoryClient delegate, final GithubApiProperties githubApiProperties,
+                               final MeterRegistry meterRegistry, final Ticker ticker) {
+        final GithubApiProperties.CacheProperties cacheProperties = githubApiProperties.getApi().getCache();
+        this.delegate = delegate;
+        this.enabled = cacheProperties.isEnabled();
+        this.ttlNanos = cacheProperties.getTtl().toNanos();
+        this.staleWhileRevalidateNanos = cacheProperties.getStaleWhileRevalidate().toNanos();
+        this.staleIfErrorNanos = cacheProperties.getStaleIfError().toNanos();
+        this.offHeap = cacheProperties.isOffHeap();
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .removalListener((SearchCacheKey key, CachedResult value, RemovalCause cause) -> release(value))
+                .expireAfterWrite(cacheProperties.getTtl()
+                        .plusNanos(Math.max(staleWhileRevalidateNanos, staleIfErrorNanos)))
+                .ticker(ticker)
+                .recordStats(() -> stats)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("github.search.inflight", inFlight, SingleFlight::inFlight)
+                .description("Distinct upstream searches currently in flight")
+                .register(meterRegistry);
+        FunctionCounter.builder("github.search.coalesced", inFlight, SingleFlight::coalesced)
+                .description("Searches that joined an in-flight upstream fetch instead of starting their own")
+                .register(meterRegistry);
+        this.staleWhileRevalidating = stale(meterRegistry, "revalidate");
+        this.staleOnError = stale(meterRegistry, "error");
+        if (offHeap) {
+            Gauge.builder(OFF_HEAP_BYTES_NAME, offHeapBytes, AtomicLong::get)
+                    .description("Direct memory held by the repositories of cached search results")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder(OFF_HEAP_LANGUAGES_NAME, languages, LanguageDictionary::size)
+                    .description("Languages in the dictionary of the off-heap search result cache")
+                    .register(meterRegistry);
+        }
+    }
+
+    private static Counter stale(final MeterRegistry meterRegistry, final String reason) {
+        return Counter.builder(STALE_NAME)
+                .description("Searches answered with an expired cached result")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached result for an equivalent search, or fetches it from the delegate
+     * and caches it on success. Concurrent misses for the same key share a single fetch.
+     * Errors and incomplete results are never cached. An expired result is answered, marked
+     * stale, while it is being revalidated or when the fetch replacing it fails.
+     *
+     * @param searchRequest the search parameters
+     * @return Mono emitting the (possibly cached) paginated repository response
+     */
+    @Override
+    public Mono<GitRepositoryPaginatedResponse> fetchRepositories(final SearchRequest searchRequest) {
+        return Mono.defer(() -> {
+            final SearchCacheKey key = SearchCacheKey.from(searchRequest);
+            final CachedResult cached = enabled ? cache.asMap().get(key) : null;
+            final long age = cached != null ? cached.age() : Long.MAX_VALUE;
+            if (age < ttlNanos) {
+                stats.recordHits(1);
+                log.debug("Search cache hit for {}", key);
+                return Mono.just(cached.response());
+            }
+            if (age < ttlNanos + staleWhileRevalidateNanos) {
+                stats.recordHits(1);
+                staleWhileRevalidating.increment();
+                log.debug("Search cache hit for {} is stale, revalidating", key);
+                revalidate(key, searchRequest);
+                return Mono.just(stale(cached));
+            }
+            if (enabled) {
+                stats.recordMisses(1);
+            }
+            log.debug("Search cache miss for {}", key);
+            return Mono.deferContextual(context -> fetchShared(key, searchRequest, context))
+                    .onErrorResume(CachingGitRepositoryClient::isUpstreamFailure, error -> staleOnError(key, error));
+        });
+    }
+
+    /**
+     * Starts or joins the shared fetch for {@code key}, holding a joining caller to its own
+     * deadline rather than that of the caller that started the fetch.
+     */
+    private Mono<GitRepositoryPaginatedResponse> fetchShared(final SearchCacheKey key,
+                                                             final SearchRequest searchRequest,
+                                                             final ContextView context) {
+        final SearchDeadline deadline = SearchDeadline.from(context);
+        final AtomicBoolean leader = new AtomicBoolean();
+        final Mono<GitRepositoryPaginatedResponse> shared = inFlight.execute(key, () -> {
+            leader.set(true);
+            return fetchAndCache(key, searchRequest).contextWrite(context);
+        });
+        // The shared fetch is subscribed first, so the leader is known when the timer is;
+        // the leader's own deadline is already applied by the delegate.
+        final Mono<GitRepositoryPaginatedResponse> answered = deadline == null ? shared
+                : shared.or(Mono.defer(() -> leader.get() ? Mono.never() : Mono.delay(deadline.remaining())
+                        .map(tick -> {
+                            log.warn("Search deadline passed while waiting for the shared fetch of {}", key);
+                            return GitRepositoryPaginatedResponse.builder()
+                                    .incompleteResults(true)
+                                    .items(List.of())
+                                    .build();
+                        })));
+        return answered.flatMap(response -> !leader.get() && response.isIncompleteResults()
+                && (deadline == null || !deadline.remaining().isZero())
+                ? fetchAndCache(key, searchRequest).contextWrite(context)
+                : Mono.just(response));
+    }
+
+    /**
+     * Streams pages straight from the delegate. Assembled results in this cache do not
+     * keep their page boundaries or upstream {@code total_count}; repeated page reads are
+     * served by the delegate's page cache instead.
+     *
+     * @param searchRequest the search parameters
+     * @return Flux emitting upstream pages as they arrive
+     */
+    @Override
+    public Flux<GitRepositoryPaginatedResponse> fetchPages(final SearchRequest searchRequest) {
+        return delegate.fetchPages(searchRequest);
+    }
+
+    /**
+     * Refreshes {@code key} in the background, unless a fetch for it is already running.
+     */
+    private void revalidate(final SearchCacheKey key, final SearchRequest searchRequest) {
+        inFlight.execute(key, () -> fetchAndCache(key, searchRequest).contextWrite(RequestPriority.PREFETCH.asContext()))
+                .subscribe(response -> log.debug("Revalidated search cache entry {}", key),
+                        error -> log.warn("Revalidating search cache entry {} failed: {}", key, error.getMessage()));
+    }
+
+    /**
+     * Answers a failed fetch with the expired result for {@code key} if it is still within
+     * {@code stale-if-error}, and with the failure otherwise.
+     */
+    private Mono<GitRepositoryPaginatedResponse> staleOnError(final SearchCacheKey key, final Throwable error) {
+        final CachedResult cached = enabled ? cache.asMap().get(key) : null;
+        if (cached == null || cached.age() >= ttlNanos + staleIfErrorNanos) {
+            return Mono.error(error);
+        }
+        staleOnError.increment();
+        log.warn("Answering search {} from an expired cache entry after: {}", key, error.getMessage());
+        return Mono.just(stale(cached));
+    }
+
+    /**
+     * Failures of GitHub or of the way to it: server errors, rate limits and transport
+     * errors. Requests GitHub rejected and failures of this application, such as a response
+     * that cannot be decoded, are not upstream failures and surface to the caller.
+     */
+    private static boolean isUpstreamFailure(final Throwable error) {
+        if (error instanceof ApiException apiException) {
+            return apiException.getStatus().is5xxServerError()
+                    || apiException.getStatus() == HttpStatus.TOO_MANY_REQUESTS
+                    || apiException.getRetryAfter() != null;
+        }
+        return error instanceof WebClientRequestException;
+    }
+
+    private static GitRepositoryPaginatedResponse stale(final CachedResult cached) {
+        return cached.response().toBuilder().stale(true).build();
+    }
+
+    private Mono<GitRepositoryPaginatedResponse> fetchAndCache(final SearchCacheKey key,
+                                                               final SearchRequest searchRequest) {
+        // Re-check without touching the stats: a flight for this key may have completed
+        // between the lookup and joining.
+        final CachedResult cached = enabled ? cache.asMap().get(key) : null;
+        if (cached != null && cached.age() < ttlNanos) {
+            return Mono.just(cached.response());
+        }
+        return delegate.fetchRepositories(searchRequest)
+                .doOnNext(response -> {
+                    if (enabled && !response.isIncompleteResults()) {
+                        cache.put(key, new CachedResult(compact(response), ticker.read()));
+                    }
+                });
+    }
+
+    /**
+     * Moves the repositories of {@code response} off the heap, if configured to.
+     */
+    private GitRepositoryPaginatedResponse compact(final GitRepositoryPaginatedResponse response) {
+        if (!offHeap || response.getItems() == null) {
+            return response;
+        }
+        final CompactItems items = CompactItems.encode(response.getItems(), languages);
+        offHeapBytes.addAndGet(items.sizeInBytes());
+        return response.toBuilder().items(items).build();
+    }
+
+    /**
+     * Accounts for the direct memory of a removed entry; the buffer itself is freed once it
+     * is no longer referenced.
+     */
+    private void release(final CachedResult cached) {
+        if (cached != null && cached.response().getItems() instanceof CompactItems items) {
+            offHeapBytes.addAndGet(-items.sizeInBytes());
+        }
+    }
+
+    /**
+     * A cached result and the {@link Ticker} time it was stored at.
+     */
+    private final class CachedResult {
+        private final GitRepositoryPaginatedResponse response;
+        private final long storedAtNanos;
+
+        private CachedResult(final GitRepositoryPaginatedResponse response, final long storedAtNanos) {
+            this.response = response;
+            this.storedAtNanos = storedAtNanos;
+        }
+
+        GitRepositoryPaginatedResponse response() {
+            return response;
+        }
+
+        long age() {
+            return ticker.read() - storedAtNanos;
+        }
+    }
+}
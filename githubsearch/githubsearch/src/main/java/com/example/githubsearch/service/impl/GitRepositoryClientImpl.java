@@ -2,11 +2,24 @@ package com.example.githubsearch.service.impl;
 
 import com.example.githubsearch.config.GithubApiProperties;
 import com.example.githubsearch.exception.ApiException;
+import com.example.githubsearch.model.GitRepositoryItems;
 import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
 import com.example.githubsearch.model.SearchRequest;
 import com.example.githubsearch.service.GitRepositoryClient;
+import com.example.githubsearch.service.impl.cache.ConditionalRequestStore;
+import com.example.githubsearch.service.impl.cache.NegativeQueryCache;
+import com.example.githubsearch.service.impl.cache.PageKey;
+import com.example.githubsearch.service.impl.cache.UpstreamPageCache;
+import com.example.githubsearch.service.impl.codec.SearchPageDecoder;
+import com.example.githubsearch.service.impl.deadline.SearchDeadline;
+import com.example.githubsearch.service.impl.hedging.RequestHedger;
 import com.example.githubsearch.service.impl.helper.GitHubQueryBuilder;
 import com.example.githubsearch.service.impl.helper.ResponseHandlerHelper;
+import com.example.githubsearch.service.impl.query.SearchQueryPlan;
+import com.example.githubsearch.service.impl.query.SearchQueryPlanner;
+import com.example.githubsearch.service.impl.ratelimit.AdaptiveRateLimiter;
+import com.example.githubsearch.service.impl.retry.UpstreamRetryPolicy;
+import com.example.githubsearch.service.impl.scheduling.UpstreamRequestScheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -14,83 +27,75 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
+import reactor.util.function.Tuples;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
-import io.github.resilience4j.ratelimiter.RequestNotPermitted;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 
-import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Implementation of {@link GitRepositoryClient} for fetching repositories
  * asynchronously from GitHub API.
  * <p>
- * Uses WebClient for async HTTP calls, applies rate limiting, and handles
- * retries and error responses.
+ * Uses WebClient for async HTTP calls, queues every upstream request in its priority lane
+ * on the {@link UpstreamRequestScheduler}, paces it through the {@link AdaptiveRateLimiter},
+ * and handles retries and error responses. Individual pages are shared across queries through
+ * the {@link UpstreamPageCache} and revalidated with conditional requests through the
+ * {@link ConditionalRequestStore}. Filters, sort order and the number of pages requested
+ * come from the {@link SearchQueryPlanner}. Queries GitHub rejected or that matched nothing
+ * are answered from the {@link NegativeQueryCache} without any upstream request.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GitRepositoryClientImpl implements GitRepositoryClient {
+        /**
+         * GitHub's search API never returns more than the first 1000 results of a query.
+         */
+        private static final int GITHUB_MAX_SEARCH_RESULTS = 1000;
+
         private final WebClient webClient;
         private final GithubApiProperties githubApiProperties;
+        private final ConditionalRequestStore conditionalRequestStore;
+        private final UpstreamPageCache upstreamPageCache;
+        private final SearchPageDecoder searchPageDecoder;
+        private final SearchQueryPlanner searchQueryPlanner;
+        private final NegativeQueryCache negativeQueryCache;
+        private final AdaptiveRateLimiter rateLimiter;
+        private final UpstreamRequestScheduler upstreamRequestScheduler;
+        private final RequestHedger requestHedger;
+        private final UpstreamRetryPolicy upstreamRetryPolicy;
 
         /**
-         * Fetches repositories from GitHub based on search criteria.
+         * Fetches repositories from GitHub based on search criteria. If the subscriber
+         * context carries a {@link SearchDeadline}, the pages received by then are assembled,
+         * the result is marked incomplete and the page requests still outstanding are cancelled.
          *
          * @param searchRequest the search parameters,
          * @return Mono emitting paginated repository response or error
          */
         @Override
-        @RateLimiter(name = "githubApiLimiter", fallbackMethod = "rateLimitFallback")
         public Mono<GitRepositoryPaginatedResponse> fetchRepositories(final SearchRequest searchRequest) {
-                Flux<Integer> pageFlux;
-                if (searchRequest.getPageNumber() != null) {
-                        pageFlux = Flux.just(searchRequest.getPageNumber()); // if pageNumber is specified, fetch only that page
-                        log.info("Fetching repositories for specified page number: {}", searchRequest.getPageNumber());
-                } else {
-                        pageFlux = Flux.range(1, 10); // GitHub allows up to 10 pages (max 1000 results, current default per page is set to 30, so max 300 will be fetched)
-                }
-                return pageFlux
-                        .flatMap(page -> {
-                                SearchRequest.SearchRequestBuilder builder = searchRequest.toBuilder();
-                                builder.pageNumber(page);
-                                SearchRequest pagedRequest = builder.build();
-                                final String fullUri = GitHubQueryBuilder.buildUri(githubApiProperties, pagedRequest);
-                                log.info("Fetching repositories from page {} with URI: {}", page, fullUri);
-
-                                return webClient.get()
-                                        .uri(fullUri)
-                                        .header(HttpHeaders.ACCEPT, "application/vnd.github.v3+json")
-                                        .exchangeToMono(ResponseHandlerHelper::handleResponse)
-                                        .retryWhen(Retry.backoff(
-                                                        githubApiProperties.getApi().getRetry().getAttempts(),
-                                                        Duration.ofSeconds(githubApiProperties.getApi().getRetry().getBackoffSeconds()))
-                                                .filter(throwable -> throwable instanceof ApiException &&
-                                                        ((ApiException) throwable).getStatus().is5xxServerError())
-                                                .doBeforeRetry(retrySignal -> log.warn(
-                                                        "Retrying GitHub API page {} due to {}. Attempt {}/{}",
-                                                        page,
-                                                        retrySignal.failure().toString(),
-                                                        retrySignal.totalRetries() + 1,
-                                                        githubApiProperties.getApi().getRetry().getAttempts()))
-                                                .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> retrySignal.failure()))
-                                        .onErrorResume(e -> {
-                                                log.error("Error fetching page {}: {}", page, e.getMessage());
-                                                return Mono.error(e);
-                                        });
+                return Mono.deferContextual(context -> {
+                                final SearchDeadline deadline = SearchDeadline.from(context);
+                                final AtomicBoolean deadlinePassed = new AtomicBoolean();
+                                final Flux<GitRepositoryPaginatedResponse> pages = deadline == null
+                                        ? nonEmptyPages(searchRequest)
+                                        : deadline.cut(nonEmptyPages(searchRequest), () -> deadlinePassed.set(true));
+                                return pages.flatMapIterable(GitRepositoryPaginatedResponse::getItems)
+                                        .collectList()
+                                        .map(allItems -> GitRepositoryPaginatedResponse.builder()
+                                                .totalCount(allItems.size())
+                                                .incompleteResults(deadlinePassed.get())
+                                                .hasNextPage(false)
+                                                .pageNumber(searchRequest.getPageNumber())
+                                                .nextPageNumber(null)
+                                                .items(allItems)
+                                                .build());
                         })
-                        .filter(response -> response != null && response.getItems() != null && !response.getItems().isEmpty())
-                        .flatMapIterable(GitRepositoryPaginatedResponse::getItems)
-                        .collectList()
-                        .map(allItems -> GitRepositoryPaginatedResponse.builder()
-                                .totalCount(allItems.size())
-                                .incompleteResults(false)
-                                .hasNextPage(false)
-                                .pageNumber(searchRequest.getPageNumber())
-                                .nextPageNumber(null)
-                                .items(allItems)
-                                .build())
                         .doOnSuccess(response -> log.info(
                                 "Successfully fetched total {} repositories from all pages.",
                                 response.getTotalCount()))
@@ -99,9 +104,197 @@ public class GitRepositoryClientImpl implements GitRepositoryClient {
                         .doOnError(e -> log.error("Unexpected error during GitHub API calls: {}", e.getMessage(), e));
         }
 
-        public Mono<GitRepositoryPaginatedResponse> rateLimitFallback(SearchRequest searchRequest,
-                        RequestNotPermitted ex) {
-                return Mono.error(new ApiException(HttpStatus.TOO_MANY_REQUESTS,
-                                "Rate limit exceeded. Please try again later."));
+        /**
+         * Fetches the same pages as {@link #fetchRepositories(SearchRequest)} and emits each
+         * non-empty page as soon as it arrives.
+         *
+         * @param searchRequest the search parameters
+         * @return Flux emitting upstream pages in arrival order (page order in ordered mode)
+         */
+        @Override
+        public Flux<GitRepositoryPaginatedResponse> fetchPages(final SearchRequest searchRequest) {
+                return nonEmptyPages(searchRequest)
+                        .doOnError(e -> log.error("Error while streaming GitHub API pages: {}", e.getMessage()));
+        }
+
+        private Flux<GitRepositoryPaginatedResponse> nonEmptyPages(final SearchRequest searchRequest) {
+                return Flux.defer(() -> {
+                        final SearchQueryPlan plan = searchQueryPlanner.plan(searchRequest);
+                        final Flux<GitRepositoryPaginatedResponse> known = negativeQueryCache.replay(plan.getQuery());
+                        return known != null ? known : nonEmptyPages(searchRequest, plan);
+                });
+        }
+
+        private Flux<GitRepositoryPaginatedResponse> nonEmptyPages(final SearchRequest searchRequest,
+                                                                   final SearchQueryPlan plan) {
+                final Flux<GitRepositoryPaginatedResponse> pages;
+                if (searchRequest.getPageNumber() != null) {
+                        log.info("Fetching repositories for specified page number: {}", searchRequest.getPageNumber());
+                        pages = fetchPageWindow(searchRequest, plan); // if pageNumber is specified, fetch only the upstream pages holding that page
+                } else if (githubApiProperties.getApi().getFetch().getStrategy() == GithubApiProperties.FetchStrategy.EXHAUSTIVE) {
+                        pages = fanOut(Flux.range(1, plan.getLastPage()), // GitHub allows up to 1000 results; the plan caps the window at max-pages * default-per-page of them
+                                page -> fetchPage(searchRequest, plan, page).map(response -> slice(plan, page, response)));
+                } else {
+                        pages = fetchPagesAdaptively(searchRequest, plan);
+                }
+                return pages.filter(response -> response != null && response.getItems() != null && !response.getItems().isEmpty());
+        }
+
+        /**
+         * Fetches the upstream pages that hold one client page, in page order. A client page
+         * spans two upstream pages when its results straddle an upstream page boundary; the
+         * second is not needed if the first comes back short.
+         */
+        private Flux<GitRepositoryPaginatedResponse> fetchPageWindow(final SearchRequest searchRequest,
+                                                                     final SearchQueryPlan plan) {
+                return Flux.range(plan.getFirstPage(), plan.getPageBudget())
+                        .concatMap(page -> fetchPage(searchRequest, plan, page).map(response -> Tuples.of(page, response)))
+                        .takeUntil(tuple -> isShortPage(tuple.getT2(), plan.getUpstreamPerPage()))
+                        .map(tuple -> slice(plan, tuple.getT1(), tuple.getT2()));
+        }
+
+        /**
+         * Fetches the first page, then only the pages that can still hold results according
+         * to its {@code total_count} (capped at GitHub's 1000-result search window). A page
+         * that comes back shorter than {@code per_page} marks the end of the results; pages
+         * after it that have not been sent yet are skipped and those arriving later are
+         * dropped. No pages beyond the plan's window are requested. Pages are emitted as they
+         * arrive, so a caller cutting the stream at a deadline keeps every page received.
+         */
+        private Flux<GitRepositoryPaginatedResponse> fetchPagesAdaptively(final SearchRequest searchRequest,
+                                                                          final SearchQueryPlan plan) {
+                final int perPage = plan.getUpstreamPerPage();
+                final int maxPages = plan.getLastPage();
+                return fetchPage(searchRequest, plan, 1).flatMapMany(firstPage -> {
+                        final int lastPage = lastPageToFetch(firstPage, perPage, maxPages);
+                        log.debug("First page reports total_count={}, fetching {} page(s)", firstPage.getTotalCount(), lastPage);
+                        final GitRepositoryPaginatedResponse firstSlice = slice(plan, 1, firstPage);
+                        if (lastPage <= 1) {
+                                return Flux.just(firstSlice);
+                        }
+                        final AtomicInteger lastNonEmptyPage = new AtomicInteger(lastPage);
+                        final Flux<GitRepositoryPaginatedResponse> remainingPages = fanOut(Flux.range(2, lastPage - 1),
+                                page -> Mono.defer(() -> page > lastNonEmptyPage.get()
+                                                ? Mono.<GitRepositoryPaginatedResponse>empty()
+                                                : fetchPage(searchRequest, plan, page))
+                                        .doOnNext(response -> {
+                                                if (isShortPage(response, perPage)) {
+                                                        lastNonEmptyPage.accumulateAndGet(page, Math::min);
+                                                }
+                                        })
+                                        .map(response -> Tuples.of(page, response)))
+                                .filter(tuple -> tuple.getT1() <= lastNonEmptyPage.get())
+                                .map(tuple -> slice(plan, tuple.getT1(), tuple.getT2()));
+                        return Flux.just(firstSlice).concatWith(remainingPages);
+                });
+        }
+
+        /**
+         * Narrows an upstream page to the results inside the plan's window.
+         */
+        private static GitRepositoryPaginatedResponse slice(final SearchQueryPlan plan, final int page,
+                                                            final GitRepositoryPaginatedResponse response) {
+                final List<GitRepositoryItems> items = plan.slice(page, response.getItems());
+                return items == response.getItems() ? response : response.toBuilder().items(items).build();
+        }
+
+        /**
+         * Maps page numbers to page fetches with the configured concurrency and prefetch.
+         * In ordered mode results are emitted in page order ({@code flatMapSequential});
+         * otherwise they are emitted as they arrive.
+         */
+        private <T> Flux<T> fanOut(final Flux<Integer> pageNumbers,
+                                   final Function<Integer, ? extends Publisher<? extends T>> fetcher) {
+                final GithubApiProperties.FetchProperties fetch = githubApiProperties.getApi().getFetch();
+                return fetch.isOrdered()
+                        ? pageNumbers.flatMapSequential(fetcher, fetch.getConcurrency(), fetch.getPrefetch())
+                        : pageNumbers.flatMap(fetcher, fetch.getConcurrency(), fetch.getPrefetch());
+        }
+
+        private static int lastPageToFetch(final GitRepositoryPaginatedResponse firstPage, final int perPage,
+                                           final int maxPages) {
+                if (isShortPage(firstPage, perPage)) {
+                        return 1;
+                }
+                final int reachableResults = Math.min(firstPage.getTotalCount(), GITHUB_MAX_SEARCH_RESULTS);
+                final int pagesWithResults = (reachableResults + perPage - 1) / perPage;
+                return Math.max(1, Math.min(maxPages, pagesWithResults));
+        }
+
+        private static boolean isShortPage(final GitRepositoryPaginatedResponse page, final int perPage) {
+                return page.getItems() == null || page.getItems().size() < perPage;
+        }
+
+        /**
+         * Fetches a single page, reusing it from the {@link UpstreamPageCache} when an
+         * equivalent page (same query, sort, page number and page size) is already warm.
+         * A page reporting no matches, and a {@code 422} for the first page, are remembered
+         * for the whole query in the {@link NegativeQueryCache}; a {@code 422} for a later page
+         * may only reject that page's offset.
+         */
+        private Mono<GitRepositoryPaginatedResponse> fetchPage(final SearchRequest searchRequest,
+                                                               final SearchQueryPlan plan, final int page) {
+                final PageKey pageKey = new PageKey(plan.getQuery(), plan.getSort(), page, plan.getUpstreamPerPage());
+                return upstreamPageCache.get(pageKey, () -> fetchUpstreamPage(searchRequest, page, plan.getUpstreamPerPage()))
+                        .doOnNext(response -> {
+                                if (response.getTotalCount() == 0 && (response.getItems() == null || response.getItems().isEmpty())) {
+                                        negativeQueryCache.recordEmpty(plan.getQuery());
+                                }
+                        })
+                        .doOnError(e -> page == 1 && e instanceof ApiException apiException
+                                        && apiException.getStatus() == HttpStatus.UNPROCESSABLE_ENTITY,
+                                e -> negativeQueryCache.recordInvalid(plan.getQuery(), e.getMessage()));
+        }
+
+        /**
+         * Fetches a single upstream page. If a validator for the page URI is stored, the
+         * request is sent with {@code If-None-Match} and a {@code 304 Not Modified} is
+         * answered from the stored body; fresh {@code 200} responses refresh the validator.
+         * Every attempt, retries included, waits for a slot in its lane of the
+         * {@link UpstreamRequestScheduler}, then takes a permit from the
+         * {@link AdaptiveRateLimiter}, is sent with the token the permit names, and reports
+         * the rate-limit headers of its response back to it. An attempt still slow after its
+         * permit was granted may be hedged by the {@link RequestHedger}; the hedge takes its own
+         * rate-limit permit once it fires. Failed attempts
+         * are retried as the {@link UpstreamRetryPolicy} allows.
+         */
+        private Mono<GitRepositoryPaginatedResponse> fetchUpstreamPage(final SearchRequest searchRequest, final int page,
+                                                                       final int perPage) {
+                SearchRequest.SearchRequestBuilder builder = searchRequest.toBuilder();
+                builder.pageNumber(page);
+                SearchRequest pagedRequest = builder.build();
+                final String fullUri = GitHubQueryBuilder.buildUri(githubApiProperties, pagedRequest, perPage);
+                log.info("Fetching repositories from page {} with URI: {}", page, fullUri);
+
+                return upstreamRequestScheduler.submit(Mono.defer(() -> {
+                                final ConditionalRequestStore.ValidatedPage validatedPage = conditionalRequestStore.get(fullUri);
+                                return requestHedger.hedge(rateLimiter.acquire(), permit -> webClient.get()
+                                        .uri(fullUri)
+                                        .header(HttpHeaders.ACCEPT, "application/vnd.github.v3+json")
+                                        .headers(headers -> {
+                                                if (permit.getToken() != null) {
+                                                        headers.setBearerAuth(permit.getToken());
+                                                }
+                                                if (validatedPage != null) {
+                                                        headers.setIfNoneMatch(validatedPage.getEtag());
+                                                }
+                                        })
+                                        .exchangeToMono(response -> {
+                                                rateLimiter.observe(permit, ResponseHandlerHelper.extractRateLimit(response));
+                                                return ResponseHandlerHelper.handleResponse(response, validatedPage, searchPageDecoder)
+                                                        .doOnNext(body -> {
+                                                                if (response.statusCode().is2xxSuccessful()) {
+                                                                        conditionalRequestStore.put(fullUri,
+                                                                                ResponseHandlerHelper.extractETag(response), body);
+                                                                }
+                                                        });
+                                        }));
+                        }))
+                        .retryWhen(upstreamRetryPolicy.retrySpec("GitHub API page " + page))
+                        .doOnNext(body -> upstreamRetryPolicy.recordSuccess())
+                        .onErrorResume(e -> {
+                                log.error("Error fetching page {}: {}", page, e.getMessage());
+                                return Mono.error(e);
+                        });
         }
 }
@@ -2,17 +2,29 @@ package com.example.githubsearch.service.impl;
 
 import com.example.githubsearch.config.GithubApiProperties;
 import com.example.githubsearch.exception.ApiException;
+import com.example.githubsearch.model.GitRepositoryItems;
 import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
 import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.model.SearchStreamEvent;
+import com.example.githubsearch.model.SearchStreamSummary;
 import com.example.githubsearch.service.GitRepositoryClient;
 import com.example.githubsearch.service.GitRepositoryService;
-import com.example.githubsearch.service.impl.helper.PopularityScoreCalculator;
+import com.example.githubsearch.service.impl.deadline.SearchDeadline;
+import com.example.githubsearch.service.impl.helper.RepositoryRanking;
+import com.example.githubsearch.service.impl.leaderboard.LanguageLeaderboards;
+import com.example.githubsearch.service.impl.scoring.PopularityScoringExecutor;
+import com.example.githubsearch.service.impl.scoring.TopKSelector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Implementation of {@link GitRepositoryService} for searching and scoring
@@ -21,6 +33,13 @@ import reactor.core.scheduler.Schedulers;
  * Uses reactive streams for async processing and delegates API calls to
  * {@link GitRepositoryClient}.
  * <p>
+ * Every search runs against a {@link SearchDeadline}: the client's time budget, capped at
+ * {@code github.api.deadline.max-timeout}, or the configured timeout. When it passes, the
+ * pages received so far are answered with {@code incompleteResults} set and the page
+ * requests still outstanding are cancelled.
+ * <p>
+ * Ranked searches for the top repositories of a language are answered from
+ * {@link LanguageLeaderboards} when it holds a fresh leaderboard for that language.
  */
 @Slf4j
 @Service
@@ -29,9 +48,18 @@ public class GitRepositoryServiceImpl implements GitRepositoryService {
 
     private final GitRepositoryClient gitRepositoryClient;
     private final GithubApiProperties githubApiProperties;
+    private final PopularityScoringExecutor popularityScoringExecutor;
+    private final LanguageLeaderboards languageLeaderboards;
 
     /**
-     * Searches repositories and computes a popularity score for each.
+     * Searches repositories and computes a popularity score for each. The fetched items are
+     * scored as one batch by {@link PopularityScoringExecutor}.
+     * <p>
+     * When the request carries a sort key or a limit, pages are scored as they arrive and
+     * only the top {@code limit} repositories across all of them are kept and returned,
+     * best first; see {@link #rankRepositories(SearchRequest)}. Such a search for a language
+     * without further filters is answered from its materialized leaderboard, if there is one.
+     * A ranked response is complete in itself and never has a next page.
      *
      * @param searchRequest the search criteria (internal model)
      * @return a reactive Mono of paginated response with scored repositories and
@@ -45,31 +73,32 @@ public class GitRepositoryServiceImpl implements GitRepositoryService {
         final int defaultPage = githubApiProperties.getApi().getDefaultPage();
         final int defaultPerPage = githubApiProperties.getApi().getDefaultPerPage();
 
-        return gitRepositoryClient.fetchRepositories(searchRequest)
-                .flatMap(response -> {
-                    int totalCount = response.getTotalCount();
-                    int totalPages = (int) Math.ceil((double) totalCount / defaultPerPage);
+        final GitRepositoryPaginatedResponse leaderboard = languageLeaderboards.lookup(searchRequest);
+        final boolean ranked = leaderboard != null
+                || searchRequest.getSortBy() != null || searchRequest.getLimit() != null;
+        final Mono<GitRepositoryPaginatedResponse> scoredResponse;
+        if (leaderboard != null) {
+            scoredResponse = Mono.just(leaderboard);
+        } else if (ranked) {
+            scoredResponse = rankRepositories(searchRequest);
+        } else {
+            scoredResponse = scoreRepositories(searchRequest);
+        }
 
-                    boolean hasNextPage = defaultPage < totalPages;
+        return scoredResponse
+                .map(response -> {
+                    final int pageNumber = searchRequest.getPageNumber() != null ? searchRequest.getPageNumber()
+                            : defaultPage;
+                    // A ranked result is the whole top-K: its total count is the number of
+                    // repositories ranked, not a number of pages still to come.
+                    final int totalPages = (int) Math.ceil((double) response.getTotalCount() / defaultPerPage);
+                    final boolean hasNextPage = !ranked && defaultPage < totalPages;
 
-                    return Flux.fromIterable(response.getItems())
-                            .parallel()
-                            .runOn(Schedulers.parallel())
-                            .map(PopularityScoreCalculator::calculateScore)
-                            .sequential()
-                            .collectList()
-                            .map(scoredItems -> GitRepositoryPaginatedResponse.builder()
-                                    .totalCount(totalCount)
-                                    .incompleteResults(response.isIncompleteResults())
-                                    .hasNextPage(hasNextPage)
-                                    .pageNumber(searchRequest.getPageNumber() != null ? searchRequest.getPageNumber()
-                                            : defaultPage)
-                                    .nextPageNumber(hasNextPage
-                                            ? ((searchRequest.getPageNumber() != null ? searchRequest.getPageNumber()
-                                            : defaultPage) + 1)
-                                            : null)
-                                    .items(scoredItems)
-                                    .build());
+                    return response.toBuilder()
+                            .hasNextPage(hasNextPage)
+                            .pageNumber(pageNumber)
+                            .nextPageNumber(hasNextPage ? pageNumber + 1 : null)
+                            .build();
                 })
                 .doOnSuccess(
                         resp -> log.info("Successfully fetched and scored {} repositories", resp.getItems().size()))
@@ -82,4 +111,127 @@ public class GitRepositoryServiceImpl implements GitRepositoryService {
                     }
                 });
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetches the assembled result and scores every repository in it, keeping GitHub's order.
+     * The deadline is handed to the client in the subscriber context, which assembles
+     * whatever pages arrived in time.
+     */
+    private Mono<GitRepositoryPaginatedResponse> scoreRepositories(final SearchRequest searchRequest) {
+        return Mono.defer(() -> {
+            final SearchDeadline deadline = deadline(searchRequest);
+            final Mono<GitRepositoryPaginatedResponse> response = gitRepositoryClient.fetchRepositories(searchRequest);
+            return deadline == null ? response : response.contextWrite(deadline.asContext());
+        }).flatMap(response -> popularityScoringExecutor.score(response.getItems())
+                .map(scoredItems -> GitRepositoryPaginatedResponse.builder()
+                        .totalCount(response.getTotalCount())
+                        .incompleteResults(response.isIncompleteResults())
+                        .stale(response.isStale())
+                        .items(scoredItems)
+                        .build()));
+    }
+
+    /**
+     * Scores each upstream page as it arrives and feeds it into a bounded heap of the
+     * {@code limit} best repositories by the requested sort key, so no page is held after it
+     * has been offered and the result is never fully sorted. The total count is the number
+     * of repositories ranked.
+     */
+    private Mono<GitRepositoryPaginatedResponse> rankRepositories(final SearchRequest searchRequest) {
+        final int limit = searchRequest.getLimit() != null ? searchRequest.getLimit() : Integer.MAX_VALUE;
+        final Comparator<GitRepositoryItems> bestFirst = RepositoryRanking.bestFirst(searchRequest.getSortBy());
+        return Mono.defer(() -> {
+            final AtomicBoolean incompleteResults = new AtomicBoolean();
+            return withinDeadline(searchRequest, gitRepositoryClient.fetchPages(searchRequest), incompleteResults)
+                    .doOnNext(page -> {
+                        if (page.isIncompleteResults()) {
+                            incompleteResults.set(true);
+                        }
+                    })
+                    .concatMap(page -> popularityScoringExecutor.score(page.getItems()))
+                    .collect(() -> new TopKSelector<>(limit, bestFirst), TopKSelector::offerAll)
+                    .map(selector -> {
+                        log.debug("Ranked {} repositories by {}, keeping the top {}",
+                                selector.offered(), searchRequest.getSortBy(), searchRequest.getLimit());
+                        return GitRepositoryPaginatedResponse.builder()
+                                .totalCount(selector.offered())
+                                .incompleteResults(incompleteResults.get())
+                                .items(selector.toSortedList())
+                                .build();
+                    });
+        });
+    }
+
+    /**
+     * Streams repositories page by page: every repository of an upstream page is scored,
+     * as one batch per page, and emitted as soon as that page arrives, and a summary event with the counts is
+     * emitted once all pages are done, or once the deadline has passed.
+     *
+     * @param searchRequest the search criteria (internal model)
+     * @return a reactive Flux of item events followed by one summary event
+     */
+    @Override
+    public Flux<SearchStreamEvent> streamRepositories(final SearchRequest searchRequest) {
+        log.info("Starting streamRepositories with SearchRequest: {}", searchRequest);
+        return Flux.defer(() -> {
+            final AtomicInteger totalCount = new AtomicInteger();
+            final AtomicInteger itemCount = new AtomicInteger();
+            final AtomicInteger pageCount = new AtomicInteger();
+            final AtomicBoolean incompleteResults = new AtomicBoolean();
+
+            return withinDeadline(searchRequest, gitRepositoryClient.fetchPages(searchRequest), incompleteResults)
+                    .doOnNext(page -> {
+                        pageCount.incrementAndGet();
+                        totalCount.accumulateAndGet(page.getTotalCount(), Math::max);
+                        if (page.isIncompleteResults()) {
+                            incompleteResults.set(true);
+                        }
+                    })
+                    .concatMap(page -> popularityScoringExecutor.score(page.getItems()))
+                    .concatMapIterable(Function.identity())
+                    .doOnNext(item -> itemCount.incrementAndGet())
+                    .map(SearchStreamEvent::item)
+                    .concatWith(Mono.fromSupplier(() -> SearchStreamEvent.summary(SearchStreamSummary.builder()
+                            .totalCount(totalCount.get())
+                            .itemCount(itemCount.get())
+                            .pageCount(pageCount.get())
+                            .incompleteResults(incompleteResults.get())
+                            .build())))
+                    .doOnComplete(() -> log.info("Streamed {} scored repositories from {} pages",
+                            itemCount.get(), pageCount.get()));
+        }).doOnError(throwable -> log.error("Error while streaming repository search: {}", throwable.getMessage()));
+    }
+
+    /**
+     * Cuts {@code pages} at the deadline of {@code searchRequest}, marking the result
+     * incomplete if it passes first.
+     */
+    private Flux<GitRepositoryPaginatedResponse> withinDeadline(final SearchRequest searchRequest,
+                                                                final Flux<GitRepositoryPaginatedResponse> pages,
+                                                                final AtomicBoolean incompleteResults) {
+        final SearchDeadline deadline = deadline(searchRequest);
+        if (deadline == null) {
+            return pages;
+        }
+        return deadline.cut(pages, () -> {
+            incompleteResults.set(true);
+            log.warn("Search deadline passed, answering with the pages received so far");
+        });
+    }
+
+    /**
+     * The deadline for {@code searchRequest}, starting now, or null if deadlines are disabled.
+     */
+    private SearchDeadline deadline(final SearchRequest searchRequest) {
+        final GithubApiProperties.DeadlineProperties deadlineProperties = githubApiProperties.getApi().getDeadline();
+        if (!deadlineProperties.isEnabled()) {
+            return null;
+        }
+        final Duration requested = searchRequest.getTimeBudget();
+        if (requested == null) {
+            return SearchDeadline.after(deadlineProperties.getTimeout());
+        }
+        return SearchDeadline.after(requested.compareTo(deadlineProperties.getMaxTimeout()) > 0
+                ? deadlineProperties.getMaxTimeout() : requested);
+    }
+}
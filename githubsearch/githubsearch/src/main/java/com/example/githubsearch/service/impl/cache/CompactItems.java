@@ -0,0 +1,220 @@
+package com.example.githubsearch.service.impl.cache;
+
+import com.example.githubsearch.model.GitRepositoryItems;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of repositories kept in a compact binary encoding in one direct
+ * {@link ByteBuffer}, outside the garbage-collected heap.
+ * <p>
+ * The buffer starts with a table of fixed-width offsets, one per repository, followed by
+ * the encoded repositories:
+ * <ul>
+ *     <li>id, stars and forks as variable-length integers, usually one to four bytes;</li>
+ *     <li>name, description and URL as UTF-8 prefixed with their length;</li>
+ *     <li>language as a code of the shared {@link LanguageDictionary};</li>
+ *     <li>creation and update time as epoch seconds, the precision GitHub reports;</li>
+ *     <li>popularity score as an eight-byte double.</li>
+ * </ul>
+ * Nothing is decoded up front: {@link #get(int)} decodes one repository on each call, so a
+ * cached result costs a few dozen heap bytes however many repositories it holds. Readers
+ * only use absolute reads, so the list is safe to share between threads.
+ */
+public final class CompactItems extends AbstractList<GitRepositoryItems> implements RandomAccess {
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final LanguageDictionary languages;
+
+    private CompactItems(final ByteBuffer buffer, final int size, final LanguageDictionary languages) {
+        this.buffer = buffer;
+        this.size = size;
+        this.languages = languages;
+    }
+
+    /**
+     * Encodes {@code items} into direct memory.
+     *
+     * @param items     the repositories to encode, without null elements
+     * @param languages the dictionary to code languages with; decoding uses the same one
+     * @return the encoded list
+     */
+    public static CompactItems encode(final List<GitRepositoryItems> items, final LanguageDictionary languages) {
+        final int tableBytes = items.size() * Integer.BYTES;
+        final Writer writer = new Writer(items.size() * 128);
+        final int[] offsets = new int[items.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = tableBytes + writer.length;
+            final GitRepositoryItems item = items.get(i);
+            writer.writeVarLong(item.getId());
+            writer.writeString(item.getName());
+            writer.writeString(item.getDescription());
+            writer.writeVarLong(item.getLanguage() == null ? 0 : languages.code(item.getLanguage()) + 1L);
+            writer.writeVarLong(zigZag(item.getStargazerCount()));
+            writer.writeVarLong(zigZag(item.getForksCount()));
+            writer.writeString(item.getHtmlUrl());
+            writer.writeInstant(item.getUpdatedAt());
+            writer.writeInstant(item.getCreatedAt());
+            writer.writeLong(Double.doubleToRawLongBits(item.getPopularityScore()));
+        }
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(tableBytes + writer.length);
+        for (final int offset : offsets) {
+            buffer.putInt(offset);
+        }
+        buffer.put(writer.bytes, 0, writer.length);
+        return new CompactItems(buffer, offsets.length, languages);
+    }
+
+    /**
+     * Decodes the repository at {@code index}.
+     */
+    @Override
+    public GitRepositoryItems get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        final Reader reader = new Reader(buffer.getInt(index * Integer.BYTES));
+        final GitRepositoryItems.GitRepositoryItemsBuilder item = GitRepositoryItems.builder()
+                .id(reader.readVarLong())
+                .name(reader.readString())
+                .description(reader.readString());
+        final long language = reader.readVarLong();
+        return item.language(language == 0 ? null : languages.language((int) (language - 1)))
+                .stargazerCount((int) unZigZag(reader.readVarLong()))
+                .forksCount((int) unZigZag(reader.readVarLong()))
+                .htmlUrl(reader.readString())
+                .updatedAt(reader.readInstant())
+                .createdAt(reader.readInstant())
+                .popularityScore(Double.longBitsToDouble(reader.readLong()))
+                .build();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the direct memory the encoding takes, in bytes
+     */
+    public int sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Appends encoded values to a growing heap array.
+     */
+    private static final class Writer {
+        private byte[] bytes;
+        private int length;
+
+        private Writer(final int capacity) {
+            this.bytes = new byte[Math.max(16, capacity)];
+        }
+
+        private void write(final int value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        /**
+         * Unsigned LEB128: seven bits per byte, lowest first, high bit set on all but the last.
+         */
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeLong(final long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        /**
+         * Length plus one, then UTF-8; zero length for null.
+         */
+        private void writeString(final String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            for (final byte b : utf8) {
+                write(b);
+            }
+        }
+
+        /**
+         * Zig-zag epoch seconds plus one; zero for null.
+         */
+        private void writeInstant(final Instant value) {
+            writeVarLong(value == null ? 0 : zigZag(value.getEpochSecond()) + 1);
+        }
+    }
+
+    /**
+     * Reads values back from an offset of the buffer with absolute reads only.
+     */
+    private final class Reader {
+        private int position;
+
+        private Reader(final int position) {
+            this.position = position;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = buffer.get(position++);
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private long readLong() {
+            final long value = buffer.getLong(position);
+            position += Long.BYTES;
+            return value;
+        }
+
+        private String readString() {
+            final int length = (int) readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            final byte[] utf8 = new byte[length];
+            buffer.get(position, utf8);
+            position += length;
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        private Instant readInstant() {
+            final long value = readVarLong();
+            return value == 0 ? null : Instant.ofEpochSecond(unZigZag(value - 1));
+        }
+    }
+}
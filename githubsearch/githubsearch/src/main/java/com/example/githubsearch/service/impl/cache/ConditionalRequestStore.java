@@ -0,0 +1,66 @@
+package com.example.githubsearch.service.impl.cache;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded store of upstream page validators.
+ * <p>
+ * Remembers the {@code ETag} and decoded body of every successfully fetched GitHub page,
+ * keyed by request URI, so the next fetch of the same page can be sent as a conditional
+ * request ({@code If-None-Match}) and a {@code 304 Not Modified} answered from the stored
+ * body. GitHub does not count 304 responses against the rate limit.
+ */
+@Component
+public class ConditionalRequestStore {
+
+    static final String CACHE_NAME = "github.page.validators";
+
+    private final Cache<String, ValidatedPage> pages;
+
+    public ConditionalRequestStore(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry) {
+        final GithubApiProperties.CacheProperties cacheProperties = githubApiProperties.getApi().getCache();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getValidatorMaximumSize())
+                .expireAfterWrite(cacheProperties.getValidatorTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, CACHE_NAME);
+    }
+
+    /**
+     * @param uri the upstream request URI
+     * @return the stored validator and body, or null if none is stored
+     */
+    public ValidatedPage get(final String uri) {
+        return pages.getIfPresent(uri);
+    }
+
+    /**
+     * Stores the validator for a freshly fetched page. Responses without an ETag are ignored.
+     *
+     * @param uri  the upstream request URI
+     * @param etag the ETag returned by GitHub, may be null
+     * @param body the decoded page body
+     */
+    public void put(final String uri, final String etag, final GitRepositoryPaginatedResponse body) {
+        if (etag != null && !etag.isBlank() && body != null) {
+            pages.put(uri, new ValidatedPage(etag, body));
+        }
+    }
+
+    /**
+     * ETag and body of a previously fetched upstream page.
+     */
+    @Value
+    public static class ValidatedPage {
+        String etag;
+        GitRepositoryPaginatedResponse body;
+    }
+}
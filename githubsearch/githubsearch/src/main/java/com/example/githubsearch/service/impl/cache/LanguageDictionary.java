@@ -0,0 +1,53 @@
+package com.example.githubsearch.service.impl.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Assigns small integer codes to repository languages for {@link CompactItems}, so a
+ * language is stored once however many repositories use it.
+ * <p>
+ * Codes are handed out in order of first use and never reassigned. The dictionary is not
+ * bounded: GitHub knows a few hundred languages, so it stays small.
+ */
+public final class LanguageDictionary {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final List<String> languages = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param language a repository language, not null
+     * @return its code, assigned now if the language is new
+     */
+    public int code(final String language) {
+        final Integer code = codes.get(language);
+        return code != null ? code : assign(language);
+    }
+
+    private synchronized int assign(final String language) {
+        final Integer code = codes.get(language);
+        if (code != null) {
+            return code;
+        }
+        languages.add(language);
+        codes.put(language, languages.size() - 1);
+        return languages.size() - 1;
+    }
+
+    /**
+     * @param code a code returned by {@link #code(String)}
+     * @return the language it was assigned to
+     */
+    public String language(final int code) {
+        return languages.get(code);
+    }
+
+    /**
+     * @return the number of languages known
+     */
+    public int size() {
+        return languages.size();
+    }
+}
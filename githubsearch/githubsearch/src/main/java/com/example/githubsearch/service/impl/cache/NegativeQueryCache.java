@@ -0,0 +1,101 @@
+package com.example.githubsearch.service.impl.cache;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.exception.ApiException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Locale;
+
+/**
+ * Short-lived memory of GitHub search queries that cannot return anything: queries GitHub
+ * rejected with {@code 422 Unprocessable Entity} and queries that matched no repository.
+ * <p>
+ * Entries are keyed on the {@code q} parameter built by
+ * {@link com.example.githubsearch.service.impl.helper.GitHubQueryBuilder}, lower-cased as
+ * GitHub's qualifiers are case-insensitive, so every page, page size and sort order of a
+ * query shares one entry. A repeated query is answered from the entry without a page
+ * request or a rate-limit permit, until it expires after {@code negative-ttl}. Lookups are
+ * published as {@code cache.*} metrics tagged {@code cache=github.search.negative}.
+ */
+@Slf4j
+@Component
+public class NegativeQueryCache {
+
+    static final String CACHE_NAME = "github.search.negative";
+
+    private final boolean enabled;
+    private final Cache<String, Verdict> queries;
+
+    public NegativeQueryCache(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry) {
+        final GithubApiProperties.CacheProperties cacheProperties = githubApiProperties.getApi().getCache();
+        this.enabled = cacheProperties.isEnabled();
+        this.queries = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getNegativeMaximumSize())
+                .expireAfterWrite(cacheProperties.getNegativeTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, queries, CACHE_NAME);
+    }
+
+    /**
+     * Answers a query known to return nothing.
+     *
+     * @param query the {@code q} parameter sent to GitHub
+     * @return a Flux failing with the remembered {@code 422} for a rejected query, an empty
+     *         Flux for a query without matches, or null if nothing is known about the query
+     */
+    public <T> Flux<T> replay(final String query) {
+        final Verdict verdict = queries.getIfPresent(key(query));
+        if (verdict == null) {
+            return null;
+        }
+        log.debug("Answering query {} from the negative cache", query);
+        return verdict.getValidationError() != null
+                ? Flux.error(new ApiException(HttpStatus.UNPROCESSABLE_ENTITY, verdict.getValidationError()))
+                : Flux.empty();
+    }
+
+    /**
+     * Remembers that {@code query} matched no repository.
+     */
+    public void recordEmpty(final String query) {
+        if (enabled) {
+            queries.put(key(query), new Verdict(null));
+        }
+    }
+
+    /**
+     * Remembers that GitHub rejected {@code query} with {@code 422}.
+     *
+     * @param query   the {@code q} parameter sent to GitHub
+     * @param message the message of the {@link ApiException} the rejection was raised as
+     */
+    public void recordInvalid(final String query, final String message) {
+        if (enabled) {
+            queries.put(key(query), new Verdict(message));
+        }
+    }
+
+    private static String key(final String query) {
+        return query.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Why a query returns nothing.
+     */
+    @Value
+    static class Verdict {
+        /**
+         * Message of the {@code 422} GitHub answered with, or null if the query matched nothing.
+         */
+        String validationError;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.githubsearch.service.impl.cache;
+
+import lombok.Value;
+
+/**
+ * Immutable key identifying a single upstream GitHub search page.
+ * <p>
+ * Two searches that resolve to the same query string and sort share cached pages,
+ * regardless of whether they were issued in single-page or all-pages mode.
+ */
+@Value
+public class PageKey {
+    String query;
+    /**
+     * GitHub {@code sort} parameter, or null for GitHub's default best-match order.
+     */
+    String sort;
+    int page;
+    int perPage;
+}
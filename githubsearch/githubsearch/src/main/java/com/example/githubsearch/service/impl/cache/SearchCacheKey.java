@@ -0,0 +1,49 @@
+package com.example.githubsearch.service.impl.cache;
+
+import com.example.githubsearch.model.SearchRequest;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Immutable cache key derived from a {@link SearchRequest}.
+ * <p>
+ * Requests that GitHub would answer identically map to the same key: the language is
+ * trimmed, lower-cased and has its inner whitespace collapsed, and blank languages are
+ * treated as absent.
+ */
+@Value
+public class SearchCacheKey {
+    String language;
+    Instant earliestCreatedDate;
+    Integer pageNumber;
+    Integer minStars;
+    Integer minForks;
+    SearchRequest.SortKey sortBy;
+    Integer limit;
+
+    /**
+     * Builds the normalized key for the given search request.
+     *
+     * @param searchRequest the incoming search request
+     * @return the normalized cache key
+     */
+    public static SearchCacheKey from(final SearchRequest searchRequest) {
+        return new SearchCacheKey(
+                normalizeLanguage(searchRequest.getLanguage()),
+                searchRequest.getEarliestCreatedDate(),
+                searchRequest.getPageNumber(),
+                searchRequest.getMinStars(),
+                searchRequest.getMinForks(),
+                searchRequest.getSortBy(),
+                searchRequest.getLimit());
+    }
+
+    private static String normalizeLanguage(final String language) {
+        if (language == null || language.isBlank()) {
+            return null;
+        }
+        return language.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
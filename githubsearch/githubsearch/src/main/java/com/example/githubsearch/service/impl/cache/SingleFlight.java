@@ -0,0 +1,98 @@
+package com.example.githubsearch.service.impl.cache;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent executions of the same keyed {@link Mono}.
+ * <p>
+ * The first subscriber for a key starts the upstream call; every subscriber that arrives
+ * while it is still running shares its single result. Subscribers are reference-counted:
+ * one caller cancelling only detaches that caller, and the upstream call is cancelled
+ * only once the last subscriber has gone away.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Call<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Returns a Mono that joins the in-flight call for {@code key}, or starts a new one
+     * from {@code supplier} when none is running.
+     *
+     * @param key      identity of the call
+     * @param supplier creates the upstream Mono; invoked at most once per in-flight call
+     * @return Mono emitting the shared result
+     */
+    public Mono<V> execute(final K key, final Supplier<Mono<V>> supplier) {
+        return Mono.defer(() -> {
+            final boolean[] leader = new boolean[1];
+            final Call<V> call = calls.compute(key, (k, existing) -> {
+                if (existing != null) {
+                    coalesced.increment();
+                    existing.subscribers++;
+                    return existing;
+                }
+                leader[0] = true;
+                return new Call<>();
+            });
+            if (leader[0]) {
+                call.upstream.update(Mono.defer(supplier)
+                        .doFinally(signal -> calls.remove(key, call))
+                        .subscribe(
+                                value -> call.sink.tryEmitValue(value),
+                                error -> call.sink.tryEmitError(error),
+                                () -> call.sink.tryEmitEmpty()));
+            }
+            return call.sink.asMono().doFinally(signal -> release(key, call, signal));
+        });
+    }
+
+    /**
+     * @return number of calls currently in flight
+     */
+    public int inFlight() {
+        return calls.size();
+    }
+
+    /**
+     * @return total number of subscribers that joined an already running call
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    private void release(final K key, final Call<V> call, final SignalType signal) {
+        final boolean[] abandoned = new boolean[1];
+        calls.computeIfPresent(key, (k, current) -> {
+            if (current != call) {
+                return current;
+            }
+            if (--current.subscribers == 0) {
+                abandoned[0] = signal == SignalType.CANCEL;
+                return null;
+            }
+            return current;
+        });
+        if (abandoned[0]) {
+            call.upstream.dispose();
+        }
+    }
+
+    private static final class Call<V> {
+        private final Sinks.One<V> sink = Sinks.one();
+        private final Disposable.Swap upstream = Disposables.swap();
+        private int subscribers = 1;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.githubsearch.service.impl.cache;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.service.impl.scheduling.RequestPriority;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Page-granular cache of upstream GitHub search pages, keyed by {@link PageKey}.
+ * <p>
+ * Whole-result assembly reuses any page that is already warm and only fetches the
+ * missing ones; concurrent misses for the same page in the same priority lane share a
+ * single upstream request. The shared request runs in the subscriber context of the caller
+ * that started it. Callers in different lanes do not share requests, so an interactive
+ * caller never waits in the lane of a prefetch or background fetch of the same page.
+ */
+@Slf4j
+@Component
+public class UpstreamPageCache {
+
+    static final String CACHE_NAME = "github.search.pages";
+
+    private final boolean enabled;
+    private final Cache<PageKey, GitRepositoryPaginatedResponse> pages;
+    private final SingleFlight<FlightKey, GitRepositoryPaginatedResponse> inFlight = new SingleFlight<>();
+
+    public UpstreamPageCache(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry) {
+        final GithubApiProperties.CacheProperties cacheProperties = githubApiProperties.getApi().getCache();
+        this.enabled = cacheProperties.isEnabled();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getPageMaximumSize())
+                .expireAfterWrite(cacheProperties.getPageTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached page for {@code key}, or fetches it with {@code fetcher} and caches
+     * the result. Empty results and errors are not cached.
+     *
+     * @param key     identity of the upstream page
+     * @param fetcher fetches the page from GitHub on a miss
+     * @return Mono emitting the page
+     */
+    public Mono<GitRepositoryPaginatedResponse> get(final PageKey key,
+                                                    final Supplier<Mono<GitRepositoryPaginatedResponse>> fetcher) {
+        if (!enabled) {
+            return Mono.defer(fetcher);
+        }
+        return Mono.deferContextual(context -> {
+            final GitRepositoryPaginatedResponse cached = pages.getIfPresent(key);
+            if (cached != null) {
+                log.debug("Page cache hit for {}", key);
+                return Mono.just(cached);
+            }
+            return inFlight.execute(new FlightKey(key, RequestPriority.from(context)), () -> fetcher.get()
+                    .doOnNext(page -> pages.put(key, page))
+                    .contextWrite(context));
+        });
+    }
+
+    /**
+     * Coalescing key of an upstream page request: the page and the lane it is fetched in.
+     */
+    @Value
+    private static class FlightKey {
+        PageKey page;
+        RequestPriority priority;
+    }
+}
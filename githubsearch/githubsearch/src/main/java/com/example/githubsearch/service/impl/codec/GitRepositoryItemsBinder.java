@@ -0,0 +1,79 @@
+package com.example.githubsearch.service.impl.codec;
+
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Projection of GitHub search items onto {@link GitRepositoryItems}, used by
+ * {@link SearchPageDecoder} to bind items straight from the token stream.
+ * <p>
+ * A GitHub search item carries around ninety fields, including the nested {@code owner}
+ * object and dozens of URL templates, of which the model keeps ten. Field names are matched
+ * against a precomputed symbol table; the decoder skips the value of every other field
+ * instead of binding it, so unused subtrees are never materialized. Values are set straight
+ * on the builder.
+ */
+final class GitRepositoryItemsBinder {
+
+    /**
+     * Fields of a GitHub search item that {@link GitRepositoryItems} keeps.
+     */
+    enum Field {
+        ID, NAME, DESCRIPTION, LANGUAGE, STARGAZERS_COUNT, FORKS_COUNT, HTML_URL, UPDATED_AT, CREATED_AT,
+        POPULARITY_SCORE
+    }
+
+    private static final Map<String, Field> SYMBOLS = Map.of(
+            "id", Field.ID,
+            "name", Field.NAME,
+            "description", Field.DESCRIPTION,
+            "language", Field.LANGUAGE,
+            "stargazers_count", Field.STARGAZERS_COUNT,
+            "forks_count", Field.FORKS_COUNT,
+            "html_url", Field.HTML_URL,
+            "updated_at", Field.UPDATED_AT,
+            "created_at", Field.CREATED_AT,
+            "popularityScore", Field.POPULARITY_SCORE);
+
+    private GitRepositoryItemsBinder() {
+    }
+
+    /**
+     * Reads an {@link Instant} from the current token of a parser.
+     */
+    @FunctionalInterface
+    interface InstantReader {
+        Instant read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * @param fieldName a field name of a GitHub search item
+     * @return the matching field, or null if {@link GitRepositoryItems} does not keep it
+     */
+    static Field lookup(final String fieldName) {
+        return SYMBOLS.get(fieldName);
+    }
+
+    /**
+     * Binds the current non-null scalar value of the parser to {@code field}.
+     */
+    static void bind(final GitRepositoryItems.GitRepositoryItemsBuilder builder, final Field field,
+                     final JsonParser parser, final InstantReader instants) throws IOException {
+        switch (field) {
+            case ID -> builder.id(parser.getValueAsLong());
+            case NAME -> builder.name(parser.getValueAsString());
+            case DESCRIPTION -> builder.description(parser.getValueAsString());
+            case LANGUAGE -> builder.language(parser.getValueAsString());
+            case STARGAZERS_COUNT -> builder.stargazerCount(parser.getValueAsInt());
+            case FORKS_COUNT -> builder.forksCount(parser.getValueAsInt());
+            case HTML_URL -> builder.htmlUrl(parser.getValueAsString());
+            case UPDATED_AT -> builder.updatedAt(instants.read(parser));
+            case CREATED_AT -> builder.createdAt(instants.read(parser));
+            case POPULARITY_SCORE -> builder.popularityScore(parser.getValueAsDouble());
+        }
+    }
+}
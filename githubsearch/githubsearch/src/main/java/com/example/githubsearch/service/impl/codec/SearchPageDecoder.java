@@ -0,0 +1,229 @@
+package com.example.githubsearch.service.impl.codec;
+
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental decoder for GitHub search result pages.
+ * <p>
+ * Feeds the response body to Jackson's non-blocking parser one {@link DataBuffer} at a
+ * time, as it arrives from the connection, and releases each buffer as soon as it has
+ * been tokenized. Entries of the {@code items} array are bound one at a time, straight from
+ * the token stream, so the raw page body is never held in memory as a whole and no codec
+ * buffer limit applies. Top-level fields other than {@code total_count},
+ * {@code incomplete_results} and {@code items} are skipped, and so are item fields outside
+ * the {@link GitRepositoryItemsBinder} symbol table, nested subtrees included.
+ */
+@Component
+public class SearchPageDecoder {
+
+    private static final String TOTAL_COUNT = "total_count";
+    private static final String INCOMPLETE_RESULTS = "incomplete_results";
+    private static final String ITEMS = "items";
+
+    private final JsonFactory jsonFactory;
+    private final ObjectReader instantReader;
+
+    public SearchPageDecoder(final ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.instantReader = objectMapper.readerFor(Instant.class);
+    }
+
+    /**
+     * Decodes a search page body.
+     *
+     * @param body the response body buffers, consumed and released by this method
+     * @return Mono emitting the decoded page, or empty if the body is empty
+     */
+    public Mono<GitRepositoryPaginatedResponse> decode(final Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            final Tokenizer tokenizer = new Tokenizer();
+            return body.concatMapIterable(tokenizer::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.endOfInput())))
+                    .collectList()
+                    .filter(items -> tokenizer.started)
+                    .map(items -> GitRepositoryPaginatedResponse.builder()
+                            .totalCount(tokenizer.totalCount)
+                            .incompleteResults(tokenizer.incompleteResults)
+                            .items(tokenizer.itemsPresent ? items : null)
+                            .build())
+                    .doFinally(signal -> tokenizer.close());
+        });
+    }
+
+    /**
+     * Per-body tokenizer state. Not thread-safe; driven serially by {@code concatMapIterable}.
+     */
+    private final class Tokenizer {
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+
+        private boolean started;
+        private boolean complete;
+        private boolean inItems;
+        private boolean itemsPresent;
+        private String field;
+        private int skipDepth;
+        private GitRepositoryItems.GitRepositoryItemsBuilder item;
+        private GitRepositoryItemsBinder.Field itemField;
+        private int itemSkipDepth;
+        private int totalCount;
+        private boolean incompleteResults;
+
+        private Tokenizer() {
+            try {
+                this.parser = jsonFactory.createNonBlockingByteBufferParser();
+            } catch (IOException ex) {
+                throw new IllegalStateException("Could not create a non-blocking JSON parser", ex);
+            }
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        private List<GitRepositoryItems> feed(final DataBuffer buffer) {
+            final List<GitRepositoryItems> decoded = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator byteBuffers = buffer.readableByteBuffers()) {
+                while (byteBuffers.hasNext()) {
+                    final ByteBuffer byteBuffer = byteBuffers.next();
+                    feeder.feedInput(byteBuffer);
+                    drain(decoded);
+                }
+            } catch (IOException ex) {
+                throw new DecodingException("JSON decoding error: " + ex.getMessage(), ex);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+            return decoded;
+        }
+
+        private List<GitRepositoryItems> endOfInput() {
+            final List<GitRepositoryItems> decoded = new ArrayList<>();
+            try {
+                feeder.endOfInput();
+                drain(decoded);
+            } catch (IOException ex) {
+                throw new DecodingException("JSON decoding error: " + ex.getMessage(), ex);
+            }
+            if (started && !complete) {
+                throw new DecodingException("JSON decoding error: unexpected end of search page");
+            }
+            return decoded;
+        }
+
+        private void drain(final List<GitRepositoryItems> decoded) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                onToken(token, decoded);
+            }
+        }
+
+        private void onToken(final JsonToken token, final List<GitRepositoryItems> decoded) throws IOException {
+            if (item != null) {
+                onItemToken(token, decoded);
+                return;
+            }
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                return;
+            }
+            if (complete) {
+                throw new DecodingException("JSON decoding error: unexpected content after search page");
+            }
+            if (!started) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new DecodingException("JSON decoding error: search page is not a JSON object");
+                }
+                started = true;
+                return;
+            }
+            if (inItems) {
+                if (token == JsonToken.START_OBJECT) {
+                    item = GitRepositoryItems.builder();
+                } else if (token == JsonToken.END_ARRAY) {
+                    inItems = false;
+                } else {
+                    throw new DecodingException("JSON decoding error: 'items' must hold repository objects");
+                }
+                return;
+            }
+            if (token == JsonToken.FIELD_NAME) {
+                field = parser.currentName();
+            } else if (token == JsonToken.END_OBJECT) {
+                complete = true;
+            } else {
+                onTopLevelValue(token);
+            }
+        }
+
+        /**
+         * Binds the tokens of the current item. Values of fields outside the symbol table are
+         * skipped, including whole nested subtrees such as {@code owner}.
+         */
+        private void onItemToken(final JsonToken token, final List<GitRepositoryItems> decoded) throws IOException {
+            if (itemSkipDepth > 0) {
+                if (token.isStructStart()) {
+                    itemSkipDepth++;
+                } else if (token.isStructEnd()) {
+                    itemSkipDepth--;
+                }
+                return;
+            }
+            if (token == JsonToken.FIELD_NAME) {
+                itemField = GitRepositoryItemsBinder.lookup(parser.currentName());
+            } else if (token == JsonToken.END_OBJECT) {
+                decoded.add(item.build());
+                item = null;
+            } else if (token.isStructStart()) {
+                if (itemField != null) {
+                    throw new DecodingException("JSON decoding error: unexpected " + token
+                            + " for repository field '" + parser.currentName() + "'");
+                }
+                itemSkipDepth = 1;
+            } else if (itemField != null && token != JsonToken.VALUE_NULL) {
+                GitRepositoryItemsBinder.bind(item, itemField, parser, instantReader::readValue);
+            }
+        }
+
+        private void onTopLevelValue(final JsonToken token) throws IOException {
+            if (TOTAL_COUNT.equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                totalCount = parser.getIntValue();
+            } else if (INCOMPLETE_RESULTS.equals(field) && token.isBoolean()) {
+                incompleteResults = token == JsonToken.VALUE_TRUE;
+            } else if (ITEMS.equals(field) && token == JsonToken.START_ARRAY) {
+                inItems = true;
+                itemsPresent = true;
+            } else if (token.isStructStart()) {
+                skipDepth = 1;
+            }
+        }
+
+        private void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.githubsearch.service.impl.deadline;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Point in time by which a search must answer, carried in the Reactor {@link Context} of
+ * the subscriber so it reaches the client without changing any signatures.
+ * <pre>{@code
+ * SearchDeadline deadline = SearchDeadline.after(Duration.ofSeconds(5));
+ * deadline.cut(gitRepositoryClient.fetchPages(request), () -> incomplete.set(true));
+ * }</pre>
+ * Time is read from the clock of {@link Schedulers#parallel()}, the scheduler that
+ * {@link Mono#delay} waits on, so the deadline and the delays armed against it advance
+ * together, virtual time included.
+ */
+public final class SearchDeadline {
+
+    private static final Class<SearchDeadline> CONTEXT_KEY = SearchDeadline.class;
+
+    private final long expiresAtNanos;
+
+    private SearchDeadline(final long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * A deadline {@code budget} from now.
+     */
+    public static SearchDeadline after(final Duration budget) {
+        return new SearchDeadline(now() + budget.toNanos());
+    }
+
+    /**
+     * Time left until the deadline, zero once it has passed.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - now()));
+    }
+
+    /**
+     * Mirrors {@code source} until the deadline and then completes it, cancelling whatever
+     * it is still waiting for. Items emitted before the deadline are kept.
+     *
+     * @param source   the stream to cut
+     * @param onExpiry run once if the deadline passes before {@code source} terminates
+     * @return the stream, completing at the deadline at the latest
+     */
+    public <T> Flux<T> cut(final Flux<T> source, final Runnable onExpiry) {
+        return source.takeUntilOther(Mono.defer(() -> Mono.delay(remaining()))
+                .doOnNext(tick -> onExpiry.run()));
+    }
+
+    private static long now() {
+        return Schedulers.parallel().now(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Context modifier storing this deadline for the subscribed pipeline, for use with
+     * {@code contextWrite}.
+     */
+    public Function<Context, Context> asContext() {
+        return context -> context.put(CONTEXT_KEY, this);
+    }
+
+    /**
+     * The deadline stored in {@code context}, or null if none is.
+     */
+    public static SearchDeadline from(final ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+}
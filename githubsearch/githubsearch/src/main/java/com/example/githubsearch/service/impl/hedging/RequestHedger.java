@@ -0,0 +1,185 @@
+package com.example.githubsearch.service.impl.hedging;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Hedges upstream requests against tail latency: an attempt that has not answered within
+ * a percentile of recent upstream latencies is sent again, and whichever copy answers
+ * first wins while the other is cancelled. Time spent waiting for admission, such as for
+ * a rate-limit permit, is neither hedged nor recorded as latency.
+ * <p>
+ * Latencies of the last {@code window-size} successful attempts are kept in a ring
+ * buffer; the hedge delay is their configured percentile, no shorter than
+ * {@code min-delay}, and no request is hedged before {@code min-samples} are known.
+ * Hedges are paid from a budget that every request tops up by {@code budget-ratio}, so
+ * at most that share of extra requests is sent. A failed hedge is ignored and the
+ * original attempt decides the outcome.
+ * <p>
+ * Hedges sent and hedges that answered first are counted in
+ * {@code github.upstream.hedges.issued} and {@code github.upstream.hedges.won}; the current
+ * hedge delay is the {@code github.upstream.hedge.delay} gauge, in milliseconds.
+ */
+@Slf4j
+@Component
+public class RequestHedger {
+
+    static final String ISSUED_NAME = "github.upstream.hedges.issued";
+    static final String WON_NAME = "github.upstream.hedges.won";
+    static final String DELAY_NAME = "github.upstream.hedge.delay";
+
+    /**
+     * Most hedges that can be saved up while latencies are low.
+     */
+    private static final double MAX_CREDITS = 10;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final double budgetRatio;
+    private final int minSamples;
+    private final long minDelayNanos;
+    private final long[] latencies;
+    private final Counter issued;
+    private final Counter won;
+
+    private int sampleCount;
+    private int nextSample;
+    private double credits;
+    private long hedgeDelayNanos = -1;
+    private boolean stale = true;
+
+    public RequestHedger(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry) {
+        final GithubApiProperties.HedgingProperties hedgingProperties = githubApiProperties.getApi().getHedging();
+        this.enabled = hedgingProperties.isEnabled();
+        this.percentile = hedgingProperties.getPercentile();
+        this.budgetRatio = hedgingProperties.getBudgetRatio();
+        this.minSamples = Math.min(hedgingProperties.getMinSamples(), hedgingProperties.getWindowSize());
+        this.minDelayNanos = hedgingProperties.getMinDelay().toNanos();
+        this.latencies = new long[hedgingProperties.getWindowSize()];
+        this.issued = Counter.builder(ISSUED_NAME)
+                .description("Duplicate upstream requests sent for slow attempts")
+                .register(meterRegistry);
+        this.won = Counter.builder(WON_NAME)
+                .description("Duplicate upstream requests that answered before the original")
+                .register(meterRegistry);
+        Gauge.builder(DELAY_NAME, this, hedger -> hedger.hedgeDelayNanos() / 1e6)
+                .description("Time after which a slow upstream request is hedged, in milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code attempt}, and a second copy of it if the first has not answered within
+     * the hedge delay and the budget allows.
+     *
+     * @param attempt creates one upstream attempt; called once per copy
+     * @return Mono mirroring whichever copy signals first (the original's error if it fails first)
+     */
+    public <T> Mono<T> hedge(final Supplier<Mono<T>> attempt) {
+        return hedge(Mono.just(Boolean.TRUE), admitted -> attempt.get());
+    }
+
+    /**
+     * Runs {@code attempt} once {@code admission} has granted it, and a second copy if the
+     * first has not answered within the hedge delay and the budget allows. The hedge delay
+     * and the recorded latency start only once a copy is admitted, so waiting for admission,
+     * such as for a rate-limit permit, neither triggers a hedge nor counts as upstream
+     * latency; a hedge asks for its own admission only when it fires.
+     *
+     * @param admission grants one copy, emitting what the attempt needs, such as a permit;
+     *                  subscribed once per copy
+     * @param attempt   creates one upstream attempt from its admission
+     * @return Mono mirroring whichever copy signals first (the original's error if it fails first)
+     */
+    public <P, T> Mono<T> hedge(final Mono<P> admission, final Function<P, Mono<T>> attempt) {
+        if (!enabled) {
+            return admission.flatMap(attempt);
+        }
+        return admission.flatMap(admitted -> {
+            final long delayNanos = admit();
+            final Mono<T> original = timed(() -> attempt.apply(admitted));
+            if (delayNanos < 0) {
+                return original;
+            }
+            final Mono<T> hedged = Mono.delay(Duration.ofNanos(delayNanos))
+                    .then(Mono.defer(() -> {
+                        if (!spendCredit()) {
+                            return Mono.<T>never();
+                        }
+                        issued.increment();
+                        log.debug("Hedging upstream request after {} ms", TimeUnit.NANOSECONDS.toMillis(delayNanos));
+                        return admission.flatMap(hedgeAdmitted -> timed(() -> attempt.apply(hedgeAdmitted)))
+                                .doOnNext(value -> won.increment());
+                    }))
+                    .onErrorResume(e -> {
+                        log.debug("Hedged upstream request failed: {}", e.getMessage());
+                        return Mono.never();
+                    });
+            return Mono.firstWithSignal(original, hedged);
+        });
+    }
+
+    private <T> Mono<T> timed(final Supplier<Mono<T>> attempt) {
+        return Mono.defer(() -> {
+            final long start = System.nanoTime();
+            return attempt.get().doOnNext(value -> record(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Tops up the budget for one request and returns its hedge delay, or -1 if too few
+     * latencies are known yet.
+     */
+    private synchronized long admit() {
+        credits = Math.min(MAX_CREDITS, credits + budgetRatio);
+        return hedgeDelayNanos();
+    }
+
+    private synchronized boolean spendCredit() {
+        if (credits < 1) {
+            return false;
+        }
+        credits -= 1;
+        return true;
+    }
+
+    /**
+     * Adds one attempt latency to the window.
+     */
+    synchronized void record(final long latencyNanos) {
+        latencies[nextSample] = latencyNanos;
+        nextSample = (nextSample + 1) % latencies.length;
+        sampleCount = Math.min(sampleCount + 1, latencies.length);
+        stale = true;
+    }
+
+    /**
+     * The configured percentile of the latency window, at least {@code min-delay}, or -1
+     * while fewer than {@code min-samples} latencies are known. Recomputed only after new
+     * latencies were recorded.
+     */
+    synchronized long hedgeDelayNanos() {
+        if (stale) {
+            stale = false;
+            if (sampleCount < minSamples) {
+                hedgeDelayNanos = -1;
+            } else {
+                final long[] sorted = Arrays.copyOf(latencies, sampleCount);
+                Arrays.sort(sorted);
+                final int rank = Math.max(0, (int) Math.ceil(percentile * sampleCount) - 1);
+                hedgeDelayNanos = Math.max(minDelayNanos, sorted[rank]);
+            }
+        }
+        return hedgeDelayNanos;
+    }
+}
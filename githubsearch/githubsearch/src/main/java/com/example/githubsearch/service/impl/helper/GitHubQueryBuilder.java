@@ -9,15 +9,16 @@ import java.time.format.DateTimeFormatter;
 /**
  * Helper class for building GitHub search query strings.
  * <p>
- * Constructs queries with language and date filters for API requests.
+ * Constructs queries with language, date, star and fork filters for API requests, and the
+ * {@code sort}/{@code order} parameters for ranked searches.
  */
 @Slf4j
 public class GitHubQueryBuilder {
 
     /**
-     * Builds the search query string including language qualifier and creation date
-     * filter.
-     * If language is blank, returns date filter only.
+     * Builds the search query string including language qualifier, creation date filter
+     * and minimum star and fork qualifiers.
+     * If language is blank, returns the remaining filters only.
      */
     public static String buildSearchQuery(final SearchRequest searchRequest) {
         try {
@@ -28,12 +29,16 @@ public class GitHubQueryBuilder {
             }
 
             if (searchRequest.getEarliestCreatedDate() != null) {
-                String createdFilter = "created:>="
-                        + DateTimeFormatter.ISO_INSTANT.format(searchRequest.getEarliestCreatedDate());
-                if (queryBuilder.length() > 0) {
-                    queryBuilder.append("+");
-                }
-                queryBuilder.append(createdFilter);
+                appendQualifier(queryBuilder, "created:>="
+                        + DateTimeFormatter.ISO_INSTANT.format(searchRequest.getEarliestCreatedDate()));
+            }
+
+            if (searchRequest.getMinStars() != null) {
+                appendQualifier(queryBuilder, "stars:>=" + searchRequest.getMinStars());
+            }
+
+            if (searchRequest.getMinForks() != null) {
+                appendQualifier(queryBuilder, "forks:>=" + searchRequest.getMinForks());
             }
 
             return queryBuilder.toString();
@@ -43,11 +48,56 @@ public class GitHubQueryBuilder {
         }
     }
 
+    private static void appendQualifier(final StringBuilder queryBuilder, final String qualifier) {
+        if (queryBuilder.length() > 0) {
+            queryBuilder.append("+");
+        }
+        queryBuilder.append(qualifier);
+    }
+
+    /**
+     * Maps a ranking to the GitHub {@code sort} parameter that returns results in (or close
+     * to) that order, always with {@code order=desc}. Popularity score is dominated by the
+     * star count, so it is approximated by sorting on stars.
+     *
+     * @param sortKey the requested ranking, may be null
+     * @return the GitHub sort value, or null if the request is not ranked
+     */
+    public static String sortParameter(final SearchRequest.SortKey sortKey) {
+        if (sortKey == null) {
+            return null;
+        }
+        return switch (sortKey) {
+            case SCORE, STARS -> "stars";
+            case FORKS -> "forks";
+            case UPDATED_AT -> "updated";
+        };
+    }
+
+    /**
+     * Resolves the query string actually sent to GitHub: the built search query, or the
+     * configured default query when the request carries no filters.
+     */
+    public static String resolveQuery(final GithubApiProperties properties, final SearchRequest searchRequest) {
+        final String rawQuery = buildSearchQuery(searchRequest);
+        return rawQuery.isBlank() ? properties.getApi().getDefaultQuery() : rawQuery;
+    }
+
     /**
      * Builds the full URI string for GitHub repository search.
-     * Uses configured defaults for page and per_page.
+     * Uses configured defaults for page and per_page; ranked requests also carry
+     * {@code sort} and {@code order=desc}.
      */
     public static String buildUri(final GithubApiProperties properties, final SearchRequest searchRequest) {
+        return buildUri(properties, searchRequest, properties.getApi().getDefaultPerPage());
+    }
+
+    /**
+     * Builds the full URI string for GitHub repository search with an explicit page size,
+     * for upstream pages that are larger than the pages served to clients.
+     */
+    public static String buildUri(final GithubApiProperties properties, final SearchRequest searchRequest,
+                                  final int perPage) {
         try {
             final String rawQuery = buildSearchQuery(searchRequest);
 
@@ -55,11 +105,15 @@ public class GitHubQueryBuilder {
             Integer page = searchRequest.getPageNumber();
             int pageNumber = (page != null) ? page : properties.getApi().getDefaultPage();
 
+            final String sort = sortParameter(searchRequest.getSortBy());
+            final String sortParameters = sort != null ? "&sort=" + sort + "&order=desc" : "";
+
             if (rawQuery.isBlank()) {
                 String fallbackUri = properties.getApi().getBaseUrl() + "/search/repositories?q="
                         + properties.getApi().getDefaultQuery()
-                        + "&page=" + properties.getApi().getDefaultPage()
-                        + "&per_page=" + properties.getApi().getDefaultPerPage();
+                        + sortParameters
+                        + "&page=" + pageNumber
+                        + "&per_page=" + perPage;
                 log.debug("No user input detected, using fallback URL: {}", fallbackUri);
                 return fallbackUri;
             }
@@ -67,8 +121,9 @@ public class GitHubQueryBuilder {
             StringBuilder uriBuilder = new StringBuilder(properties.getApi().getBaseUrl())
                     .append("/search/repositories?q=")
                     .append(rawQuery)
+                    .append(sortParameters)
                     .append("&page=").append(pageNumber)
-                    .append("&per_page=").append(properties.getApi().getDefaultPerPage());
+                    .append("&per_page=").append(perPage);
 
             log.debug("Built full URI: {}", uriBuilder.toString());
             return uriBuilder.toString();
@@ -76,7 +131,7 @@ public class GitHubQueryBuilder {
             String fallbackUri = properties.getApi().getBaseUrl() + "/search/repositories?q="
                     + properties.getApi().getDefaultQuery()
                     + "&page=" + properties.getApi().getDefaultPage()
-                    + "&per_page=" + properties.getApi().getDefaultPerPage();
+                    + "&per_page=" + perPage;
             log.error("Exception building URI, returning fallback URI: {}", fallbackUri, e);
             return fallbackUri;
         }
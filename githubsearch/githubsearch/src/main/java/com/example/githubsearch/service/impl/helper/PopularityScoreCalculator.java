@@ -4,6 +4,8 @@ import com.example.githubsearch.model.GitRepositoryItems;
 import lombok.extern.slf4j.Slf4j;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Helper class for calculating popularity score of GitHub repositories.
@@ -13,6 +15,8 @@ import java.time.Instant;
 @Slf4j
 public class PopularityScoreCalculator {
 
+    private static final long SECONDS_PER_DAY = 86_400;
+
     /**
      * Calculates the popularity score for a GitHub repository.
      * The formula weights stars, forks, and recency of updates.
@@ -31,19 +35,87 @@ public class PopularityScoreCalculator {
                         Instant.now()).toDays();
             }
 
-            final double recencyFactor = 1.0 / (1 + daysSinceLastUpdate);
-            final double popularityScore = stars * 0.6 + forks * 0.3 + recencyFactor * 100 * 0.1;
-
-            return gitRepositoryItems.toBuilder()
-                    .popularityScore(popularityScore)
-                    .build();
+            return gitRepositoryItems.withPopularityScore(score(stars, forks, daysSinceLastUpdate));
         } catch (final Exception e) {
             log.error("Error calculating popularity score for repo id={} name={}",
                     gitRepositoryItems.getId(), gitRepositoryItems.getName(), e);
 
-            return gitRepositoryItems.toBuilder()
-                    .popularityScore(0)
-                    .build();
+            return gitRepositoryItems.withPopularityScore(0);
+        }
+    }
+
+    /**
+     * Calculates popularity scores for a page of repositories against a single clock
+     * snapshot. Results are identical to calling {@link #calculateScore} on each item at
+     * that instant.
+     *
+     * @param items the repositories to score, may be null
+     * @return new repository objects with the popularity score applied, in input order
+     */
+    public static List<GitRepositoryItems> calculateScores(final List<GitRepositoryItems> items) {
+        return calculateScores(items, Instant.now());
+    }
+
+    /**
+     * Calculates popularity scores for a page of repositories as of {@code now}.
+     *
+     * @param items the repositories to score, may be null
+     * @param now   the instant recency is measured against
+     * @return new repository objects with the popularity score applied, in input order
+     */
+    public static List<GitRepositoryItems> calculateScores(final List<GitRepositoryItems> items, final Instant now) {
+        if (items == null || items.isEmpty()) {
+            return List.of();
         }
+        final int size = items.size();
+        final int[] stars = new int[size];
+        final int[] forks = new int[size];
+        final long[] updatedEpochSeconds = new long[size];
+        final int[] updatedNanos = new int[size];
+        for (int i = 0; i < size; i++) {
+            final GitRepositoryItems item = items.get(i);
+            final Instant updatedAt = item.getUpdatedAt();
+            stars[i] = item.getStargazerCount();
+            forks[i] = item.getForksCount();
+            // A missing update time counts as updated now, i.e. zero days ago.
+            updatedEpochSeconds[i] = updatedAt != null ? updatedAt.getEpochSecond() : now.getEpochSecond();
+            updatedNanos[i] = updatedAt != null ? updatedAt.getNano() : now.getNano();
+        }
+
+        final double[] scores = new double[size];
+        calculateScores(stars, forks, updatedEpochSeconds, updatedNanos, now.getEpochSecond(), now.getNano(), scores);
+
+        final List<GitRepositoryItems> scored = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            scored.add(items.get(i).withPopularityScore(scores[i]));
+        }
+        return scored;
+    }
+
+    /**
+     * Calculates popularity scores over primitive columns without per-item allocation.
+     * Whole days since the last update are counted exactly like
+     * {@code Duration.between(updatedAt, now).toDays()}.
+     *
+     * @param stars               stargazer counts
+     * @param forks               fork counts
+     * @param updatedEpochSeconds epoch seconds of the last update
+     * @param updatedNanos        nano-of-second of the last update
+     * @param nowEpochSecond      epoch seconds of the instant recency is measured against
+     * @param nowNano             nano-of-second of the instant recency is measured against
+     * @param scores              receives the score of each repository
+     */
+    public static void calculateScores(final int[] stars, final int[] forks, final long[] updatedEpochSeconds,
+                                       final int[] updatedNanos, final long nowEpochSecond, final int nowNano,
+                                       final double[] scores) {
+        for (int i = 0; i < scores.length; i++) {
+            final long seconds = nowEpochSecond - updatedEpochSeconds[i] - (nowNano < updatedNanos[i] ? 1 : 0);
+            scores[i] = score(stars[i], forks[i], seconds / SECONDS_PER_DAY);
+        }
+    }
+
+    private static double score(final int stars, final int forks, final long daysSinceLastUpdate) {
+        final double recencyFactor = 1.0 / (1 + daysSinceLastUpdate);
+        return stars * 0.6 + forks * 0.3 + recencyFactor * 100 * 0.1;
     }
 }
@@ -0,0 +1,47 @@
+package com.example.githubsearch.service.impl.helper;
+
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.model.SearchRequest;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * Helper class for ranking GitHub repositories.
+ * <p>
+ * Orders repositories best first by a {@link SearchRequest.SortKey}, breaking ties by
+ * ascending repository id so rankings do not depend on the order pages arrive in.
+ */
+public class RepositoryRanking {
+
+    private static final Comparator<GitRepositoryItems> BY_ID = Comparator.comparingLong(GitRepositoryItems::getId);
+
+    private static final Comparator<GitRepositoryItems> BY_SCORE =
+            Comparator.comparingDouble(GitRepositoryItems::getPopularityScore).reversed().thenComparing(BY_ID);
+
+    private static final Comparator<GitRepositoryItems> BY_STARS =
+            Comparator.comparingInt(GitRepositoryItems::getStargazerCount).reversed().thenComparing(BY_ID);
+
+    private static final Comparator<GitRepositoryItems> BY_FORKS =
+            Comparator.comparingInt(GitRepositoryItems::getForksCount).reversed().thenComparing(BY_ID);
+
+    private static final Comparator<GitRepositoryItems> BY_UPDATED_AT = Comparator
+            .comparing(GitRepositoryItems::getUpdatedAt, Comparator.nullsLast(Comparator.<Instant>reverseOrder()))
+            .thenComparing(BY_ID);
+
+    /**
+     * @param sortKey the attribute to rank by; null ranks by popularity score
+     * @return a comparator that orders the best repository first
+     */
+    public static Comparator<GitRepositoryItems> bestFirst(final SearchRequest.SortKey sortKey) {
+        if (sortKey == null) {
+            return BY_SCORE;
+        }
+        return switch (sortKey) {
+            case SCORE -> BY_SCORE;
+            case STARS -> BY_STARS;
+            case FORKS -> BY_FORKS;
+            case UPDATED_AT -> BY_UPDATED_AT;
+        };
+    }
+}
@@ -2,11 +2,23 @@ package com.example.githubsearch.service.impl.helper;
 
 import com.example.githubsearch.exception.ApiException;
 import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.service.impl.cache.ConditionalRequestStore;
+import com.example.githubsearch.service.impl.codec.SearchPageDecoder;
+import com.example.githubsearch.service.impl.ratelimit.RateLimitStatus;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
 /**
  * Helper class for handling HTTP responses from GitHub API.
  * <p>
@@ -14,21 +26,65 @@ import reactor.core.publisher.Mono;
  */
 @Slf4j
 public class ResponseHandlerHelper {
+
+    static final String RATE_LIMIT_LIMIT = "X-RateLimit-Limit";
+    static final String RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+    static final String RATE_LIMIT_RESET = "X-RateLimit-Reset";
+    private static final Duration SECONDARY_LIMIT_PAUSE = Duration.ofMinutes(1);
+
+    /**
+     * Decoder used by the overloads without one, configured like Spring's default JSON codec.
+     */
+    private static final SearchPageDecoder DEFAULT_DECODER =
+            new SearchPageDecoder(Jackson2ObjectMapperBuilder.json().build());
+
     /**
      * Handles the HTTP response from GitHub.
      * @param response the HTTP response
      * @return Mono emitting parsed response or error
      * Added: GitHub API rate-limit header monitoring
      */
-    @SuppressWarnings("null")
     public static Mono<GitRepositoryPaginatedResponse> handleResponse(final ClientResponse response) {
+        return handleResponse(response, null, DEFAULT_DECODER);
+    }
+
+    /**
+     * Handles the HTTP response of a conditional GitHub request with the default decoder.
+     *
+     * @param response      the HTTP response
+     * @param validatedPage the stored validator and body sent with the request, may be null
+     * @return Mono emitting parsed (or revalidated) response or error
+     */
+    public static Mono<GitRepositoryPaginatedResponse> handleResponse(final ClientResponse response,
+            final ConditionalRequestStore.ValidatedPage validatedPage) {
+        return handleResponse(response, validatedPage, DEFAULT_DECODER);
+    }
+
+    /**
+     * Handles the HTTP response of a conditional GitHub request.
+     * A {@code 304 Not Modified} is answered with the body stored alongside the validator
+     * that was sent in {@code If-None-Match}.
+     *
+     * @param response      the HTTP response
+     * @param validatedPage the stored validator and body sent with the request, may be null
+     * @param decoder       decodes successful page bodies incrementally as they arrive
+     * @return Mono emitting parsed (or revalidated) response or error
+     */
+    @SuppressWarnings("null")
+    public static Mono<GitRepositoryPaginatedResponse> handleResponse(final ClientResponse response,
+            final ConditionalRequestStore.ValidatedPage validatedPage, final SearchPageDecoder decoder) {
         final HttpStatus status = HttpStatus.resolve(response.statusCode().value());
 
         //Errored Status Code Check
         if (status.is2xxSuccessful()) {
-            return response.bodyToMono(GitRepositoryPaginatedResponse.class);
+            return decoder.decode(response.body(BodyExtractors.toDataBuffers()));
         }
         else if (status == HttpStatus.NOT_MODIFIED) {
+            if (validatedPage != null) {
+                log.debug("GitHub API returned 304 Not Modified for ETag {}, serving stored body.",
+                        validatedPage.getEtag());
+                return response.releaseBody().thenReturn(validatedPage.getBody());
+            }
             log.info("GitHub API returned 304 Not Modified, returning empty Mono.");
             return Mono.empty();
         }
@@ -47,11 +103,96 @@ public class ResponseHandlerHelper {
                     });
         }
         else {
+            final Duration retryAfter = retryAfter(extractRateLimit(response));
             return response.bodyToMono(String.class)
                     .flatMap(errorBody -> {
                         log.error("GitHub API call failed: status={}, body={}", status, errorBody);
-                        return Mono.error(new ApiException(status, "GitHub API responded with error: " + errorBody));
+                        return Mono.error(new ApiException(status, "GitHub API responded with error: " + errorBody,
+                                retryAfter));
                     });
         }
     }
+
+    /**
+     * Reads the {@code ETag} validator of a GitHub response.
+     *
+     * @param response the HTTP response
+     * @return the ETag header value, or null if absent
+     */
+    public static String extractETag(final ClientResponse response) {
+        return response.headers().asHttpHeaders().getETag();
+    }
+
+    /**
+     * Reads GitHub's rate-limit headers ({@code X-RateLimit-Limit}, {@code X-RateLimit-Remaining},
+     * {@code X-RateLimit-Reset} in epoch seconds, and {@code Retry-After} in seconds or as an
+     * HTTP date). Missing or malformed headers are left null.
+     *
+     * @param response the HTTP response
+     * @return the rate-limit status of the response
+     */
+    public static RateLimitStatus extractRateLimit(final ClientResponse response) {
+        final HttpHeaders headers = response.headers().asHttpHeaders();
+        final Long reset = parseLong(headers.getFirst(RATE_LIMIT_RESET));
+        return RateLimitStatus.builder()
+                .statusCode(response.statusCode().value())
+                .limit(parseInt(headers.getFirst(RATE_LIMIT_LIMIT)))
+                .remaining(parseInt(headers.getFirst(RATE_LIMIT_REMAINING)))
+                .resetAt(reset != null ? Instant.ofEpochSecond(reset) : null)
+                .retryAfter(parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER)))
+                .build();
+    }
+
+    /**
+     * How long a rate-limited response asks to wait: its {@code Retry-After}, else the time
+     * until {@code X-RateLimit-Reset} when the budget is exhausted, else the minute GitHub
+     * asks for after a secondary limit. Null if the response is not rate-limited.
+     */
+    private static Duration retryAfter(final RateLimitStatus rateLimit) {
+        if (!rateLimit.isRateLimited()) {
+            return null;
+        }
+        if (rateLimit.getRetryAfter() != null) {
+            return rateLimit.getRetryAfter();
+        }
+        if (rateLimit.getRemaining() != null && rateLimit.getRemaining() == 0 && rateLimit.getResetAt() != null) {
+            final Duration untilReset = Duration.between(Instant.now(), rateLimit.getResetAt());
+            return untilReset.isNegative() ? Duration.ZERO : untilReset;
+        }
+        return SECONDARY_LIMIT_PAUSE;
+    }
+
+    private static Duration parseRetryAfter(final String value) {
+        if (value == null) {
+            return null;
+        }
+        final Long seconds = parseLong(value);
+        if (seconds != null) {
+            return Duration.ofSeconds(Math.max(0, seconds));
+        }
+        try {
+            final Duration untilDate = Duration.between(Instant.now(),
+                    ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+            return untilDate.isNegative() ? Duration.ZERO : untilDate;
+        } catch (DateTimeParseException e) {
+            log.debug("Ignoring malformed Retry-After header: {}", value);
+            return null;
+        }
+    }
+
+    private static Integer parseInt(final String value) {
+        final Long parsed = parseLong(value);
+        return parsed != null ? (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, parsed)) : null;
+    }
+
+    private static Long parseLong(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
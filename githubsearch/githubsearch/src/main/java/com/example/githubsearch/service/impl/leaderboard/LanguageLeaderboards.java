@@ -0,0 +1,258 @@
+package com.example.githubsearch.service.impl.leaderboard;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.service.GitRepositoryClient;
+import com.example.githubsearch.service.impl.helper.RepositoryRanking;
+import com.example.githubsearch.service.impl.scheduling.RequestPriority;
+import com.example.githubsearch.service.impl.scoring.PopularityScoringExecutor;
+import com.example.githubsearch.service.impl.scoring.TopKSelector;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Materialized popularity leaderboards for the configured languages.
+ * <p>
+ * Each language is ranked in the background exactly as a ranked search for it would be:
+ * every page of {@code language:X} is fetched through the {@link GitRepositoryClient} at
+ * {@link RequestPriority#BACKGROUND} priority, scored, and sorted best first by popularity
+ * score. Refreshes repeat every {@code refresh-interval}, moved by a random fraction of up to
+ * {@code jitter} of it, so the languages spread out instead of refreshing in one burst.
+ * A failed refresh keeps the previous leaderboard.
+ * <p>
+ * A search for the top repositories of one of these languages, ranked by score and without
+ * a date, star, fork or page filter, is answered by {@link #lookup(SearchRequest)} from the
+ * leaderboard with a map lookup and a list view, without any upstream request. Leaderboards
+ * not refreshed for {@code max-age} are not served.
+ * <p>
+ * The time since the last successful refresh is the {@code github.leaderboard.age} gauge in
+ * seconds, and refreshes are counted in {@code github.leaderboard.refreshes} tagged
+ * {@code outcome=success|failure}; both are tagged with the {@code language}.
+ */
+@Slf4j
+@Component
+public class LanguageLeaderboards implements SmartLifecycle {
+
+    static final String AGE_NAME = "github.leaderboard.age";
+    static final String REFRESHES_NAME = "github.leaderboard.refreshes";
+    static final String SUCCESS = "success";
+    static final String FAILURE = "failure";
+
+    private final GitRepositoryClient gitRepositoryClient;
+    private final PopularityScoringExecutor popularityScoringExecutor;
+    private final GithubApiProperties.LeaderboardProperties leaderboardProperties;
+    private final MeterRegistry meterRegistry;
+    private final Ticker ticker;
+    private final DoubleSupplier random;
+    private final Map<String, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    private volatile Disposable.Composite refreshes;
+
+    @Autowired
+    public LanguageLeaderboards(final GitRepositoryClient gitRepositoryClient,
+                                final GithubApiProperties githubApiProperties,
+                                final PopularityScoringExecutor popularityScoringExecutor,
+                                final MeterRegistry meterRegistry) {
+        this(gitRepositoryClient, githubApiProperties, popularityScoringExecutor, meterRegistry,
+                Ticker.systemTicker(), () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    LanguageLeaderboards(final GitRepositoryClient gitRepositoryClient,
+                         final GithubApiProperties githubApiProperties,
+                         final PopularityScoringExecutor popularityScoringExecutor,
+                         final MeterRegistry meterRegistry, final Ticker ticker, final DoubleSupplier random) {
+        this.gitRepositoryClient = gitRepositoryClient;
+        this.popularityScoringExecutor = popularityScoringExecutor;
+        this.leaderboardProperties = githubApiProperties.getApi().getLeaderboard();
+        this.meterRegistry = meterRegistry;
+        this.ticker = ticker;
+        this.random = random;
+        if (leaderboardProperties.isEnabled()) {
+            for (final String language : leaderboardProperties.getLanguages()) {
+                Gauge.builder(AGE_NAME, () -> ageSeconds(language))
+                        .description("Seconds since the leaderboard of a language was last refreshed")
+                        .tag("language", key(language))
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Answers {@code searchRequest} from a leaderboard.
+     *
+     * @param searchRequest the search criteria (internal model)
+     * @return the ranked response, exactly as a ranked search would assemble it, or null if
+     *         the request is not a plain top-repositories search for a configured language or
+     *         its leaderboard is missing or older than {@code max-age}
+     */
+    public GitRepositoryPaginatedResponse lookup(final SearchRequest searchRequest) {
+        if (!leaderboardProperties.isEnabled() || !isLeaderboardQuery(searchRequest)) {
+            return null;
+        }
+        final Leaderboard leaderboard = leaderboards.get(key(searchRequest.getLanguage()));
+        if (leaderboard == null
+                || ticker.read() - leaderboard.getRefreshedAtNanos() > leaderboardProperties.getMaxAge().toNanos()) {
+            return null;
+        }
+        final List<GitRepositoryItems> items = leaderboard.getItems();
+        final int limit = searchRequest.getLimit() != null ? searchRequest.getLimit() : Integer.MAX_VALUE;
+        log.debug("Answering search for the top {} {} repositories from the leaderboard",
+                searchRequest.getLimit(), searchRequest.getLanguage());
+        return GitRepositoryPaginatedResponse.builder()
+                .totalCount(items.size())
+                .incompleteResults(leaderboard.isIncompleteResults())
+                .items(items.subList(0, Math.min(limit, items.size())))
+                .build();
+    }
+
+    /**
+     * Whether {@code searchRequest} asks for a language ranked by popularity and nothing else:
+     * ranked by score, either explicitly or by a bare limit, without filters or a page.
+     */
+    private static boolean isLeaderboardQuery(final SearchRequest searchRequest) {
+        return searchRequest.getLanguage() != null
+                && searchRequest.getEarliestCreatedDate() == null
+                && searchRequest.getMinStars() == null
+                && searchRequest.getMinForks() == null
+                && searchRequest.getPageNumber() == null
+                && (searchRequest.getSortBy() == SearchRequest.SortKey.SCORE
+                || searchRequest.getSortBy() == null && searchRequest.getLimit() != null);
+    }
+
+    /**
+     * Ranks every repository of {@code language} and replaces its leaderboard.
+     *
+     * @return a Mono completing once the leaderboard is replaced, or failing with the
+     *         upstream failure, in which case the previous leaderboard is kept
+     */
+    Mono<Void> refresh(final String language) {
+        final SearchRequest searchRequest = SearchRequest.builder()
+                .language(language)
+                .sortBy(SearchRequest.SortKey.SCORE)
+                .build();
+        return Mono.defer(() -> {
+            final AtomicBoolean incompleteResults = new AtomicBoolean();
+            return gitRepositoryClient.fetchPages(searchRequest)
+                    .doOnNext(page -> {
+                        if (page.isIncompleteResults()) {
+                            incompleteResults.set(true);
+                        }
+                    })
+                    .concatMap(page -> popularityScoringExecutor.score(page.getItems()))
+                    .collect(() -> new TopKSelector<GitRepositoryItems>(Integer.MAX_VALUE,
+                            RepositoryRanking.bestFirst(SearchRequest.SortKey.SCORE)), TopKSelector::offerAll)
+                    .doOnNext(selector -> {
+                        leaderboards.put(key(language), new Leaderboard(List.copyOf(selector.toSortedList()),
+                                incompleteResults.get(), ticker.read()));
+                        log.debug("Refreshed the {} leaderboard with {} repositories", language, selector.offered());
+                    });
+        })
+                .contextWrite(RequestPriority.BACKGROUND.asContext())
+                .doOnSuccess(ignored -> refreshes(language, SUCCESS).increment())
+                .doOnError(failure -> {
+                    refreshes(language, FAILURE).increment();
+                    log.warn("Refreshing the {} leaderboard failed, keeping the previous one: {}",
+                            language, failure.toString());
+                })
+                .then();
+    }
+
+    private Counter refreshes(final String language, final String outcome) {
+        return Counter.builder(REFRESHES_NAME)
+                .description("Leaderboard refreshes")
+                .tag("language", key(language))
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Seconds since the leaderboard of {@code language} was refreshed, or {@code NaN} if it
+     * never was.
+     */
+    double ageSeconds(final String language) {
+        final Leaderboard leaderboard = leaderboards.get(key(language));
+        return leaderboard == null ? Double.NaN : (ticker.read() - leaderboard.getRefreshedAtNanos()) / 1e9;
+    }
+
+    /**
+     * Delay before the next refresh: {@code refresh-interval} moved by up to {@code jitter}
+     * of it in either direction.
+     */
+    Duration nextRefresh() {
+        final long intervalNanos = leaderboardProperties.getRefreshInterval().toNanos();
+        final double offset = (2 * random.getAsDouble() - 1) * leaderboardProperties.getJitter();
+        return Duration.ofNanos((long) (intervalNanos * (1 + offset)));
+    }
+
+    /**
+     * Starts refreshing every configured language, each after a random share of the jitter so
+     * the first refreshes are spread out as well.
+     */
+    @Override
+    public synchronized void start() {
+        if (refreshes != null || !leaderboardProperties.isEnabled()) {
+            return;
+        }
+        refreshes = Disposables.composite();
+        for (final String language : leaderboardProperties.getLanguages()) {
+            final Duration firstRefresh = Duration.ofNanos((long) (random.getAsDouble()
+                    * leaderboardProperties.getJitter() * leaderboardProperties.getRefreshInterval().toNanos()));
+            refreshes.add(Mono.delay(firstRefresh)
+                    .thenMany(refresh(language)
+                            .onErrorResume(failure -> Mono.empty())
+                            .then(Mono.defer(() -> Mono.delay(nextRefresh())))
+                            .repeat())
+                    .subscribe());
+        }
+        log.info("Refreshing leaderboards for {} every {}", leaderboardProperties.getLanguages(),
+                leaderboardProperties.getRefreshInterval());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (refreshes != null) {
+            refreshes.dispose();
+            refreshes = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return refreshes != null;
+    }
+
+    private static String key(final String language) {
+        return language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The ranked repositories of one language and the {@link Ticker} time they were ranked at.
+     */
+    @Value
+    static class Leaderboard {
+        List<GitRepositoryItems> items;
+        boolean incompleteResults;
+        long refreshedAtNanos;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.githubsearch.service.impl.query;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable plan for the upstream requests of one search: what is sent to GitHub, which
+ * window of the result set is wanted, and how that window maps onto upstream pages of
+ * {@link #upstreamPerPage} results.
+ */
+@Value
+@Builder
+public class SearchQueryPlan {
+
+    /**
+     * The {@code q} parameter, with every filter pushed down as a GitHub qualifier.
+     */
+    String query;
+
+    /**
+     * The GitHub {@code sort} parameter (always with {@code order=desc}), or null for
+     * GitHub's default best-match order.
+     */
+    String sort;
+
+    /**
+     * Zero-based index of the first wanted result.
+     */
+    int firstResult;
+
+    /**
+     * Maximum number of wanted results, starting at {@link #firstResult}.
+     */
+    int resultLimit;
+
+    /**
+     * Page size requested from GitHub.
+     */
+    int upstreamPerPage;
+
+    /**
+     * True if GitHub returns results in exactly the requested ranking, so the wanted window
+     * holds the requested top results.
+     */
+    boolean exactOrder;
+
+    /**
+     * @return the first upstream page holding a wanted result
+     */
+    public int getFirstPage() {
+        return firstResult / upstreamPerPage + 1;
+    }
+
+    /**
+     * @return the last upstream page holding a wanted result
+     */
+    public int getLastPage() {
+        return (firstResult + Math.max(1, resultLimit) - 1) / upstreamPerPage + 1;
+    }
+
+    /**
+     * @return upper bound on the pages requested from GitHub
+     */
+    public int getPageBudget() {
+        return getLastPage() - getFirstPage() + 1;
+    }
+
+    /**
+     * Keeps the results of an upstream page that fall inside the wanted window.
+     *
+     * @param page  upstream page number
+     * @param items results of that page, may be null
+     * @return the wanted results of that page, possibly empty
+     */
+    public <T> List<T> slice(final int page, final List<T> items) {
+        if (items == null) {
+            return List.of();
+        }
+        final int pageStart = (page - 1) * upstreamPerPage;
+        final int from = Math.max(0, firstResult - pageStart);
+        final int to = Math.min(items.size(), firstResult + resultLimit - pageStart);
+        if (from == 0 && to == items.size()) {
+            return items;
+        }
+        return from < to ? items.subList(from, to) : List.of();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.githubsearch.service.impl.query;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.service.impl.helper.GitHubQueryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plans the upstream GitHub requests for a search.
+ * <p>
+ * The wanted results are described as a window of the result set: one client page of
+ * {@code default-per-page} results, or the first {@code max-pages * default-per-page}
+ * results (never more than GitHub's 1000-result search window) for an all-pages search.
+ * The window is mapped onto upstream pages of {@code upstream-per-page} results, so
+ * filling it takes as few requests as GitHub's page size allows.
+ * <p>
+ * Star and fork thresholds are pushed down as {@code stars:>=}/{@code forks:>=} qualifiers
+ * and the requested ranking as {@code sort}/{@code order=desc}, so GitHub filters and
+ * orders instead of this service fetching pages only to discard or re-rank them. When
+ * GitHub's order is exactly the requested ranking (stars, forks or update time) and a
+ * limit is given, the window shrinks to the first {@code limit} results and no further
+ * page is requested. Popularity score is approximated by sorting on stars,
+ * which improves the candidate set but is not exact, so all pages are still requested.
+ * <p>
+ * Every plan is logged at debug level and counted in {@code github.search.plans}, tagged
+ * with the pushed-down {@code sort} and whether the page budget was {@code bounded} below
+ * {@code max-pages}; {@code github.search.plan.pages} records the page budget.
+ */
+@Slf4j
+@Component
+public class SearchQueryPlanner {
+
+    static final String PLANS_NAME = "github.search.plans";
+    static final String PAGES_NAME = "github.search.plan.pages";
+
+    /**
+     * GitHub's search API never returns more than the first 1000 results of a query.
+     */
+    private static final int GITHUB_MAX_SEARCH_RESULTS = 1000;
+
+    private final GithubApiProperties githubApiProperties;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary pageBudgets;
+
+    public SearchQueryPlanner(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry) {
+        this.githubApiProperties = githubApiProperties;
+        this.meterRegistry = meterRegistry;
+        this.pageBudgets = DistributionSummary.builder(PAGES_NAME)
+                .description("Upstream pages a search plan allows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Plans the upstream requests for {@code searchRequest}.
+     *
+     * @param searchRequest the search criteria (internal model)
+     * @return the plan
+     */
+    public SearchQueryPlan plan(final SearchRequest searchRequest) {
+        final int perPage = githubApiProperties.getApi().getDefaultPerPage();
+        final GithubApiProperties.FetchProperties fetch = githubApiProperties.getApi().getFetch();
+        final SearchRequest.SortKey sortBy = searchRequest.getSortBy();
+        final boolean exactOrder = sortBy != null && sortBy != SearchRequest.SortKey.SCORE;
+        final int maxResults = Math.min(fetch.getMaxPages() * perPage, GITHUB_MAX_SEARCH_RESULTS);
+
+        final int firstResult;
+        final int resultLimit;
+        if (searchRequest.getPageNumber() != null) {
+            firstResult = (searchRequest.getPageNumber() - 1) * perPage;
+            resultLimit = perPage;
+        } else if (exactOrder && searchRequest.getLimit() != null) {
+            firstResult = 0;
+            resultLimit = Math.min(searchRequest.getLimit(), maxResults);
+        } else {
+            firstResult = 0;
+            resultLimit = maxResults;
+        }
+
+        final SearchQueryPlan plan = SearchQueryPlan.builder()
+                .query(GitHubQueryBuilder.resolveQuery(githubApiProperties, searchRequest))
+                .sort(GitHubQueryBuilder.sortParameter(sortBy))
+                .firstResult(firstResult)
+                .resultLimit(resultLimit)
+                .upstreamPerPage(fetch.getUpstreamPerPage())
+                .exactOrder(exactOrder)
+                .build();
+
+        log.debug("Planned search q={} sort={} results [{}, {}) on upstream pages {}-{} of {} (limit={}, exactOrder={})",
+                plan.getQuery(), plan.getSort(), firstResult, firstResult + resultLimit, plan.getFirstPage(),
+                plan.getLastPage(), plan.getUpstreamPerPage(), searchRequest.getLimit(), exactOrder);
+        Counter.builder(PLANS_NAME)
+                .description("Search plans by pushed-down sort and page budget")
+                .tag("sort", plan.getSort() != null ? plan.getSort() : "none")
+                .tag("bounded", Boolean.toString(searchRequest.getPageNumber() == null && resultLimit < maxResults))
+                .register(meterRegistry)
+                .increment();
+        pageBudgets.record(plan.getPageBudget());
+        return plan;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.githubsearch.service.impl.ratelimit;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.exception.ApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side limiter for upstream GitHub requests, paced by the rate-limit headers GitHub
+ * returns on every response, with one budget per token of the configured pool.
+ * <p>
+ * One permit is taken per upstream HTTP request, retries included. Each token's permits
+ * come from a token bucket holding up to {@code burst} tokens that refills at the
+ * token's remaining budget divided by the time left until its {@code X-RateLimit-Reset},
+ * so the budget is spread over the window instead of being spent at once and answered
+ * with {@code 429}s. A request goes to the token that can send it soonest, preferring
+ * the one with the most budget left, so throughput grows with the number of tokens.
+ * Each response re-synchronises the budget of the token it was sent with; until the
+ * first one arrives the configured initial limit and window are assumed. A token whose
+ * budget is exhausted, or for which GitHub asked for a pause with {@code Retry-After} or
+ * a secondary-limit {@code 403}/{@code 429}, is retired until its window resets or the
+ * pause ends. A request that would wait longer than {@code max-wait} on every token fails
+ * fast with {@code 429 Too Many Requests}.
+ * <p>
+ * The remaining budget of each token is published as the {@code github.ratelimit.remaining}
+ * gauge tagged with the token's one-based position in the pool, the time spent waiting for
+ * permits as the {@code github.ratelimit.wait} timer, and permits as the
+ * {@code github.ratelimit.permits} counter tagged {@code outcome=immediate|delayed|rejected}.
+ */
+@Slf4j
+@Component
+public class AdaptiveRateLimiter {
+
+    static final String REMAINING_NAME = "github.ratelimit.remaining";
+    static final String WAIT_NAME = "github.ratelimit.wait";
+    static final String PERMITS_NAME = "github.ratelimit.permits";
+    static final String IMMEDIATE = "immediate";
+    static final String DELAYED = "delayed";
+    static final String REJECTED = "rejected";
+
+    private final boolean enabled;
+    private final long maxWaitMillis;
+    private final Clock clock;
+    private final List<TokenBudget> budgets;
+    private final Timer waitTimer;
+    private final Counter immediatePermits;
+    private final Counter delayedPermits;
+    private final Counter rejectedPermits;
+
+    @Autowired
+    public AdaptiveRateLimiter(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry) {
+        this(githubApiProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    AdaptiveRateLimiter(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry,
+                        final Clock clock) {
+        final GithubApiProperties.RateLimitProperties rateLimitProperties = githubApiProperties.getApi().getRateLimit();
+        this.enabled = rateLimitProperties.isEnabled();
+        this.maxWaitMillis = rateLimitProperties.getMaxWait().toMillis();
+        this.clock = clock;
+
+        final long windowMillis = Math.max(1, rateLimitProperties.getWindow().toMillis());
+        final List<String> tokens = githubApiProperties.getTokens() == null || githubApiProperties.getTokens().isEmpty()
+                ? Collections.singletonList(null) : githubApiProperties.getTokens();
+        final long now = clock.millis();
+        this.budgets = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            budgets.add(new TokenBudget(tokens.get(i), rateLimitProperties.getInitialLimit(),
+                    rateLimitProperties.getBurst(), windowMillis, now));
+            final int tokenIndex = i;
+            Gauge.builder(REMAINING_NAME, this, limiter -> limiter.remaining(tokenIndex))
+                    .description("Upstream requests left in the current rate-limit window")
+                    .tag("token", String.valueOf(i + 1))
+                    .register(meterRegistry);
+        }
+        log.info("Rate limiting upstream requests over {} token(s)", githubApiProperties.getTokens() == null
+                ? 0 : githubApiProperties.getTokens().size());
+
+        this.waitTimer = Timer.builder(WAIT_NAME)
+                .description("Time upstream requests waited for a rate-limit permit")
+                .register(meterRegistry);
+        this.immediatePermits = permits(meterRegistry, IMMEDIATE);
+        this.delayedPermits = permits(meterRegistry, DELAYED);
+        this.rejectedPermits = permits(meterRegistry, REJECTED);
+    }
+
+    private static Counter permits(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder(PERMITS_NAME)
+                .description("Rate-limit permits requested for upstream requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one permit for an upstream request, on subscription. When the limiter is
+     * disabled the permit is granted at once, still on the token with the most budget left.
+     *
+     * @return Mono emitting the permit once the request may be sent, or failing with a
+     *         {@code 429} {@link ApiException} if that would take longer than {@code max-wait}
+     */
+    public Mono<RateLimitPermit> acquire() {
+        return Mono.defer(() -> {
+            final RateLimitPermit permit = reserve();
+            if (permit == null) {
+                rejectedPermits.increment();
+                return Mono.error(new ApiException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Rate limit exceeded. Please try again later."));
+            }
+            waitTimer.record(permit.getWaitMillis(), TimeUnit.MILLISECONDS);
+            if (permit.getWaitMillis() == 0) {
+                immediatePermits.increment();
+                return Mono.just(permit);
+            }
+            delayedPermits.increment();
+            log.debug("Delaying upstream request by {} ms to stay within the rate limit of token {}",
+                    permit.getWaitMillis(), permit.getTokenIndex() + 1);
+            return Mono.delay(Duration.ofMillis(permit.getWaitMillis())).thenReturn(permit);
+        });
+    }
+
+    /**
+     * Reserves one permit on the token that can send soonest, ties going to the token with
+     * the most budget left.
+     *
+     * @return the permit, or null if every token would wait longer than {@code max-wait}
+     *         (in which case nothing is reserved)
+     */
+    synchronized RateLimitPermit reserve() {
+        final long now = clock.millis();
+        int best = -1;
+        long bestWait = Long.MAX_VALUE;
+        for (int i = 0; i < budgets.size(); i++) {
+            final TokenBudget budget = budgets.get(i);
+            budget.refresh(now);
+            final long wait = enabled ? budget.waitMillis(now) : 0;
+            if (wait < bestWait || (wait == bestWait && budget.remaining() > budgets.get(best).remaining())) {
+                best = i;
+                bestWait = wait;
+            }
+        }
+        if (bestWait > maxWaitMillis) {
+            return null;
+        }
+        final TokenBudget budget = budgets.get(best);
+        budget.take();
+        return new RateLimitPermit(budget.token(), best, bestWait);
+    }
+
+    /**
+     * Re-synchronises the budget of the permit's token with the rate-limit headers of the
+     * upstream response sent under it.
+     *
+     * @param permit the permit the request was sent with
+     * @param status the rate-limit headers and status code of the response
+     */
+    public synchronized void observe(final RateLimitPermit permit, final RateLimitStatus status) {
+        final long heldBackMillis = budgets.get(permit.getTokenIndex()).observe(status, clock.millis());
+        if (status.isRateLimited()) {
+            log.warn("GitHub rate limit hit on token {} (status {}), retiring it for {} ms",
+                    permit.getTokenIndex() + 1, status.getStatusCode(), heldBackMillis);
+        }
+    }
+
+    /**
+     * Requests left in the current window of the token at {@code tokenIndex}, as last
+     * reported by GitHub minus the permits handed out since.
+     */
+    synchronized int remaining(final int tokenIndex) {
+        return budgets.get(tokenIndex).remaining();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.githubsearch.service.impl.ratelimit;
+
+import lombok.Value;
+
+/**
+ * Permit for one upstream request, naming the token to send it with.
+ */
+@Value
+public class RateLimitPermit {
+    /**
+     * The token to authenticate with, or null for an unauthenticated request.
+     */
+    String token;
+    /**
+     * Position of the token in the pool; identifies its budget when the response is observed.
+     */
+    int tokenIndex;
+    /**
+     * How long the request was held back for the permit.
+     */
+    long waitMillis;
+}
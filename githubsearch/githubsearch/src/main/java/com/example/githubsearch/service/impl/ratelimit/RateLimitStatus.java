@@ -0,0 +1,49 @@
+package com.example.githubsearch.service.impl.ratelimit;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Immutable view of the rate-limit headers of one GitHub response. Every header is
+ * optional, so each field is null when the response did not carry it.
+ */
+@Value
+@Builder
+public class RateLimitStatus {
+
+    /**
+     * HTTP status code of the response.
+     */
+    int statusCode;
+
+    /**
+     * {@code X-RateLimit-Limit}: requests allowed per window.
+     */
+    Integer limit;
+
+    /**
+     * {@code X-RateLimit-Remaining}: requests left in the current window.
+     */
+    Integer remaining;
+
+    /**
+     * {@code X-RateLimit-Reset}: when the current window ends.
+     */
+    Instant resetAt;
+
+    /**
+     * {@code Retry-After}: how long to wait before the next request.
+     */
+    Duration retryAfter;
+
+    /**
+     * Whether GitHub refused the request because a primary or secondary rate limit was hit.
+     */
+    public boolean isRateLimited() {
+        return statusCode == 429 || (statusCode == 403 && (retryAfter != null
+                || (remaining != null && remaining == 0)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.githubsearch.service.impl.ratelimit;
+
+/**
+ * Rate-limit budget of one token: a token bucket refilled at the remaining budget divided
+ * by the time left until the reset, re-synchronised from response headers.
+ * <p>
+ * Not thread-safe; guarded by the owning {@link AdaptiveRateLimiter}.
+ */
+final class TokenBudget {
+
+    /**
+     * Pause after a secondary limit without hints; GitHub asks clients to wait at least a minute.
+     */
+    static final long SECONDARY_LIMIT_PAUSE_MILLIS = 60_000;
+
+    private final String token;
+    private final int burst;
+    private final long windowMillis;
+
+    private int limit;
+    private int remaining;
+    private long resetAtMillis;
+    private long reportedResetAtMillis = Long.MIN_VALUE;
+    private long blockedUntilMillis;
+    private double tokens;
+    private long lastRefillMillis;
+
+    TokenBudget(final String token, final int initialLimit, final int burst, final long windowMillis,
+                final long nowMillis) {
+        this.token = token;
+        this.burst = burst;
+        this.windowMillis = windowMillis;
+        this.limit = initialLimit;
+        this.remaining = initialLimit;
+        this.resetAtMillis = nowMillis + windowMillis;
+        this.lastRefillMillis = nowMillis;
+        this.tokens = burst;
+    }
+
+    String token() {
+        return token;
+    }
+
+    int remaining() {
+        return remaining;
+    }
+
+    /**
+     * Rolls the window over if it ended without a response reporting the new one, and
+     * refills the bucket for the time elapsed.
+     */
+    void refresh(final long nowMillis) {
+        if (nowMillis >= resetAtMillis) {
+            remaining = limit;
+            resetAtMillis = nowMillis + windowMillis;
+        }
+        tokens = Math.min(burst, tokens + (nowMillis - lastRefillMillis) * permitsPerMilli(nowMillis));
+        lastRefillMillis = nowMillis;
+    }
+
+    /**
+     * Milliseconds until this budget could send one more request; call {@link #refresh} first.
+     */
+    long waitMillis(final long nowMillis) {
+        long startAt = Math.max(nowMillis, blockedUntilMillis);
+        if (remaining <= 0) {
+            return Math.max(startAt, resetAtMillis) - nowMillis;
+        }
+        if (tokens < 1) {
+            startAt = Math.max(startAt, nowMillis + (long) Math.ceil((1 - tokens) / permitsPerMilli(nowMillis)));
+        }
+        return startAt - nowMillis;
+    }
+
+    /**
+     * Takes one permit. Requests sent while the budget is exhausted count against the next
+     * window, which the next response reports.
+     */
+    void take() {
+        if (remaining > 0) {
+            tokens -= 1;
+            remaining--;
+        }
+    }
+
+    private double permitsPerMilli(final long nowMillis) {
+        return (double) Math.max(remaining, 0) / Math.max(1, resetAtMillis - nowMillis);
+    }
+
+    /**
+     * Applies the rate-limit headers of a response sent with this token. Headers reporting
+     * an older window than the last one GitHub reported are ignored, and within one window
+     * the lower remaining count wins, since responses can arrive out of order. Windows rolled
+     * over locally by {@link #refresh} are guesses and give way to any newer reported window.
+     *
+     * @return milliseconds the token is held back from now on
+     */
+    long observe(final RateLimitStatus status, final long nowMillis) {
+        if (status.getLimit() != null) {
+            limit = status.getLimit();
+        }
+        if (status.getRemaining() != null && status.getResetAt() != null) {
+            final long reportedResetAt = status.getResetAt().toEpochMilli();
+            if (reportedResetAt > reportedResetAtMillis) {
+                remaining = status.getRemaining();
+                resetAtMillis = reportedResetAt;
+                reportedResetAtMillis = reportedResetAt;
+            } else if (reportedResetAt == resetAtMillis) {
+                remaining = Math.min(remaining, status.getRemaining());
+            }
+        }
+        if (status.getRetryAfter() != null) {
+            blockedUntilMillis = Math.max(blockedUntilMillis, nowMillis + status.getRetryAfter().toMillis());
+        } else if (status.isRateLimited()) {
+            blockedUntilMillis = Math.max(blockedUntilMillis, remaining <= 0
+                    ? resetAtMillis
+                    : nowMillis + Math.max(windowMillis, SECONDARY_LIMIT_PAUSE_MILLIS));
+        }
+        return Math.max(0, Math.max(blockedUntilMillis, remaining <= 0 ? resetAtMillis : 0) - nowMillis);
+    }
+}
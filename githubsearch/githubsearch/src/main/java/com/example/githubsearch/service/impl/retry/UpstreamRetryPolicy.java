@@ -0,0 +1,162 @@
+package com.example.githubsearch.service.impl.retry;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.exception.ApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Retry policy shared by all upstream GitHub requests.
+ * <p>
+ * {@code 5xx} responses and rate-limited {@code 403}/{@code 429} responses (an
+ * {@link ApiException} carrying a {@code retryAfter}) are retried up to {@code attempts}
+ * times with full-jitter backoff, a uniformly random delay between zero and the
+ * exponential backoff for the attempt, so retries of concurrent requests do not arrive in
+ * waves. A rate-limited response is retried no earlier than GitHub asked, and not at all
+ * if that is longer than {@code max-retry-after}.
+ * <p>
+ * Every retry is paid from a budget shared across requests: a token bucket holding up to
+ * {@code budget-capacity} retries that each successful request refills by
+ * {@code budget-ratio}. During a brownout the budget drains and failing requests fail at
+ * once instead of multiplying the load; it recovers as requests succeed again.
+ * <p>
+ * Retries are counted in {@code github.upstream.retries} tagged
+ * {@code outcome=retried|exhausted|denied}, where {@code denied} means the budget was empty;
+ * the retries left are the {@code github.upstream.retry.budget} gauge.
+ */
+@Slf4j
+@Component
+public class UpstreamRetryPolicy {
+
+    static final String RETRIES_NAME = "github.upstream.retries";
+    static final String BUDGET_NAME = "github.upstream.retry.budget";
+    static final String RETRIED = "retried";
+    static final String EXHAUSTED = "exhausted";
+    static final String DENIED = "denied";
+
+    private final int attempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration maxRetryAfter;
+    private final double budgetRatio;
+    private final int budgetCapacity;
+    private final DoubleSupplier random;
+    private final Counter retried;
+    private final Counter exhausted;
+    private final Counter denied;
+
+    private double budget;
+
+    @Autowired
+    public UpstreamRetryPolicy(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry) {
+        this(githubApiProperties, meterRegistry, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    UpstreamRetryPolicy(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry,
+                        final DoubleSupplier random) {
+        final GithubApiProperties.RetryProperties retryProperties = githubApiProperties.getApi().getRetry();
+        this.attempts = retryProperties.getAttempts();
+        this.baseBackoff = Duration.ofSeconds(retryProperties.getBackoffSeconds());
+        this.maxBackoff = retryProperties.getMaxBackoff();
+        this.maxRetryAfter = retryProperties.getMaxRetryAfter();
+        this.budgetRatio = retryProperties.getBudgetRatio();
+        this.budgetCapacity = retryProperties.getBudgetCapacity();
+        this.budget = budgetCapacity;
+        this.random = random;
+        this.retried = retries(meterRegistry, RETRIED);
+        this.exhausted = retries(meterRegistry, EXHAUSTED);
+        this.denied = retries(meterRegistry, DENIED);
+        Gauge.builder(BUDGET_NAME, this, UpstreamRetryPolicy::budget)
+                .description("Upstream retries left in the shared retry budget")
+                .register(meterRegistry);
+    }
+
+    private static Counter retries(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder(RETRIES_NAME)
+                .description("Failed upstream requests considered for a retry")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retry spec for one upstream request. Failures that are not retried, including those
+     * denied by the budget, are propagated unchanged.
+     *
+     * @param description what is being fetched, for logging
+     * @return the retry spec to pass to {@code retryWhen}
+     */
+    public Retry retrySpec(final String description) {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            final Throwable failure = signal.failure();
+            if (!(failure instanceof ApiException apiException) || !isRetryable(apiException)) {
+                return Mono.error(failure);
+            }
+            if (signal.totalRetries() >= attempts) {
+                exhausted.increment();
+                return Mono.error(failure);
+            }
+            if (apiException.getRetryAfter() != null && apiException.getRetryAfter().compareTo(maxRetryAfter) > 0) {
+                log.warn("Not retrying {}: GitHub asked to wait {}", description, apiException.getRetryAfter());
+                exhausted.increment();
+                return Mono.error(failure);
+            }
+            if (!withdraw()) {
+                log.warn("Not retrying {} due to {}: retry budget exhausted", description, failure.toString());
+                denied.increment();
+                return Mono.error(failure);
+            }
+            retried.increment();
+            final Duration delay = delay(signal.totalRetries(), apiException.getRetryAfter());
+            log.warn("Retrying {} due to {} in {} ms. Attempt {}/{}", description, failure.toString(),
+                    delay.toMillis(), signal.totalRetries() + 1, attempts);
+            return Mono.delay(delay).thenReturn(signal.totalRetries());
+        }));
+    }
+
+    private static boolean isRetryable(final ApiException apiException) {
+        return apiException.getStatus().is5xxServerError() || apiException.getRetryAfter() != null;
+    }
+
+    /**
+     * Full jitter: uniform in {@code [0, min(max-backoff, backoff * 2^retry))}, but never
+     * before {@code retryAfter}.
+     */
+    Duration delay(final long retry, final Duration retryAfter) {
+        final long ceilingMillis = Math.min(maxBackoff.toMillis(),
+                baseBackoff.toMillis() * (1L << Math.min(retry, 30)));
+        final Duration jittered = Duration.ofMillis((long) (random.getAsDouble() * ceilingMillis));
+        return retryAfter != null && retryAfter.compareTo(jittered) > 0 ? retryAfter : jittered;
+    }
+
+    /**
+     * Refills the budget for one successful upstream request.
+     */
+    public synchronized void recordSuccess() {
+        budget = Math.min(budgetCapacity, budget + budgetRatio);
+    }
+
+    private synchronized boolean withdraw() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+
+    /**
+     * Retries left in the budget.
+     */
+    synchronized double budget() {
+        return budget;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.githubsearch.service.impl.scheduling;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Priority lane of an upstream GitHub request, carried in the Reactor {@link Context} of
+ * the subscriber so it reaches the client without changing any signatures. Requests
+ * without a priority in their context are {@link #INTERACTIVE}.
+ * <pre>{@code
+ * gitRepositoryClient.fetchPages(request)
+ *         .contextWrite(RequestPriority.BACKGROUND.asContext());
+ * }</pre>
+ */
+public enum RequestPriority {
+    /**
+     * A user is waiting for the response.
+     */
+    INTERACTIVE,
+    /**
+     * Warms or revalidates data a user is likely to ask for soon.
+     */
+    PREFETCH,
+    /**
+     * Bulk or scheduled work that can wait.
+     */
+    BACKGROUND;
+
+    private static final Class<RequestPriority> CONTEXT_KEY = RequestPriority.class;
+
+    /**
+     * Context modifier assigning this priority to every upstream request made by the
+     * subscribed pipeline, for use with {@code contextWrite}.
+     */
+    public Function<Context, Context> asContext() {
+        return context -> context.put(CONTEXT_KEY, this);
+    }
+
+    /**
+     * The priority stored in {@code context}, or {@link #INTERACTIVE} if none is.
+     */
+    public static RequestPriority from(final ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+    }
+}
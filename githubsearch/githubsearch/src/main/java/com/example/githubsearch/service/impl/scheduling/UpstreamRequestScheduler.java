@@ -0,0 +1,192 @@
+package com.example.githubsearch.service.impl.scheduling;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues upstream GitHub requests in {@link RequestPriority} lanes and admits at most
+ * {@code max-in-flight} of them at a time across all searches.
+ * <p>
+ * A freed slot always goes to the oldest queued {@link RequestPriority#INTERACTIVE}
+ * request first, so bulk work cannot hold user searches back by more than the requests
+ * already in flight. Only when no interactive request is waiting are prefetch and
+ * background requests admitted, interleaved by smooth weighted round-robin in the ratio
+ * of their configured weights; within a lane requests are admitted in arrival order.
+ * Admitted requests take their rate-limit permit afterwards, so the upstream quota is
+ * handed out in the same order.
+ * <p>
+ * Each lane publishes its queue length as the {@code github.upstream.queue.depth} gauge
+ * and the time its requests spent queued as the {@code github.upstream.queue.wait} timer,
+ * both tagged {@code lane=interactive|prefetch|background}.
+ */
+@Slf4j
+@Component
+public class UpstreamRequestScheduler {
+
+    static final String DEPTH_NAME = "github.upstream.queue.depth";
+    static final String WAIT_NAME = "github.upstream.queue.wait";
+
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final int prefetchWeight;
+    private final int backgroundWeight;
+    private final Map<RequestPriority, ArrayDeque<Ticket>> queues = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Timer> waitTimers = new EnumMap<>(RequestPriority.class);
+
+    private int inFlight;
+    private int prefetchCredit;
+    private int backgroundCredit;
+
+    public UpstreamRequestScheduler(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry) {
+        final GithubApiProperties.SchedulerProperties schedulerProperties = githubApiProperties.getApi().getScheduler();
+        this.enabled = schedulerProperties.isEnabled();
+        this.maxInFlight = schedulerProperties.getMaxInFlight();
+        this.prefetchWeight = schedulerProperties.getPrefetchWeight();
+        this.backgroundWeight = schedulerProperties.getBackgroundWeight();
+        for (RequestPriority lane : RequestPriority.values()) {
+            final String tag = lane.name().toLowerCase(Locale.ROOT);
+            queues.put(lane, new ArrayDeque<>());
+            Gauge.builder(DEPTH_NAME, this, scheduler -> scheduler.queued(lane))
+                    .description("Upstream requests waiting for a slot")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            waitTimers.put(lane, Timer.builder(WAIT_NAME)
+                    .description("Time upstream requests waited for a slot")
+                    .tag("lane", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Runs {@code request} once a slot is free and it is its lane's turn. The lane is read
+     * from the subscriber context (see {@link RequestPriority#from}). The slot is released
+     * when the request terminates or is cancelled; a request cancelled while queued leaves
+     * the queue without taking one.
+     *
+     * @param request the upstream request, subscribed to when admitted
+     * @return Mono mirroring {@code request}
+     */
+    public <T> Mono<T> submit(final Mono<T> request) {
+        if (!enabled) {
+            return request;
+        }
+        return Mono.deferContextual(context -> {
+            final Ticket ticket = new Ticket(RequestPriority.from(context));
+            admit(enqueue(ticket));
+            return ticket.turn.asMono()
+                    .then(request)
+                    .doFinally(signal -> admit(finish(ticket)));
+        });
+    }
+
+    private synchronized List<Ticket> enqueue(final Ticket ticket) {
+        queues.get(ticket.lane).add(ticket);
+        return dequeueAdmissible();
+    }
+
+    private synchronized List<Ticket> finish(final Ticket ticket) {
+        if (ticket.finished) {
+            return List.of();
+        }
+        ticket.finished = true;
+        if (ticket.admitted) {
+            inFlight--;
+        } else {
+            queues.get(ticket.lane).remove(ticket);
+        }
+        return dequeueAdmissible();
+    }
+
+    /**
+     * Takes tickets off the queues while slots are free. The caller signals them outside
+     * the lock, since that subscribes to their requests.
+     */
+    private List<Ticket> dequeueAdmissible() {
+        List<Ticket> admitted = List.of();
+        RequestPriority lane;
+        while (inFlight < maxInFlight && (lane = nextLane()) != null) {
+            final Ticket ticket = queues.get(lane).poll();
+            ticket.admitted = true;
+            inFlight++;
+            waitTimers.get(lane).record(System.nanoTime() - ticket.enqueuedNanos, TimeUnit.NANOSECONDS);
+            if (admitted.isEmpty()) {
+                admitted = new ArrayList<>();
+            }
+            admitted.add(ticket);
+        }
+        return admitted;
+    }
+
+    /**
+     * Interactive first; otherwise smooth weighted round-robin between the prefetch and
+     * background lanes when both are waiting.
+     */
+    private RequestPriority nextLane() {
+        if (!queues.get(RequestPriority.INTERACTIVE).isEmpty()) {
+            return RequestPriority.INTERACTIVE;
+        }
+        final boolean prefetchWaiting = !queues.get(RequestPriority.PREFETCH).isEmpty();
+        final boolean backgroundWaiting = !queues.get(RequestPriority.BACKGROUND).isEmpty();
+        if (prefetchWaiting && backgroundWaiting) {
+            prefetchCredit += prefetchWeight;
+            backgroundCredit += backgroundWeight;
+            if (prefetchCredit >= backgroundCredit) {
+                prefetchCredit -= prefetchWeight + backgroundWeight;
+                return RequestPriority.PREFETCH;
+            }
+            backgroundCredit -= prefetchWeight + backgroundWeight;
+            return RequestPriority.BACKGROUND;
+        }
+        return prefetchWaiting ? RequestPriority.PREFETCH : backgroundWaiting ? RequestPriority.BACKGROUND : null;
+    }
+
+    private static void admit(final List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            log.trace("Admitting {} upstream request", ticket.lane);
+            ticket.turn.tryEmitEmpty();
+        }
+    }
+
+    /**
+     * Requests queued in {@code lane}.
+     */
+    synchronized int queued(final RequestPriority lane) {
+        return queues.get(lane).size();
+    }
+
+    /**
+     * Requests admitted and not yet finished.
+     */
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * One queued or admitted request. Mutable fields are guarded by the scheduler's lock.
+     */
+    private static final class Ticket {
+        private final RequestPriority lane;
+        private final long enqueuedNanos = System.nanoTime();
+        private final Sinks.Empty<Void> turn = Sinks.empty();
+        private boolean admitted;
+        private boolean finished;
+
+        private Ticket(final RequestPriority lane) {
+            this.lane = lane;
+        }
+    }
+}
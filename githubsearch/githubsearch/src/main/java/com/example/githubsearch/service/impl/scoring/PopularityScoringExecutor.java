@@ -0,0 +1,106 @@
+package com.example.githubsearch.service.impl.scoring;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.service.impl.helper.PopularityScoreCalculator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link PopularityScoreCalculator} over a batch of repositories on the cheaper path
+ * for its size.
+ * <p>
+ * Scoring is a few arithmetic operations per item, so a typical result of a few hundred
+ * items is scored in microseconds, far less than handing work to another thread costs.
+ * Batches below the configured threshold are scored inline on the subscribing thread;
+ * larger ones are split into chunks scored on the parallel scheduler and reassembled in
+ * input order. Every chunk is scored against the same clock snapshot, so both paths give
+ * identical results. The chosen path is recorded in the {@code github.search.scoring}
+ * timer and {@code github.search.scoring.items} counter, tagged {@code path=inline|parallel}.
+ */
+@Slf4j
+@Component
+public class PopularityScoringExecutor {
+
+    static final String TIMER_NAME = "github.search.scoring";
+    static final String ITEMS_NAME = "github.search.scoring.items";
+    static final String INLINE = "inline";
+    static final String PARALLEL = "parallel";
+
+    private final int parallelThreshold;
+    private final int chunkSize;
+    private final Timer inlineTimer;
+    private final Timer parallelTimer;
+    private final Counter inlineItems;
+    private final Counter parallelItems;
+
+    public PopularityScoringExecutor(final GithubApiProperties githubApiProperties, final MeterRegistry meterRegistry) {
+        final GithubApiProperties.ScoringProperties scoringProperties = githubApiProperties.getApi().getScoring();
+        this.parallelThreshold = scoringProperties.getParallelThreshold();
+        this.chunkSize = Math.max(1, scoringProperties.getChunkSize());
+        this.inlineTimer = timer(meterRegistry, INLINE);
+        this.parallelTimer = timer(meterRegistry, PARALLEL);
+        this.inlineItems = items(meterRegistry, INLINE);
+        this.parallelItems = items(meterRegistry, PARALLEL);
+    }
+
+    private static Timer timer(final MeterRegistry meterRegistry, final String path) {
+        return Timer.builder(TIMER_NAME)
+                .description("Popularity scoring of one search result")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    private static Counter items(final MeterRegistry meterRegistry, final String path) {
+        return Counter.builder(ITEMS_NAME)
+                .description("Repositories scored")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Scores {@code items}, inline or in parallel chunks depending on the batch size.
+     *
+     * @param items the repositories to score, may be null
+     * @return Mono emitting new repository objects with the popularity score applied, in input order
+     */
+    public Mono<List<GitRepositoryItems>> score(final List<GitRepositoryItems> items) {
+        final int size = items == null ? 0 : items.size();
+        if (size < parallelThreshold) {
+            return Mono.fromSupplier(() -> {
+                final long start = System.nanoTime();
+                final List<GitRepositoryItems> scored = PopularityScoreCalculator.calculateScores(items);
+                record(inlineTimer, inlineItems, start, size);
+                return scored;
+            });
+        }
+        return Mono.defer(() -> {
+            final long start = System.nanoTime();
+            final Instant now = Instant.now();
+            final int chunks = (size + chunkSize - 1) / chunkSize;
+            log.debug("Scoring {} repositories in {} parallel chunks", size, chunks);
+            return Flux.range(0, chunks)
+                    .flatMapSequential(chunk -> Mono.fromSupplier(() -> PopularityScoreCalculator.calculateScores(
+                                    items.subList(chunk * chunkSize, Math.min(size, (chunk + 1) * chunkSize)), now))
+                            .subscribeOn(Schedulers.parallel()))
+                    .<List<GitRepositoryItems>>collect(() -> new ArrayList<>(size), List::addAll)
+                    .doOnSuccess(scored -> record(parallelTimer, parallelItems, start, size));
+        });
+    }
+
+    private static void record(final Timer timer, final Counter counter, final long start, final int size) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        counter.increment(size);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.githubsearch.service.impl.scoring;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the {@code k} best elements offered to it, in O(n log k) time and O(k) space.
+ * <p>
+ * The retained elements sit in a heap whose root is the worst of them, so each new element
+ * is compared once against the root and only replaces it when it ranks higher; results
+ * never need a full sort of everything that was offered. Not thread-safe.
+ *
+ * @param <T> element type
+ */
+public class TopKSelector<T> {
+
+    private final int k;
+    private final Comparator<? super T> bestFirst;
+    private final PriorityQueue<T> worstAtRoot;
+    private int offered;
+
+    /**
+     * @param k         number of elements to keep, at least 1
+     * @param bestFirst orders the best element first
+     */
+    public TopKSelector(final int k, final Comparator<? super T> bestFirst) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1, was " + k);
+        }
+        this.k = k;
+        this.bestFirst = bestFirst;
+        this.worstAtRoot = new PriorityQueue<>(Math.min(k, 1024) + 1, bestFirst.reversed());
+    }
+
+    /**
+     * Offers one element.
+     */
+    public void offer(final T element) {
+        offered++;
+        if (worstAtRoot.size() < k) {
+            worstAtRoot.add(element);
+        } else if (bestFirst.compare(element, worstAtRoot.peek()) < 0) {
+            worstAtRoot.poll();
+            worstAtRoot.add(element);
+        }
+    }
+
+    /**
+     * Offers every element of {@code elements}; a null collection is ignored.
+     */
+    public void offerAll(final Collection<? extends T> elements) {
+        if (elements != null) {
+            elements.forEach(this::offer);
+        }
+    }
+
+    /**
+     * @return number of elements offered so far
+     */
+    public int offered() {
+        return offered;
+    }
+
+    /**
+     * @return the retained elements, best first
+     */
+    public List<T> toSortedList() {
+        final List<T> sorted = new ArrayList<>(worstAtRoot);
+        sorted.sort(bestFirst);
+        return sorted;
+    }
+}
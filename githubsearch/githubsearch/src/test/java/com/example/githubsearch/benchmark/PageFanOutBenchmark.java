@@ -0,0 +1,146 @@
+package com.example.githubsearch.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.service.impl.GitRepositoryClientImpl;
+import com.example.githubsearch.service.impl.cache.ConditionalRequestStore;
+import com.example.githubsearch.service.impl.cache.NegativeQueryCache;
+import com.example.githubsearch.service.impl.cache.UpstreamPageCache;
+import com.example.githubsearch.service.impl.codec.SearchPageDecoder;
+import com.example.githubsearch.service.impl.hedging.RequestHedger;
+import com.example.githubsearch.service.impl.query.SearchQueryPlanner;
+import com.example.githubsearch.service.impl.ratelimit.AdaptiveRateLimiter;
+import com.example.githubsearch.service.impl.retry.UpstreamRetryPolicy;
+import com.example.githubsearch.service.impl.scheduling.UpstreamRequestScheduler;
+import com.example.githubsearch.support.StubGitHubServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency/throughput trade-off of the all-pages fan-out in {@link GitRepositoryClientImpl}
+ * against a local {@link StubGitHubServer} with a fixed per-page latency.
+ * <p>
+ * {@code searchLatency} measures a single caller: higher concurrency brings a ten-page
+ * search closer to one round trip. {@code searchThroughput} measures many callers at once:
+ * there the upstream is the shared resource, and past a few pages in flight more
+ * concurrency adds little throughput while raising the peak number of simultaneous
+ * upstream requests, which is printed at the end of each trial. {@code upstreamPerPage=100}
+ * fills the same 300 results with 3 upstream requests instead of 10.
+ * <p>
+ * Run {@link #main} from the IDE, or {@code org.openjdk.jmh.Main PageFanOutBenchmark} on
+ * the test classpath.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+public class PageFanOutBenchmark {
+
+    private static final int PER_PAGE = 30;
+    private static final int PAGES = 10;
+
+    @Param({"1", "2", "4", "10"})
+    public int concurrency;
+
+    @Param({"false", "true"})
+    public boolean ordered;
+
+    @Param({"30", "100"})
+    public int upstreamPerPage;
+
+    @Param({"50"})
+    public int latencyMillis;
+
+    private StubGitHubServer server;
+    private GitRepositoryClientImpl client;
+    private SearchRequest allPages;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        server = StubGitHubServer.start(Duration.ofMillis(latencyMillis), PER_PAGE * PAGES);
+        GithubApiProperties properties = new GithubApiProperties("token", GithubApiProperties.Api.builder()
+                .baseUrl(server.baseUrl())
+                .defaultQuery("stars:>1")
+                .defaultPerPage(PER_PAGE)
+                .defaultPage(1)
+                .retry(new GithubApiProperties.RetryProperties(0, 1))
+                .cache(GithubApiProperties.CacheProperties.builder().enabled(false).build())
+                .fetch(GithubApiProperties.FetchProperties.builder()
+                        .strategy(GithubApiProperties.FetchStrategy.EXHAUSTIVE)
+                        .maxPages(PAGES)
+                        .upstreamPerPage(upstreamPerPage)
+                        .concurrency(concurrency)
+                        .ordered(ordered)
+                        .build())
+                .rateLimit(GithubApiProperties.RateLimitProperties.builder().enabled(false).build())
+                .scheduler(GithubApiProperties.SchedulerProperties.builder().enabled(false).build())
+                .build());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        client = new GitRepositoryClientImpl(WebClient.builder().build(), properties,
+                new ConditionalRequestStore(properties, meterRegistry),
+                new UpstreamPageCache(properties, meterRegistry),
+                new SearchPageDecoder(Jackson2ObjectMapperBuilder.json().build()),
+                new SearchQueryPlanner(properties, meterRegistry),
+                new NegativeQueryCache(properties, meterRegistry),
+                new AdaptiveRateLimiter(properties, meterRegistry),
+                new UpstreamRequestScheduler(properties, meterRegistry),
+                new RequestHedger(properties, meterRegistry),
+                new UpstreamRetryPolicy(properties, meterRegistry));
+        allPages = SearchRequest.builder().language("java").build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%nconcurrency=%d ordered=%s upstreamPerPage=%d: %d upstream requests, peak %d in flight%n",
+                concurrency, ordered, upstreamPerPage, server.requests(), server.peakInFlight());
+        server.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public GitRepositoryPaginatedResponse searchLatency() {
+        return client.fetchRepositories(allPages).block();
+    }
+
+    @Benchmark
+    @Threads(16)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public GitRepositoryPaginatedResponse searchThroughput() {
+        return client.fetchRepositories(allPages).block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PageFanOutBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
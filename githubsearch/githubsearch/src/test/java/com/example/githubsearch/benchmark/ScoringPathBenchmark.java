@@ -0,0 +1,112 @@
+package com.example.githubsearch.benchmark;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.service.impl.helper.PopularityScoreCalculator;
+import com.example.githubsearch.service.impl.scoring.PopularityScoringExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Inline versus chunked-parallel popularity scoring in {@link PopularityScoringExecutor},
+ * across batch sizes from one search page to far beyond GitHub's 1000-result cap, with the
+ * former per-item {@code parallel().runOn(...)} pipeline as a reference.
+ * <p>
+ * The crossover batch size, where the parallel path starts to beat inline scoring, is what
+ * {@code github.api.scoring.parallel-threshold} should be set to; it depends on the number
+ * of cores, so rerun this on the deployment hardware before changing the default.
+ * <p>
+ * Run {@link #main} from the IDE, or {@code org.openjdk.jmh.Main ScoringPathBenchmark} on
+ * the test classpath.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScoringPathBenchmark {
+
+    @Param({"30", "300", "1000", "10000", "100000"})
+    public int items;
+
+    @Param({"1024"})
+    public int chunkSize;
+
+    private List<GitRepositoryItems> batch;
+    private PopularityScoringExecutor inline;
+    private PopularityScoringExecutor parallel;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        batch = IntStream.range(0, items)
+                .mapToObj(i -> GitRepositoryItems.builder()
+                        .id(i)
+                        .name("repo-" + i)
+                        .stargazerCount(i * 31 % 100_000)
+                        .forksCount(i * 7 % 10_000)
+                        .updatedAt(now.minusSeconds(i * 3_600L))
+                        .build())
+                .toList();
+        inline = executor(Integer.MAX_VALUE);
+        parallel = executor(0);
+    }
+
+    private PopularityScoringExecutor executor(int parallelThreshold) {
+        return new PopularityScoringExecutor(new GithubApiProperties("token", GithubApiProperties.Api.builder()
+                .scoring(GithubApiProperties.ScoringProperties.builder()
+                        .parallelThreshold(parallelThreshold)
+                        .chunkSize(chunkSize)
+                        .build())
+                .build()), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public List<GitRepositoryItems> inline() {
+        return inline.score(batch).block();
+    }
+
+    @Benchmark
+    public List<GitRepositoryItems> chunkedParallel() {
+        return parallel.score(batch).block();
+    }
+
+    @Benchmark
+    public List<GitRepositoryItems> perItemParallelRails() {
+        return Flux.fromIterable(batch)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .map(PopularityScoreCalculator::calculateScore)
+                .sequential()
+                .collectList()
+                .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ScoringPathBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
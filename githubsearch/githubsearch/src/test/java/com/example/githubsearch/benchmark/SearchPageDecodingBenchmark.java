@@ -0,0 +1,86 @@
+package com.example.githubsearch.benchmark;
+
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.service.impl.codec.SearchPageDecoder;
+import com.example.githubsearch.support.GitHubSearchFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of decoding one GitHub search page with full item payloads (owner object, URL
+ * templates, license, topics).
+ * <p>
+ * {@code beanDeserializer} is Jackson's default bean binding, as used by {@code bodyToMono};
+ * {@code streamingDecoder} is the production path, {@link SearchPageDecoder} fed 8 KB
+ * buffers: it binds only the fields the model keeps, straight from the non-blocking token
+ * stream, so most of its time is Jackson's non-blocking tokenizer rather than binding.
+ * <p>
+ * Run {@link #main} from the IDE, or {@code org.openjdk.jmh.Main SearchPageDecodingBenchmark}
+ * on the test classpath.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchPageDecodingBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"30", "100"})
+    public int items;
+
+    private byte[] page;
+    private ObjectMapper beanMapper;
+    private SearchPageDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        page = GitHubSearchFixtures.searchPageJson(100_000, items).getBytes(StandardCharsets.UTF_8);
+        beanMapper = Jackson2ObjectMapperBuilder.json().build();
+        decoder = new SearchPageDecoder(beanMapper);
+    }
+
+    @Benchmark
+    public GitRepositoryPaginatedResponse beanDeserializer() throws IOException {
+        return beanMapper.readValue(page, GitRepositoryPaginatedResponse.class);
+    }
+
+    @Benchmark
+    public GitRepositoryPaginatedResponse streamingDecoder() {
+        Flux<DataBuffer> body = Flux.range(0, (page.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(page,
+                        chunk * CHUNK_SIZE, Math.min(CHUNK_SIZE, page.length - chunk * CHUNK_SIZE))));
+        return decoder.decode(body).block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchPageDecodingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -26,10 +26,20 @@ class ConfigurationClassesTest {
         assertEquals(30, api.getDefaultPerPage());
         assertEquals(1, api.getDefaultPage());
         assertEquals(retry, api.getRetry());
+        assertTrue(api.getCache().isEnabled());
+        assertEquals(10_000, api.getCache().getMaximumSize());
+        assertEquals(java.time.Duration.ofMinutes(5), api.getCache().getTtl());
+        assertEquals(GithubApiProperties.FetchStrategy.ADAPTIVE, api.getFetch().getStrategy());
+        assertEquals(10, api.getFetch().getMaxPages());
 
         GithubApiProperties props = new GithubApiProperties("token123", api);
         assertEquals("token123", props.getToken());
         assertEquals(api, props.getApi());
+        assertEquals(java.util.List.of("token123"), props.getTokens());
+
+        GithubApiProperties pool = new GithubApiProperties("token123", java.util.List.of(" a ", "b", "", "a"), api);
+        assertEquals(java.util.List.of("a", "b"), pool.getTokens());
+        assertTrue(new GithubApiProperties(null, api).getTokens().isEmpty());
     }
 
     /**
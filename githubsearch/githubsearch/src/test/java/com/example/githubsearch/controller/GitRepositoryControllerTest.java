@@ -1,25 +1,38 @@
 
 package com.example.githubsearch.controller;
 
+import com.example.githubsearch.config.GithubApiProperties;
 import com.example.githubsearch.dto.GitRepositoryPaginatedResponseDto;
 import com.example.githubsearch.dto.SearchRequestDto;
+import com.example.githubsearch.dto.SearchStreamEventDto;
 import com.example.githubsearch.mapper.GitRepositoryMapper;
 import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.model.GitRepositoryItems;
 import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.model.SearchStreamEvent;
+import com.example.githubsearch.model.SearchStreamSummary;
 import com.example.githubsearch.service.GitRepositoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -34,7 +47,6 @@ public class GitRepositoryControllerTest {
     @Mock
     private GitRepositoryMapper gitRepositoryMapper;
 
-    @InjectMocks
     private GitRepositoryController gitRepositoryController;
 
     private WebTestClient webTestClient;
@@ -42,6 +54,9 @@ public class GitRepositoryControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        gitRepositoryController = new GitRepositoryController(gitRepositoryService, gitRepositoryMapper,
+                new SearchResponseCache(new GithubApiProperties("token", GithubApiProperties.Api.builder().build()),
+                        Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry()));
         webTestClient = WebTestClient.bindToController(gitRepositoryController).build();
     }
 
@@ -147,4 +162,174 @@ public class GitRepositoryControllerTest {
                 .exchange()
                 .expectStatus().isBadRequest();
     }
+
+    @Test
+    @DisplayName("POST /api/gitrepo/search with a limit above 1000 returns 400 Bad Request")
+    void testSearchRepositoriesLimitTooLargeReturnsBadRequest() {
+        SearchRequestDto requestDto = SearchRequestDto.builder()
+                .language("Java")
+                .sortBy(SearchRequestDto.SortKey.STARS)
+                .limit(1001)
+                .build();
+
+        webTestClient.post()
+                .uri("/api/gitrepo/search")
+                .bodyValue(requestDto)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private void stubStream() {
+        when(gitRepositoryMapper.toInternal(any(SearchRequestDto.class)))
+                .thenReturn(SearchRequest.builder().language("Java").build());
+        when(gitRepositoryService.streamRepositories(any(SearchRequest.class))).thenReturn(Flux.just(
+                SearchStreamEvent.item(GitRepositoryItems.builder().id(1L).name("repo1").build()),
+                SearchStreamEvent.item(GitRepositoryItems.builder().id(2L).name("repo2").build()),
+                SearchStreamEvent.summary(SearchStreamSummary.builder()
+                        .totalCount(40).itemCount(2).pageCount(1).build())));
+        when(gitRepositoryMapper.toDto(any(SearchStreamEvent.class)))
+                .thenAnswer(invocation -> GitRepositoryMapper.INSTANCE.toDto(invocation.<SearchStreamEvent>getArgument(0)));
+    }
+
+    @Test
+    @DisplayName("The deadline header becomes the search's time budget")
+    void testDeadlineHeaderSetsTimeBudget() {
+        when(gitRepositoryMapper.toInternal(any(SearchRequestDto.class)))
+                .thenReturn(SearchRequest.builder().language("Java").build());
+        when(gitRepositoryService.searchRepositories(any(SearchRequest.class)))
+                .thenReturn(Mono.just(GitRepositoryPaginatedResponse.builder().items(Collections.emptyList()).build()));
+        when(gitRepositoryMapper.toDto(any(GitRepositoryPaginatedResponse.class)))
+                .thenReturn(GitRepositoryPaginatedResponseDto.builder().items(Collections.emptyList()).build());
+
+        webTestClient.post()
+                .uri("/api/gitrepo/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(GitRepositoryController.DEADLINE_HEADER, "1500")
+                .bodyValue("{\"language\":\"Java\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(gitRepositoryService).searchRepositories(SearchRequest.builder()
+                .language("Java")
+                .timeBudget(Duration.ofMillis(1500))
+                .build());
+    }
+
+    @Test
+    @DisplayName("A non-positive deadline header returns 400 Bad Request")
+    void testNonPositiveDeadlineHeaderReturnsBadRequest() {
+        webTestClient.post()
+                .uri("/api/gitrepo/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(GitRepositoryController.DEADLINE_HEADER, "0")
+                .bodyValue("{\"language\":\"Java\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(gitRepositoryService);
+    }
+
+    @Test
+    @DisplayName("Streaming search writes items then a summary as NDJSON")
+    void testStreamingSearchReturnsNdjson() {
+        stubStream();
+
+        List<SearchStreamEventDto> events = webTestClient.post()
+                .uri("/api/gitrepo/search/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"language\":\"Java\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(SearchStreamEventDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(3, events.size());
+        assertEquals(SearchStreamEventDto.Type.ITEM, events.get(0).getType());
+        assertEquals(1L, events.get(0).getItem().getId());
+        assertEquals(SearchStreamEventDto.Type.SUMMARY, events.get(2).getType());
+        assertEquals(2, events.get(2).getSummary().getItemCount());
+        assertEquals(40, events.get(2).getSummary().getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Streaming search writes named Server-Sent Events")
+    void testStreamingSearchReturnsServerSentEvents() {
+        stubStream();
+
+        String body = webTestClient.post()
+                .uri("/api/gitrepo/search/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue("{\"language\":\"Java\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(2, body.split("event:item", -1).length - 1);
+        assertEquals(1, body.split("event:summary", -1).length - 1);
+    }
+
+    @Test
+    @DisplayName("A repeated search is answered with the stored JSON bytes, Content-Length and ETag")
+    void testRepeatedSearchAnsweredFromStoredBytes() {
+        SearchRequest internal = SearchRequest.builder().language("Java").build();
+        GitRepositoryPaginatedResponse paginatedResponse = GitRepositoryPaginatedResponse.builder()
+                .totalCount(1)
+                .items(Collections.emptyList())
+                .build();
+        GitRepositoryPaginatedResponseDto responseDto = GitRepositoryPaginatedResponseDto.builder()
+                .totalCount(1)
+                .items(Collections.emptyList())
+                .build();
+        when(gitRepositoryMapper.toInternal(any(SearchRequestDto.class))).thenReturn(internal);
+        when(gitRepositoryService.searchRepositories(any(SearchRequest.class)))
+                .thenReturn(Mono.just(paginatedResponse));
+        when(gitRepositoryMapper.toDto(any(GitRepositoryPaginatedResponse.class))).thenReturn(responseDto);
+
+        HttpHeaders first = search("{\"language\":\"Java\"}").getResponseHeaders();
+        HttpHeaders second = search("{\"language\":\"Java\"}").getResponseHeaders();
+
+        assertEquals(first.getETag(), second.getETag());
+        assertEquals(first.getContentLength(), second.getContentLength());
+        assertTrue(second.getETag().startsWith("\""));
+        verify(gitRepositoryService, times(1)).searchRepositories(any(SearchRequest.class));
+        verify(gitRepositoryMapper, times(1)).toDto(any(GitRepositoryPaginatedResponse.class));
+    }
+
+    @Test
+    @DisplayName("Incomplete responses are not stored")
+    void testIncompleteResponseNotStored() {
+        when(gitRepositoryMapper.toInternal(any(SearchRequestDto.class)))
+                .thenReturn(SearchRequest.builder().language("Java").build());
+        when(gitRepositoryService.searchRepositories(any(SearchRequest.class)))
+                .thenReturn(Mono.just(GitRepositoryPaginatedResponse.builder()
+                        .incompleteResults(true)
+                        .items(Collections.emptyList())
+                        .build()));
+        when(gitRepositoryMapper.toDto(any(GitRepositoryPaginatedResponse.class)))
+                .thenReturn(GitRepositoryPaginatedResponseDto.builder().incompleteResults(true).build());
+
+        search("{\"language\":\"Java\"}");
+        search("{\"language\":\"Java\"}");
+
+        verify(gitRepositoryService, times(2)).searchRepositories(any(SearchRequest.class));
+    }
+
+    private EntityExchangeResult<GitRepositoryPaginatedResponseDto> search(String body) {
+        return webTestClient.post()
+                .uri("/api/gitrepo/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(GitRepositoryPaginatedResponseDto.class)
+                .returnResult();
+    }
 }
@@ -2,6 +2,11 @@ package com.example.githubsearch.mapper;
 
 import com.example.githubsearch.model.GitRepositoryItems;
 import com.example.githubsearch.dto.RepositoryItemDto;
+import com.example.githubsearch.dto.SearchRequestDto;
+import com.example.githubsearch.dto.SearchStreamEventDto;
+import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.model.SearchStreamEvent;
+import com.example.githubsearch.model.SearchStreamSummary;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -64,4 +69,41 @@ class GitRepositoryMapperTest {
         assertNull(mapper.toDtoList(null));
         assertTrue(mapper.toDtoList(List.of()).isEmpty());
     }
+
+    /**
+     * Tests mapping streamed search events to DTOs.
+     */
+    @Test
+    @DisplayName("map: SearchStreamEvent to SearchStreamEventDto")
+    void testMapStreamEventToDto() {
+        SearchStreamEventDto item = mapper.toDto(SearchStreamEvent.item(
+                GitRepositoryItems.builder().id(5L).name("repo5").build()));
+        assertEquals(SearchStreamEventDto.Type.ITEM, item.getType());
+        assertEquals(5L, item.getItem().getId());
+        assertNull(item.getSummary());
+
+        SearchStreamEventDto summary = mapper.toDto(SearchStreamEvent.summary(SearchStreamSummary.builder()
+                .totalCount(120).itemCount(30).pageCount(3).incompleteResults(true).build()));
+        assertEquals(SearchStreamEventDto.Type.SUMMARY, summary.getType());
+        assertNull(summary.getItem());
+        assertEquals(120, summary.getSummary().getTotalCount());
+        assertEquals(30, summary.getSummary().getItemCount());
+        assertEquals(3, summary.getSummary().getPageCount());
+        assertTrue(summary.getSummary().isIncompleteResults());
+    }
+
+    /**
+     * Tests mapping the ranking parameters of a search request.
+     */
+    @Test
+    @DisplayName("map: SearchRequestDto sort key and limit to SearchRequest")
+    void testMapSortAndLimitToInternal() {
+        SearchRequest request = mapper.toInternal(SearchRequestDto.builder()
+                .language("Java")
+                .sortBy(SearchRequestDto.SortKey.UPDATED_AT)
+                .limit(25)
+                .build());
+        assertEquals(SearchRequest.SortKey.UPDATED_AT, request.getSortBy());
+        assertEquals(25, request.getLimit());
+    }
 }
@@ -0,0 +1,408 @@
+package com.example.githubsearch.service.impl;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.exception.ApiException;
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.service.GitRepositoryClient;
+import com.example.githubsearch.service.impl.cache.CompactItems;
+import com.example.githubsearch.service.impl.deadline.SearchDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CachingGitRepositoryClient}.
+ */
+class CachingGitRepositoryClientTest {
+
+    private GitRepositoryClient delegate;
+    private SimpleMeterRegistry meterRegistry;
+
+    private final GitRepositoryPaginatedResponse response = GitRepositoryPaginatedResponse.builder()
+            .totalCount(1)
+            .incompleteResults(false)
+            .hasNextPage(false)
+            .items(List.of(GitRepositoryItems.builder().id(1L).name("repo").build()))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(GitRepositoryClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private CachingGitRepositoryClient client(GithubApiProperties.CacheProperties cacheProperties) {
+        GithubApiProperties.Api api = GithubApiProperties.Api.builder()
+                .baseUrl("https://api.github.com")
+                .defaultQuery("Q")
+                .defaultPerPage(30)
+                .defaultPage(1)
+                .retry(new GithubApiProperties.RetryProperties(1, 1))
+                .cache(cacheProperties)
+                .build();
+        return new CachingGitRepositoryClient(delegate, new GithubApiProperties("token", api), meterRegistry, nanos::get);
+    }
+
+    /**
+     * A cache that keeps results fresh for a minute, answers them stale while revalidating
+     * for another minute and stale on errors for ten.
+     */
+    private CachingGitRepositoryClient staleClient() {
+        return client(GithubApiProperties.CacheProperties.builder()
+                .ttl(Duration.ofMinutes(1))
+                .staleWhileRevalidate(Duration.ofMinutes(1))
+                .staleIfError(Duration.ofMinutes(10))
+                .build());
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private double stale(String reason) {
+        return meterRegistry.get(CachingGitRepositoryClient.STALE_NAME).tag("reason", reason).counter().count();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("Repeated search is served from cache")
+    void testRepeatedSearchServedFromCache() {
+        when(delegate.fetchRepositories(any())).thenReturn(Mono.just(response));
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.defaults());
+        SearchRequest request = SearchRequest.builder().language("Java").pageNumber(1).build();
+
+        StepVerifier.create(client.fetchRepositories(request)).expectNext(response).verifyComplete();
+        StepVerifier.create(client.fetchRepositories(request)).expectNext(response).verifyComplete();
+
+        verify(delegate, times(1)).fetchRepositories(any());
+        assertEquals(1, gets("hit"));
+        assertEquals(1, gets("miss"));
+    }
+
+    @Test
+    @DisplayName("Equivalent requests share a normalized cache key")
+    void testEquivalentRequestsShareKey() {
+        when(delegate.fetchRepositories(any())).thenReturn(Mono.just(response));
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.defaults());
+        Instant created = Instant.parse("2020-01-01T00:00:00Z");
+
+        client.fetchRepositories(SearchRequest.builder().language("Java").earliestCreatedDate(created).build()).block();
+        client.fetchRepositories(SearchRequest.builder().language("  java ").earliestCreatedDate(created).build()).block();
+        client.fetchRepositories(SearchRequest.builder().language("python").earliestCreatedDate(created).build()).block();
+
+        verify(delegate, times(2)).fetchRepositories(any());
+    }
+
+    @Test
+    @DisplayName("Thresholds and ranking are part of the cache key")
+    void testThresholdsAndRankingAreKeyed() {
+        when(delegate.fetchRepositories(any())).thenReturn(Mono.just(response));
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.defaults());
+
+        client.fetchRepositories(SearchRequest.builder().language("Java").build()).block();
+        client.fetchRepositories(SearchRequest.builder().language("Java").minStars(100).build()).block();
+        client.fetchRepositories(SearchRequest.builder().language("Java").minStars(100)
+                .sortBy(SearchRequest.SortKey.STARS).limit(10).build()).block();
+        client.fetchRepositories(SearchRequest.builder().language("Java").minStars(100)
+                .sortBy(SearchRequest.SortKey.STARS).limit(10).build()).block();
+
+        verify(delegate, times(3)).fetchRepositories(any());
+    }
+
+    @Test
+    @DisplayName("Errors are not cached")
+    void testErrorsAreNotCached() {
+        when(delegate.fetchRepositories(any()))
+                .thenReturn(Mono.error(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "down")))
+                .thenReturn(Mono.just(response));
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.defaults());
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        StepVerifier.create(client.fetchRepositories(request)).expectError(ApiException.class).verify();
+        StepVerifier.create(client.fetchRepositories(request)).expectNext(response).verifyComplete();
+
+        verify(delegate, times(2)).fetchRepositories(any());
+    }
+
+    @Test
+    @DisplayName("Results cut short by a deadline are not cached")
+    void testIncompleteResultsAreNotCached() {
+        GitRepositoryPaginatedResponse partial = response.toBuilder().incompleteResults(true).build();
+        when(delegate.fetchRepositories(any()))
+                .thenReturn(Mono.just(partial))
+                .thenReturn(Mono.just(response));
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.defaults());
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        StepVerifier.create(client.fetchRepositories(request)).expectNext(partial).verifyComplete();
+        StepVerifier.create(client.fetchRepositories(request)).expectNext(response).verifyComplete();
+        StepVerifier.create(client.fetchRepositories(request)).expectNext(response).verifyComplete();
+
+        verify(delegate, times(2)).fetchRepositories(any());
+    }
+
+    @Test
+    @DisplayName("The shared fetch sees the subscriber context of the caller that started it")
+    void testFetchKeepsSubscriberContext() {
+        when(delegate.fetchRepositories(any())).thenReturn(Mono.deferContextual(context ->
+                Mono.just(response.toBuilder().totalCount(context.getOrDefault("marker", 0)).build())));
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.defaults());
+
+        StepVerifier.create(client.fetchRepositories(SearchRequest.builder().build())
+                        .contextWrite(context -> context.put("marker", 42)))
+                .assertNext(result -> assertEquals(42, result.getTotalCount()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("A caller joining a shared fetch with a shorter budget answers by its own deadline")
+    void testJoinerWithShorterBudget() {
+        Sinks.One<GitRepositoryPaginatedResponse> upstream = Sinks.one();
+        when(delegate.fetchRepositories(any())).thenReturn(upstream.asMono());
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.defaults());
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        Mono<GitRepositoryPaginatedResponse> leader = client.fetchRepositories(request)
+                .contextWrite(SearchDeadline.after(Duration.ofSeconds(10)).asContext())
+                .cache();
+        leader.subscribe();
+        StepVerifier.create(client.fetchRepositories(request)
+                        .contextWrite(SearchDeadline.after(Duration.ofMillis(100)).asContext()))
+                .assertNext(result -> {
+                    assertTrue(result.isIncompleteResults());
+                    assertTrue(result.getItems().isEmpty());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        upstream.tryEmitValue(response);
+        StepVerifier.create(leader).expectNext(response).verifyComplete();
+        verify(delegate, times(1)).fetchRepositories(any());
+    }
+
+    @Test
+    @DisplayName("A caller joining a shared fetch cut short by the starter's deadline fetches again with its own")
+    void testJoinerWithLongerBudget() {
+        Sinks.One<GitRepositoryPaginatedResponse> upstream = Sinks.one();
+        GitRepositoryPaginatedResponse cutShort = response.toBuilder().incompleteResults(true).items(List.of()).build();
+        when(delegate.fetchRepositories(any()))
+                .thenReturn(upstream.asMono())
+                .thenReturn(Mono.just(response));
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.defaults());
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        Mono<GitRepositoryPaginatedResponse> leader = client.fetchRepositories(request)
+                .contextWrite(SearchDeadline.after(Duration.ofMillis(200)).asContext())
+                .cache();
+        leader.subscribe();
+        Mono<GitRepositoryPaginatedResponse> joiner = client.fetchRepositories(request)
+                .contextWrite(SearchDeadline.after(Duration.ofSeconds(30)).asContext())
+                .cache();
+        joiner.subscribe();
+        upstream.tryEmitValue(cutShort);
+
+        StepVerifier.create(leader).expectNext(cutShort).verifyComplete();
+        StepVerifier.create(joiner).expectNext(response).expectComplete().verify(Duration.ofSeconds(5));
+        verify(delegate, times(2)).fetchRepositories(any());
+    }
+
+    @Test
+    @DisplayName("Disabled cache always delegates")
+    void testDisabledCacheDelegates() {
+        when(delegate.fetchRepositories(any())).thenReturn(Mono.just(response));
+        CachingGitRepositoryClient client = client(
+                GithubApiProperties.CacheProperties.builder().enabled(false).ttl(Duration.ofMinutes(1)).build());
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        client.fetchRepositories(request).block();
+        client.fetchRepositories(request).block();
+
+        verify(delegate, times(2)).fetchRepositories(any());
+    }
+
+    @Test
+    @DisplayName("Concurrent identical misses share one upstream fetch")
+    void testConcurrentMissesAreCoalesced() {
+        Sinks.One<GitRepositoryPaginatedResponse> upstream = Sinks.one();
+        when(delegate.fetchRepositories(any())).thenReturn(upstream.asMono());
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.defaults());
+
+        Mono<List<GitRepositoryPaginatedResponse>> results = Flux.range(0, 25)
+                .flatMap(i -> client.fetchRepositories(
+                        SearchRequest.builder().language(i % 2 == 0 ? "Java" : "java").build()))
+                .collectList();
+
+        StepVerifier.create(results)
+                .then(() -> upstream.tryEmitValue(response))
+                .expectNextMatches(list -> list.size() == 25 && list.stream().allMatch(response::equals))
+                .verifyComplete();
+
+        verify(delegate, times(1)).fetchRepositories(any());
+        assertEquals(24, meterRegistry.get("github.search.coalesced").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Page streams bypass the assembled-result cache")
+    void testFetchPagesDelegates() {
+        when(delegate.fetchRepositories(any())).thenReturn(Mono.just(response));
+        when(delegate.fetchPages(any())).thenReturn(Flux.just(response));
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.defaults());
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        client.fetchRepositories(request).block();
+        StepVerifier.create(client.fetchPages(request)).expectNext(response).verifyComplete();
+
+        verify(delegate, times(1)).fetchPages(any());
+    }
+
+    @Test
+    @DisplayName("An expired result is answered stale at once while one background refresh replaces it")
+    void testStaleWhileRevalidate() {
+        GitRepositoryPaginatedResponse refreshed = response.toBuilder().totalCount(2).build();
+        Sinks.One<GitRepositoryPaginatedResponse> refresh = Sinks.one();
+        when(delegate.fetchRepositories(any()))
+                .thenReturn(Mono.just(response))
+                .thenReturn(refresh.asMono());
+        CachingGitRepositoryClient client = staleClient();
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        client.fetchRepositories(request).block();
+        advance(Duration.ofSeconds(90));
+        StepVerifier.create(client.fetchRepositories(request))
+                .assertNext(result -> {
+                    assertTrue(result.isStale());
+                    assertEquals(1, result.getTotalCount());
+                })
+                .verifyComplete();
+        StepVerifier.create(client.fetchRepositories(request))
+                .assertNext(result -> assertTrue(result.isStale()))
+                .verifyComplete();
+        verify(delegate, times(2)).fetchRepositories(any());
+
+        refresh.tryEmitValue(refreshed);
+        StepVerifier.create(client.fetchRepositories(request))
+                .assertNext(result -> {
+                    assertFalse(result.isStale());
+                    assertEquals(2, result.getTotalCount());
+                })
+                .verifyComplete();
+        verify(delegate, times(2)).fetchRepositories(any());
+        assertEquals(2.0, stale("revalidate"));
+        assertEquals(3.0, gets("hit"));
+    }
+
+    @Test
+    @DisplayName("An expired result is answered stale when GitHub fails, within the grace period only")
+    void testStaleIfError() {
+        when(delegate.fetchRepositories(any()))
+                .thenReturn(Mono.just(response))
+                .thenReturn(Mono.error(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "down")))
+                .thenReturn(Mono.error(new ApiException(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded")))
+                .thenReturn(Mono.error(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "down")));
+        CachingGitRepositoryClient client = staleClient();
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        client.fetchRepositories(request).block();
+        advance(Duration.ofMinutes(5));
+        StepVerifier.create(client.fetchRepositories(request))
+                .assertNext(result -> assertTrue(result.isStale()))
+                .verifyComplete();
+        StepVerifier.create(client.fetchRepositories(request))
+                .assertNext(result -> assertTrue(result.isStale()))
+                .verifyComplete();
+        assertEquals(2.0, stale("error"));
+
+        advance(Duration.ofMinutes(6));
+        StepVerifier.create(client.fetchRepositories(request))
+                .expectError(ApiException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Requests GitHub rejects are not answered from stale results")
+    void testRejectedRequestIsNotAnsweredStale() {
+        when(delegate.fetchRepositories(any()))
+                .thenReturn(Mono.just(response))
+                .thenReturn(Mono.error(new ApiException(HttpStatus.UNPROCESSABLE_ENTITY, "Validation failed")));
+        CachingGitRepositoryClient client = staleClient();
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        client.fetchRepositories(request).block();
+        advance(Duration.ofMinutes(5));
+        StepVerifier.create(client.fetchRepositories(request))
+                .expectError(ApiException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Transport errors are answered from stale results, failures of this application are not")
+    void testOnlyUpstreamFailuresAreAnsweredStale() {
+        when(delegate.fetchRepositories(any()))
+                .thenReturn(Mono.just(response))
+                .thenReturn(Mono.error(new WebClientRequestException(new IOException("Connection reset"),
+                        HttpMethod.GET, URI.create("https://api.github.com/search/repositories"), new HttpHeaders())))
+                .thenReturn(Mono.error(new DecodingException("Unexpected end of input")));
+        CachingGitRepositoryClient client = staleClient();
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        client.fetchRepositories(request).block();
+        advance(Duration.ofMinutes(5));
+        StepVerifier.create(client.fetchRepositories(request))
+                .assertNext(result -> assertTrue(result.isStale()))
+                .verifyComplete();
+        StepVerifier.create(client.fetchRepositories(request))
+                .expectError(DecodingException.class)
+                .verify();
+        assertEquals(1.0, stale("error"));
+    }
+
+    @Test
+    @DisplayName("Off-heap results are answered equal to what was fetched and their memory is reported")
+    void testOffHeapResults() {
+        GitRepositoryPaginatedResponse fetched = response.toBuilder().items(List.of(
+                GitRepositoryItems.builder().id(1L).name("repo").language("Java").stargazerCount(5)
+                        .createdAt(Instant.parse("2020-01-01T00:00:00Z")).build(),
+                GitRepositoryItems.builder().id(2L).name("other").language("Java").build())).build();
+        when(delegate.fetchRepositories(any())).thenReturn(Mono.just(fetched));
+        CachingGitRepositoryClient client = client(GithubApiProperties.CacheProperties.builder().offHeap(true).build());
+        SearchRequest request = SearchRequest.builder().language("Java").build();
+
+        client.fetchRepositories(request).block();
+        GitRepositoryPaginatedResponse cached = client.fetchRepositories(request).block();
+
+        assertInstanceOf(CompactItems.class, cached.getItems());
+        assertEquals(fetched, cached);
+        verify(delegate, times(1)).fetchRepositories(any());
+        assertEquals(((CompactItems) cached.getItems()).sizeInBytes(),
+                meterRegistry.get(CachingGitRepositoryClient.OFF_HEAP_BYTES_NAME).gauge().value());
+        assertEquals(1, meterRegistry.get(CachingGitRepositoryClient.OFF_HEAP_LANGUAGES_NAME).gauge().value());
+    }
+}
@@ -5,61 +5,211 @@ import com.example.githubsearch.exception.ApiException;
 import com.example.githubsearch.model.GitRepositoryItems;
 import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
 import com.example.githubsearch.model.SearchRequest;
-import io.github.resilience4j.ratelimiter.RequestNotPermitted;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
+import com.example.githubsearch.service.impl.cache.ConditionalRequestStore;
+import com.example.githubsearch.service.impl.cache.NegativeQueryCache;
+import com.example.githubsearch.service.impl.cache.UpstreamPageCache;
+import com.example.githubsearch.service.impl.codec.SearchPageDecoder;
+import com.example.githubsearch.service.impl.deadline.SearchDeadline;
+import com.example.githubsearch.service.impl.hedging.RequestHedger;
+import com.example.githubsearch.service.impl.query.SearchQueryPlanner;
+import com.example.githubsearch.service.impl.ratelimit.AdaptiveRateLimiter;
+import com.example.githubsearch.service.impl.retry.UpstreamRetryPolicy;
+import com.example.githubsearch.service.impl.scheduling.RequestPriority;
+import com.example.githubsearch.service.impl.scheduling.UpstreamRequestScheduler;
+import com.example.githubsearch.support.StubGitHubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
-import java.util.function.Function;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.LongStream;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for {@link GitRepositoryClientImpl}.
  */
 class GitRepositoryClientImplTest {
-        @Mock
-        private WebClient webClient;
+        private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
 
-        @Mock
         private GithubApiProperties githubApiProperties;
-
-        @Mock
         private GithubApiProperties.Api apiProps;
-
-        @InjectMocks
         private GitRepositoryClientImpl client;
+        private SimpleMeterRegistry meterRegistry;
 
-        @SuppressWarnings("rawtypes")
-        private WebClient.RequestHeadersUriSpec uriSpec;
-        @SuppressWarnings("rawtypes")
-        private WebClient.RequestHeadersSpec headersSpec;
+        /** Requests seen by the stubbed exchange function, in order. */
+        private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
 
         @BeforeEach
         void setUp() {
-                MockitoAnnotations.openMocks(this);
+                githubApiProperties = mock(GithubApiProperties.class);
+                apiProps = mock(GithubApiProperties.Api.class);
                 when(githubApiProperties.getApi()).thenReturn(apiProps);
                 when(apiProps.getBaseUrl()).thenReturn("https://api.github.com");
                 when(apiProps.getDefaultQuery()).thenReturn("Q");
                 when(apiProps.getDefaultPage()).thenReturn(1);
                 when(apiProps.getDefaultPerPage()).thenReturn(10);
                 when(apiProps.getRetry()).thenReturn(new GithubApiProperties.RetryProperties(1, 1));
-                uriSpec = mock(WebClient.RequestHeadersUriSpec.class);
-                headersSpec = mock(WebClient.RequestHeadersSpec.class);
+                when(apiProps.getCache()).thenReturn(GithubApiProperties.CacheProperties.defaults());
+                // Upstream pages match the client page size unless a test says otherwise.
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.builder()
+                                .upstreamPerPage(10)
+                                .build());
+                // Pacing is exercised by the rate-limit tests only.
+                when(apiProps.getRateLimit()).thenReturn(GithubApiProperties.RateLimitProperties.builder()
+                                .enabled(false)
+                                .build());
+                when(apiProps.getScheduler()).thenReturn(GithubApiProperties.SchedulerProperties.defaults());
+                when(apiProps.getHedging()).thenReturn(GithubApiProperties.HedgingProperties.defaults());
+        }
+
+        /**
+         * Builds the client under test on top of a WebClient whose exchanges are answered by
+         * the given function instead of the network.
+         */
+        private void respondWith(ExchangeFunction exchangeFunction) {
+                WebClient webClient = WebClient.builder()
+                                .exchangeFunction(request -> {
+                                        requests.add(request);
+                                        return exchangeFunction.exchange(request);
+                                })
+                                .build();
+                meterRegistry = new SimpleMeterRegistry();
+                client = new GitRepositoryClientImpl(webClient, githubApiProperties,
+                                new ConditionalRequestStore(githubApiProperties, meterRegistry),
+                                new UpstreamPageCache(githubApiProperties, meterRegistry),
+                                new SearchPageDecoder(Jackson2ObjectMapperBuilder.json().build()),
+                                new SearchQueryPlanner(githubApiProperties, meterRegistry),
+                                new NegativeQueryCache(githubApiProperties, meterRegistry),
+                                new AdaptiveRateLimiter(githubApiProperties, meterRegistry),
+                                new UpstreamRequestScheduler(githubApiProperties, meterRegistry),
+                                new RequestHedger(githubApiProperties, meterRegistry),
+                                new UpstreamRetryPolicy(githubApiProperties, meterRegistry));
+        }
+
+        /**
+         * Builds the client under test against a real server.
+         */
+        private void connectTo(StubGitHubServer server) {
+                when(apiProps.getBaseUrl()).thenReturn(server.baseUrl());
+                meterRegistry = new SimpleMeterRegistry();
+                client = new GitRepositoryClientImpl(WebClient.builder().build(), githubApiProperties,
+                                new ConditionalRequestStore(githubApiProperties, meterRegistry),
+                                new UpstreamPageCache(githubApiProperties, meterRegistry),
+                                new SearchPageDecoder(Jackson2ObjectMapperBuilder.json().build()),
+                                new SearchQueryPlanner(githubApiProperties, meterRegistry),
+                                new NegativeQueryCache(githubApiProperties, meterRegistry),
+                                new AdaptiveRateLimiter(githubApiProperties, meterRegistry),
+                                new UpstreamRequestScheduler(githubApiProperties, meterRegistry),
+                                new RequestHedger(githubApiProperties, meterRegistry),
+                                new UpstreamRetryPolicy(githubApiProperties, meterRegistry));
+        }
+
+        private static ClientResponse jsonResponse(HttpStatus status, Object body) {
+                try {
+                        return ClientResponse.create(status)
+                                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                        .body(OBJECT_MAPPER.writeValueAsString(body))
+                                        .build();
+                } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                }
+        }
+
+        private static ClientResponse textResponse(HttpStatus status, String body) {
+                return ClientResponse.create(status)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                                .body(body)
+                                .build();
+        }
+
+        private static int requestedPage(ClientRequest request) {
+                return Integer.parseInt(request.url().getQuery().replaceAll(".*(?:^|&)page=(\\d+).*", "$1"));
+        }
+
+        private static int requestedPerPage(ClientRequest request) {
+                return Integer.parseInt(request.url().getQuery().replaceAll(".*(?:^|&)per_page=(\\d+).*", "$1"));
+        }
+
+        /**
+         * Page {@code page} of a result set holding {@code totalCount} repositories, ten per page.
+         */
+        private static ClientResponse searchPage(int page, int totalCount) {
+                return searchPage(page, 10, totalCount);
+        }
+
+        /**
+         * Page {@code page} of a result set holding {@code totalCount} repositories,
+         * {@code perPage} per page; repository ids are their zero-based position.
+         */
+        private static ClientResponse searchPage(int page, int perPage, int totalCount) {
+                int size = Math.max(0, Math.min(perPage, totalCount - (page - 1) * perPage));
+                List<GitRepositoryItems> items = IntStream.range(0, size)
+                                .mapToObj(i -> GitRepositoryItems.builder()
+                                                .id((long) (page - 1) * perPage + i)
+                                                .name("repo-" + page + "-" + i)
+                                                .build())
+                                .toList();
+                return jsonResponse(HttpStatus.OK, GitRepositoryPaginatedResponse.builder()
+                                .totalCount(totalCount)
+                                .items(items)
+                                .build());
+        }
+
+        @Test
+        @DisplayName("A background fetch through the page cache is queued in the background lane")
+        void testPageCacheKeepsRequestPriority() {
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 5)));
+
+                StepVerifier.create(client.fetchRepositories(SearchRequest.builder().language("Java").pageNumber(1).build())
+                                                .contextWrite(RequestPriority.BACKGROUND.asContext()))
+                                .expectNextCount(1)
+                                .verifyComplete();
+
+                assertEquals(1, meterRegistry.get("github.upstream.queue.wait").tag("lane", "background").timer().count());
+                assertEquals(0, meterRegistry.get("github.upstream.queue.wait").tag("lane", "interactive").timer().count());
+        }
+
+        @Test
+        @DisplayName("An interactive fetch does not join a background fetch of the same page")
+        void testPageCacheDoesNotShareAcrossLanes() {
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 5))
+                                .delayElement(Duration.ofMillis(200)));
+                SearchRequest request = SearchRequest.builder().language("Java").pageNumber(1).build();
+
+                Mono<GitRepositoryPaginatedResponse> background = client.fetchRepositories(request)
+                                .contextWrite(RequestPriority.BACKGROUND.asContext())
+                                .cache();
+                background.subscribe();
+                StepVerifier.create(client.fetchRepositories(request))
+                                .expectNextCount(1)
+                                .verifyComplete();
+                StepVerifier.create(background).expectNextCount(1).verifyComplete();
+
+                assertEquals(1, meterRegistry.get("github.upstream.queue.wait").tag("lane", "background").timer().count());
+                assertEquals(1, meterRegistry.get("github.upstream.queue.wait").tag("lane", "interactive").timer().count());
         }
 
         @Test
@@ -87,20 +237,7 @@ class GitRepositoryClientImplTest {
                                                                 .build()))
                                 .build();
 
-                when(webClient.get()).thenReturn(uriSpec);
-                when(((WebClient.RequestHeadersUriSpec) uriSpec).uri(anyString())).thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).header(eq(HttpHeaders.ACCEPT), anyString()))
-                                .thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).exchangeToMono(any())).thenAnswer(invocation -> {
-                        @SuppressWarnings("unchecked")
-                        Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>> handler = (Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>>) invocation
-                                        .getArgument(0);
-                        ClientResponse clientResponse = mock(ClientResponse.class);
-                        when(clientResponse.statusCode()).thenReturn(HttpStatus.OK);
-                        when(clientResponse.bodyToMono(eq(GitRepositoryPaginatedResponse.class)))
-                                        .thenReturn(Mono.just(response));
-                        return handler.apply(clientResponse);
-                });
+                respondWith(clientRequest -> Mono.just(jsonResponse(HttpStatus.OK, response)));
 
                 StepVerifier.create(client.fetchRepositories(request))
                                 .expectNextMatches(r -> r.getTotalCount() == 1 && r.getItems().size() == 1
@@ -113,20 +250,7 @@ class GitRepositoryClientImplTest {
         void testFetchRepositoriesNotModified() {
                 SearchRequest request = SearchRequest.builder().build();
 
-                when(webClient.get()).thenReturn(uriSpec);
-                when(((WebClient.RequestHeadersUriSpec) uriSpec).uri(anyString())).thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).header(eq(HttpHeaders.ACCEPT), anyString()))
-                                .thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).exchangeToMono(any())).thenAnswer(invocation -> {
-                        @SuppressWarnings("unchecked")
-                        Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>> handler = (Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>>) invocation
-                                        .getArgument(0);
-                        ClientResponse clientResponse = mock(ClientResponse.class);
-                        when(clientResponse.statusCode()).thenReturn(HttpStatus.NOT_MODIFIED);
-                        when(clientResponse.bodyToMono(eq(GitRepositoryPaginatedResponse.class)))
-                                        .thenReturn(Mono.empty());
-                        return handler.apply(clientResponse);
-                });
+                respondWith(clientRequest -> Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build()));
                 StepVerifier.create(client.fetchRepositories(request))
                                 .expectNextMatches(r -> r.getTotalCount() == 0 && r.getItems() != null
                                                 && r.getItems().isEmpty())
@@ -138,43 +262,68 @@ class GitRepositoryClientImplTest {
         void testFetchRepositoriesValidationError() {
                 SearchRequest request = SearchRequest.builder().build();
 
-                when(webClient.get()).thenReturn(uriSpec);
-                when(((WebClient.RequestHeadersUriSpec) uriSpec).uri(anyString())).thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).header(eq(HttpHeaders.ACCEPT), anyString()))
-                                .thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).exchangeToMono(any())).thenAnswer(invocation -> {
-                        @SuppressWarnings("unchecked")
-                        Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>> handler = (Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>>) invocation
-                                        .getArgument(0);
-                        ClientResponse clientResponse = mock(ClientResponse.class);
-                        when(clientResponse.statusCode()).thenReturn(HttpStatus.UNPROCESSABLE_ENTITY);
-                        when(clientResponse.bodyToMono(eq(String.class))).thenReturn(Mono.just("validation error"));
-                        return handler.apply(clientResponse);
-                });
+                respondWith(clientRequest -> Mono.just(textResponse(HttpStatus.UNPROCESSABLE_ENTITY, "validation error")));
                 StepVerifier.create(client.fetchRepositories(request))
                                 .expectErrorMatches(e -> e instanceof ApiException
                                                 && e.getMessage().toLowerCase().contains("validation"))
                                 .verify();
         }
 
+        @Test
+        @DisplayName("A query GitHub rejected is rejected again locally for every page and sort order")
+        void testRejectedQueryIsAnsweredLocally() {
+                when(apiProps.getRateLimit()).thenReturn(GithubApiProperties.RateLimitProperties.builder()
+                                .initialLimit(1)
+                                .burst(1)
+                                .maxWait(Duration.ZERO)
+                                .build());
+                respondWith(clientRequest -> Mono.just(textResponse(HttpStatus.UNPROCESSABLE_ENTITY, "bad qualifier")));
+
+                StepVerifier.create(client.fetchRepositories(SearchRequest.builder().language("Nope").build()))
+                                .expectErrorMatches(e -> e instanceof ApiException
+                                                && ((ApiException) e).getStatus() == HttpStatus.UNPROCESSABLE_ENTITY)
+                                .verify();
+                StepVerifier.create(client.fetchPages(SearchRequest.builder()
+                                                .language("nope")
+                                                .pageNumber(2)
+                                                .sortBy(SearchRequest.SortKey.STARS)
+                                                .build()))
+                                .expectErrorMatches(e -> e instanceof ApiException
+                                                && ((ApiException) e).getStatus() == HttpStatus.UNPROCESSABLE_ENTITY
+                                                && e.getMessage().contains("bad qualifier"))
+                                .verify();
+                // The rate limiter holds a single permit; the repeat took none.
+                assertEquals(1, requests.size());
+        }
+
+        @Test
+        @DisplayName("A query that matched nothing is answered locally until the entry expires")
+        void testEmptyQueryIsAnsweredLocally() {
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.builder()
+                                .strategy(GithubApiProperties.FetchStrategy.EXHAUSTIVE)
+                                .upstreamPerPage(10)
+                                .build());
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 0)));
+
+                StepVerifier.create(client.fetchRepositories(SearchRequest.builder().language("Java").build()))
+                                .assertNext(response -> assertEquals(0, response.getTotalCount()))
+                                .verifyComplete();
+                int fanOut = requests.size();
+                assertTrue(fanOut > 1);
+                StepVerifier.create(client.fetchRepositories(SearchRequest.builder().language("java").build()))
+                                .assertNext(response -> assertTrue(response.getItems().isEmpty()))
+                                .verifyComplete();
+                StepVerifier.create(client.fetchPages(SearchRequest.builder().language("Java").limit(5).build()))
+                                .verifyComplete();
+                assertEquals(fanOut, requests.size());
+        }
+
         @Test
         @DisplayName("503 Service Unavailable returns ApiException")
         void testFetchRepositoriesServiceUnavailable() {
                 SearchRequest request = SearchRequest.builder().build();
 
-                when(webClient.get()).thenReturn(uriSpec);
-                when(((WebClient.RequestHeadersUriSpec) uriSpec).uri(anyString())).thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).header(eq(HttpHeaders.ACCEPT), anyString()))
-                                .thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).exchangeToMono(any())).thenAnswer(invocation -> {
-                        @SuppressWarnings("unchecked")
-                        Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>> handler = (Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>>) invocation
-                                        .getArgument(0);
-                        ClientResponse clientResponse = mock(ClientResponse.class);
-                        when(clientResponse.statusCode()).thenReturn(HttpStatus.SERVICE_UNAVAILABLE);
-                        when(clientResponse.bodyToMono(eq(String.class))).thenReturn(Mono.just("service unavailable"));
-                        return handler.apply(clientResponse);
-                });
+                respondWith(clientRequest -> Mono.just(textResponse(HttpStatus.SERVICE_UNAVAILABLE, "service unavailable")));
                 StepVerifier.create(client.fetchRepositories(request))
                                 .expectErrorMatches(e -> e instanceof ApiException
                                                 && e.getMessage().toLowerCase().contains("service unavailable"))
@@ -186,19 +335,7 @@ class GitRepositoryClientImplTest {
         void testFetchRepositoriesOtherError() {
                 SearchRequest request = SearchRequest.builder().build();
 
-                when(webClient.get()).thenReturn(uriSpec);
-                when(((WebClient.RequestHeadersUriSpec) uriSpec).uri(anyString())).thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).header(eq(HttpHeaders.ACCEPT), anyString()))
-                                .thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).exchangeToMono(any())).thenAnswer(invocation -> {
-                        @SuppressWarnings("unchecked")
-                        Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>> handler = (Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>>) invocation
-                                        .getArgument(0);
-                        ClientResponse clientResponse = mock(ClientResponse.class);
-                        when(clientResponse.statusCode()).thenReturn(HttpStatus.BAD_REQUEST);
-                        when(clientResponse.bodyToMono(eq(String.class))).thenReturn(Mono.just("bad request"));
-                        return handler.apply(clientResponse);
-                });
+                respondWith(clientRequest -> Mono.just(textResponse(HttpStatus.BAD_REQUEST, "bad request")));
                 StepVerifier.create(client.fetchRepositories(request))
                                 .expectErrorMatches(e -> e instanceof ApiException && e.getMessage().toLowerCase()
                                                 .contains("github api responded with error"))
@@ -206,15 +343,98 @@ class GitRepositoryClientImplTest {
         }
 
         @Test
-        @DisplayName("Rate limit fallback returns TOO_MANY_REQUESTS ApiException")
-        void testRateLimitFallback() {
-                SearchRequest request = SearchRequest.builder().build();
-                RequestNotPermitted ex = mock(RequestNotPermitted.class);
+        @DisplayName("Budget exhausted per X-RateLimit headers fails fast with TOO_MANY_REQUESTS")
+        void testRateLimitExhaustedByHeaders() {
+                when(apiProps.getRateLimit()).thenReturn(GithubApiProperties.RateLimitProperties.builder()
+                                .maxWait(Duration.ZERO)
+                                .build());
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 100).mutate()
+                                .header("X-RateLimit-Limit", "30")
+                                .header("X-RateLimit-Remaining", "0")
+                                .header("X-RateLimit-Reset", String.valueOf(Instant.now().plusSeconds(60).getEpochSecond()))
+                                .build()));
 
-                StepVerifier.create(client.rateLimitFallback(request, ex))
+                StepVerifier.create(client.fetchRepositories(SearchRequest.builder().pageNumber(1).build()))
+                                .expectNextCount(1)
+                                .verifyComplete();
+                StepVerifier.create(client.fetchRepositories(SearchRequest.builder().pageNumber(2).build()))
                                 .expectErrorMatches(e -> e instanceof ApiException &&
                                                 ((ApiException) e).getStatus() == HttpStatus.TOO_MANY_REQUESTS)
                                 .verify();
+                assertEquals(1, requests.size());
+        }
+
+        @Test
+        @DisplayName("Requests are spread over the token pool within each token's quota")
+        void testTokenPoolStaysWithinPerTokenQuota() {
+                when(githubApiProperties.getTokens()).thenReturn(List.of("t1", "t2", "t3"));
+                when(apiProps.getRateLimit()).thenReturn(GithubApiProperties.RateLimitProperties.builder()
+                                .maxWait(Duration.ZERO)
+                                .build());
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.builder()
+                                .strategy(GithubApiProperties.FetchStrategy.EXHAUSTIVE)
+                                .maxPages(15)
+                                .upstreamPerPage(10)
+                                .concurrency(1)
+                                .build());
+
+                try (StubGitHubServer server = StubGitHubServer.startWithQuota(Duration.ZERO, 150, 5, Duration.ofMinutes(1))) {
+                        connectTo(server);
+                        StepVerifier.create(client.fetchRepositories(SearchRequest.builder().build()))
+                                        .assertNext(response -> assertEquals(150, response.getItems().size()))
+                                        .verifyComplete();
+                        assertEquals(5, server.requests("t1"));
+                        assertEquals(5, server.requests("t2"));
+                        assertEquals(5, server.requests("t3"));
+                        assertEquals(0, server.rejected());
+                }
+        }
+
+        @Test
+        @DisplayName("A single token's exhausted quota fails fast without hitting GitHub's limit")
+        void testSingleTokenQuotaExhausted() {
+                when(githubApiProperties.getTokens()).thenReturn(List.of("only"));
+                when(apiProps.getRateLimit()).thenReturn(GithubApiProperties.RateLimitProperties.builder()
+                                .maxWait(Duration.ZERO)
+                                .build());
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.builder()
+                                .strategy(GithubApiProperties.FetchStrategy.EXHAUSTIVE)
+                                .maxPages(15)
+                                .upstreamPerPage(10)
+                                .concurrency(1)
+                                .build());
+
+                try (StubGitHubServer server = StubGitHubServer.startWithQuota(Duration.ZERO, 150, 5, Duration.ofMinutes(1))) {
+                        connectTo(server);
+                        StepVerifier.create(client.fetchRepositories(SearchRequest.builder().build()))
+                                        .expectErrorMatches(e -> e instanceof ApiException &&
+                                                        ((ApiException) e).getStatus() == HttpStatus.TOO_MANY_REQUESTS)
+                                        .verify();
+                        assertEquals(5, server.requests("only"));
+                        assertEquals(0, server.rejected());
+                }
+        }
+
+        @Test
+        @DisplayName("Only upstream requests take rate-limit permits; cached pages are free")
+        void testRateLimitPermitPerUpstreamRequest() {
+                when(apiProps.getRateLimit()).thenReturn(GithubApiProperties.RateLimitProperties.builder()
+                                .initialLimit(1)
+                                .maxWait(Duration.ZERO)
+                                .build());
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 100)));
+                SearchRequest firstPage = SearchRequest.builder().pageNumber(1).build();
+
+                for (int i = 0; i < 3; i++) {
+                        StepVerifier.create(client.fetchRepositories(firstPage))
+                                        .expectNextCount(1)
+                                        .verifyComplete();
+                }
+                StepVerifier.create(client.fetchRepositories(SearchRequest.builder().pageNumber(2).build()))
+                                .expectErrorMatches(e -> e instanceof ApiException &&
+                                                ((ApiException) e).getStatus() == HttpStatus.TOO_MANY_REQUESTS)
+                                .verify();
+                assertEquals(1, requests.size());
         }
 
         // API returns 500 Internal Server Error
@@ -223,19 +443,7 @@ class GitRepositoryClientImplTest {
         void testFetchRepositoriesInternalServerError() {
                 SearchRequest request = SearchRequest.builder().build();
 
-                when(webClient.get()).thenReturn(uriSpec);
-                when(((WebClient.RequestHeadersUriSpec) uriSpec).uri(anyString())).thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).header(eq(HttpHeaders.ACCEPT), anyString()))
-                                .thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).exchangeToMono(any())).thenAnswer(invocation -> {
-                        @SuppressWarnings("unchecked")
-                        Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>> handler = (Function<ClientResponse, Mono<GitRepositoryPaginatedResponse>>) invocation
-                                        .getArgument(0);
-                        ClientResponse clientResponse = mock(ClientResponse.class);
-                        when(clientResponse.statusCode()).thenReturn(HttpStatus.INTERNAL_SERVER_ERROR);
-                        when(clientResponse.bodyToMono(eq(String.class))).thenReturn(Mono.just("internal error"));
-                        return handler.apply(clientResponse);
-                });
+                respondWith(clientRequest -> Mono.just(textResponse(HttpStatus.INTERNAL_SERVER_ERROR, "internal error")));
                 StepVerifier.create(client.fetchRepositories(request))
                                 .expectErrorMatches(e -> e instanceof ApiException && e.getMessage().toLowerCase()
                                                 .contains("github api responded with error"))
@@ -248,12 +456,7 @@ class GitRepositoryClientImplTest {
         void testFetchRepositoriesTimeout() {
                 SearchRequest request = SearchRequest.builder().build();
 
-                when(webClient.get()).thenReturn(uriSpec);
-                when(((WebClient.RequestHeadersUriSpec) uriSpec).uri(anyString())).thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).header(eq(HttpHeaders.ACCEPT), anyString()))
-                                .thenReturn(headersSpec);
-                when(headersSpec.exchangeToMono(any()))
-                                .thenReturn(Mono.error(new ApiException(HttpStatus.REQUEST_TIMEOUT, "Timeout")));
+                respondWith(clientRequest -> Mono.error(new ApiException(HttpStatus.REQUEST_TIMEOUT, "Timeout")));
                 StepVerifier.create(client.fetchRepositories(request))
                                 .expectErrorMatches(e -> e instanceof ApiException
                                                 && ((ApiException) e).getStatus() == HttpStatus.REQUEST_TIMEOUT)
@@ -266,33 +469,388 @@ class GitRepositoryClientImplTest {
         void testFetchRepositoriesMalformedJson() {
                 SearchRequest request = SearchRequest.builder().build();
 
-                when(webClient.get()).thenReturn(uriSpec);
-                when(((WebClient.RequestHeadersUriSpec) uriSpec).uri(anyString())).thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).header(eq(HttpHeaders.ACCEPT), anyString()))
-                                .thenReturn(headersSpec);
-                when(headersSpec.exchangeToMono(any()))
-                                .thenReturn(Mono.error(new ApiException(HttpStatus.BAD_REQUEST, "JSON parse error")));
+                respondWith(clientRequest -> Mono.error(new ApiException(HttpStatus.BAD_REQUEST, "JSON parse error")));
                 StepVerifier.create(client.fetchRepositories(request))
                                 .expectErrorMatches(e -> e instanceof ApiException
                                                 && ((ApiException) e).getStatus() == HttpStatus.BAD_REQUEST)
                                 .verify();
         }
 
+        @Test
+        @DisplayName("At the deadline the pages received are assembled and the outstanding ones cancelled")
+        void testDeadlineReturnsPagesReceivedSoFar() {
+                AtomicInteger cancelled = new AtomicInteger();
+                respondWith(clientRequest -> {
+                        int page = requestedPage(clientRequest);
+                        Duration latency = page == 1 ? Duration.ZERO : page <= 3 ? Duration.ofMillis(100) : Duration.ofSeconds(10);
+                        return Mono.delay(latency)
+                                        .map(tick -> searchPage(page, 50))
+                                        .doOnCancel(cancelled::incrementAndGet);
+                });
+
+                StepVerifier.withVirtualTime(() -> client.fetchRepositories(SearchRequest.builder().build())
+                                                .contextWrite(SearchDeadline.after(Duration.ofSeconds(1)).asContext()))
+                                .thenAwait(Duration.ofSeconds(1))
+                                .assertNext(response -> {
+                                        assertTrue(response.isIncompleteResults());
+                                        assertEquals(30, response.getItems().size());
+                                })
+                                .verifyComplete();
+                assertEquals(5, requests.size());
+                assertEquals(2, cancelled.get());
+        }
+
+        @Test
+        @DisplayName("A search finishing before its deadline is complete")
+        void testDeadlineNotReached() {
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 25)));
+
+                StepVerifier.create(client.fetchRepositories(SearchRequest.builder().build())
+                                                .contextWrite(SearchDeadline.after(Duration.ofSeconds(5)).asContext()))
+                                .assertNext(response -> {
+                                        assertFalse(response.isIncompleteResults());
+                                        assertEquals(25, response.getItems().size());
+                                })
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("A brownout of 503s retries within the shared budget instead of multiplying load")
+        void testRetryStormStaysWithinBudget() {
+                when(apiProps.getRetry()).thenReturn(GithubApiProperties.RetryProperties.builder()
+                                .attempts(3)
+                                .budgetCapacity(5)
+                                .budgetRatio(0.1)
+                                .build());
+                respondWith(clientRequest -> Mono.just(textResponse(HttpStatus.SERVICE_UNAVAILABLE, "brownout")));
+                AtomicInteger failures = new AtomicInteger();
+
+                StepVerifier.withVirtualTime(() -> Flux.range(1, 40)
+                                                .flatMap(page -> client.fetchRepositories(SearchRequest.builder().pageNumber(page).build())
+                                                                .doOnError(e -> failures.incrementAndGet())
+                                                                .onErrorResume(e -> Mono.empty())))
+                                .thenAwait(Duration.ofMinutes(5))
+                                .verifyComplete();
+                assertEquals(40, failures.get());
+                // 40 first attempts plus the 5 retries the budget holds, instead of 40 * (1 + 3)
+                assertEquals(45, requests.size());
+        }
+
+        @Test
+        @DisplayName("A 429 with Retry-After is retried once the wait is over")
+        void testRetryAfterIsHonored() {
+                AtomicInteger calls = new AtomicInteger();
+                respondWith(clientRequest -> Mono.just(calls.incrementAndGet() == 1
+                                ? ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                                                .header(HttpHeaders.RETRY_AFTER, "7")
+                                                .body("secondary rate limit")
+                                                .build()
+                                : searchPage(1, 5)));
+
+                StepVerifier.withVirtualTime(() -> client.fetchRepositories(SearchRequest.builder().pageNumber(1).build()))
+                                .expectSubscription()
+                                .expectNoEvent(Duration.ofMillis(6999))
+                                .thenAwait(Duration.ofMillis(1))
+                                .assertNext(response -> assertEquals(5, response.getItems().size()))
+                                .verifyComplete();
+                assertEquals(2, requests.size());
+        }
+
         // Network error (simulate by returning Mono.error)
         @Test
         @DisplayName("Network error returns ApiException")
         void testFetchRepositoriesNetworkError() {
                 SearchRequest request = SearchRequest.builder().build();
 
-                when(webClient.get()).thenReturn(uriSpec);
-                when(((WebClient.RequestHeadersUriSpec) uriSpec).uri(anyString())).thenReturn(headersSpec);
-                when(((WebClient.RequestHeadersSpec) headersSpec).header(eq(HttpHeaders.ACCEPT), anyString()))
-                                .thenReturn(headersSpec);
-                when(headersSpec.exchangeToMono(any())).thenReturn(
-                                Mono.error(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Connection refused")));
+                respondWith(clientRequest -> Mono.error(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Connection refused")));
                 StepVerifier.create(client.fetchRepositories(request))
                                 .expectErrorMatches(e -> e instanceof ApiException
                                                 && ((ApiException) e).getStatus() == HttpStatus.SERVICE_UNAVAILABLE)
                                 .verify();
         }
+
+        @Test
+        @DisplayName("Stored ETag is revalidated and 304 is served from the stored body")
+        void testConditionalRequestServesStoredBodyOn304() {
+                SearchRequest request = SearchRequest.builder().language("Java").pageNumber(1).build();
+                GitRepositoryPaginatedResponse page = GitRepositoryPaginatedResponse.builder()
+                                .totalCount(1)
+                                .items(List.of(GitRepositoryItems.builder().id(7L).name("cached").build()))
+                                .build();
+                // Expire pages immediately so the second fetch goes upstream and revalidates.
+                when(apiProps.getCache()).thenReturn(GithubApiProperties.CacheProperties.builder()
+                                .pageTtl(Duration.ZERO)
+                                .build());
+
+                respondWith(clientRequest -> {
+                        if ("\"v1\"".equals(clientRequest.headers().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                                return Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+                        }
+                        return Mono.just(jsonResponse(HttpStatus.OK, page).mutate()
+                                        .header(HttpHeaders.ETAG, "\"v1\"")
+                                        .build());
+                });
+
+                StepVerifier.create(client.fetchRepositories(request))
+                                .expectNextMatches(r -> r.getItems().size() == 1 && r.getItems().get(0).getId() == 7L)
+                                .verifyComplete();
+                StepVerifier.create(client.fetchRepositories(request))
+                                .expectNextMatches(r -> r.getItems().size() == 1 && r.getItems().get(0).getId() == 7L)
+                                .verifyComplete();
+
+                assertEquals(2, requests.size());
+                assertNull(requests.get(0).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+                assertEquals("\"v1\"", requests.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        }
+
+        @Test
+        @DisplayName("Responses without an ETag are not revalidated")
+        void testResponseWithoutETagIsNotStored() {
+                SearchRequest request = SearchRequest.builder().language("Java").pageNumber(1).build();
+                GitRepositoryPaginatedResponse page = GitRepositoryPaginatedResponse.builder()
+                                .totalCount(0)
+                                .items(Collections.emptyList())
+                                .build();
+                when(apiProps.getCache()).thenReturn(GithubApiProperties.CacheProperties.builder()
+                                .pageTtl(Duration.ZERO)
+                                .negativeTtl(Duration.ZERO)
+                                .build());
+                respondWith(clientRequest -> Mono.just(jsonResponse(HttpStatus.OK, page)));
+
+                client.fetchRepositories(request).block();
+                client.fetchRepositories(request).block();
+
+                assertEquals(2, requests.size());
+                assertTrue(requests.stream().noneMatch(r -> r.headers().containsKey(HttpHeaders.IF_NONE_MATCH)));
+        }
+
+        @Test
+        @DisplayName("Warm pages are reused by whole-result assembly")
+        void testWarmPagesAreReusedAcrossModes() {
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 100)));
+
+                client.fetchRepositories(SearchRequest.builder().language("Java").pageNumber(1).build()).block();
+                client.fetchRepositories(SearchRequest.builder().language("Java").pageNumber(2).build()).block();
+                assertEquals(2, requests.size());
+
+                GitRepositoryPaginatedResponse all = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").build()).block();
+
+                assertNotNull(all);
+                assertEquals(100, all.getItems().size());
+                assertEquals(10, requests.size());
+                assertEquals(10, requests.stream().map(r -> r.url().toString()).distinct().count());
+        }
+
+        @Test
+        @DisplayName("Adaptive fetch requests only the pages total_count requires")
+        void testAdaptiveFetchStopsAtTotalCount() {
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 12)));
+
+                GitRepositoryPaginatedResponse all = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").build()).block();
+
+                assertNotNull(all);
+                assertEquals(12, all.getItems().size());
+                assertEquals(List.of(1, 2), requests.stream().map(GitRepositoryClientImplTest::requestedPage).toList());
+        }
+
+        @Test
+        @DisplayName("Adaptive fetch stops after a short first page")
+        void testAdaptiveFetchStopsAfterShortFirstPage() {
+                // total_count can overstate what is reachable; a short page is authoritative.
+                respondWith(clientRequest -> Mono.just(requestedPage(clientRequest) == 1
+                                ? searchPage(1, 3)
+                                : searchPage(requestedPage(clientRequest), 100)));
+
+                GitRepositoryPaginatedResponse all = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").build()).block();
+
+                assertNotNull(all);
+                assertEquals(3, all.getItems().size());
+                assertEquals(1, requests.size());
+        }
+
+        @Test
+        @DisplayName("Adaptive fetch honours the GitHub result cap and max-pages")
+        void testAdaptiveFetchIsBoundedByMaxPages() {
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.builder()
+                                .upstreamPerPage(10)
+                                .maxPages(3)
+                                .build());
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 250_000)));
+
+                GitRepositoryPaginatedResponse all = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").build()).block();
+
+                assertNotNull(all);
+                assertEquals(30, all.getItems().size());
+                assertEquals(3, requests.size());
+        }
+
+        @Test
+        @DisplayName("Sort and thresholds are pushed down and a top-K request fetches only the pages it needs")
+        void testRankedFetchPushesDownSortAndStopsAtLimit() {
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 250_000)));
+
+                GitRepositoryPaginatedResponse all = client.fetchRepositories(SearchRequest.builder()
+                                .language("Java")
+                                .minStars(500)
+                                .sortBy(SearchRequest.SortKey.STARS)
+                                .limit(25)
+                                .build()).block();
+
+                assertNotNull(all);
+                assertEquals(25, all.getItems().size());
+                assertEquals(List.of(1, 2, 3), requests.stream().map(GitRepositoryClientImplTest::requestedPage).sorted().toList());
+                assertTrue(requests.stream().allMatch(r -> r.url().getQuery()
+                                .startsWith("q=language:Java+stars:>=500&sort=stars&order=desc&page=")));
+        }
+
+        @Test
+        @DisplayName("Sorted and unsorted pages of the same query are cached separately")
+        void testSortedPagesAreCachedSeparately() {
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 5)));
+
+                client.fetchRepositories(SearchRequest.builder().language("Java").pageNumber(1).build()).block();
+                client.fetchRepositories(SearchRequest.builder().language("Java").pageNumber(1)
+                                .sortBy(SearchRequest.SortKey.FORKS).build()).block();
+
+                assertEquals(2, requests.size());
+                assertTrue(requests.get(1).url().getQuery().contains("&sort=forks&order=desc"));
+        }
+
+        @Test
+        @DisplayName("All-pages fetch fills max-pages client pages from fewer, larger upstream pages")
+        void testAllPagesUseLargeUpstreamPages() {
+                when(apiProps.getDefaultPerPage()).thenReturn(30);
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.defaults());
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest),
+                                requestedPerPage(clientRequest), 250_000)));
+
+                GitRepositoryPaginatedResponse all = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").build()).block();
+
+                assertNotNull(all);
+                assertEquals(300, all.getItems().size());
+                assertEquals(LongStream.range(0, 300).boxed().toList(),
+                                all.getItems().stream().map(GitRepositoryItems::getId).sorted().toList());
+                assertEquals(3, requests.size());
+                assertTrue(requests.stream().allMatch(r -> requestedPerPage(r) == 100));
+        }
+
+        @Test
+        @DisplayName("A client page is sliced from the upstream pages holding it")
+        void testClientPageIsTranslatedOntoUpstreamPages() {
+                when(apiProps.getDefaultPerPage()).thenReturn(30);
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.defaults());
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest),
+                                requestedPerPage(clientRequest), 250_000)));
+
+                GitRepositoryPaginatedResponse second = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").pageNumber(2).build()).block();
+                assertNotNull(second);
+                assertEquals(LongStream.range(30, 60).boxed().toList(),
+                                second.getItems().stream().map(GitRepositoryItems::getId).toList());
+                assertEquals(List.of(1), requests.stream().map(GitRepositoryClientImplTest::requestedPage).toList());
+
+                // Results 90-119 straddle upstream pages 1 and 2; page 1 is already warm.
+                GitRepositoryPaginatedResponse fourth = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").pageNumber(4).build()).block();
+                assertNotNull(fourth);
+                assertEquals(LongStream.range(90, 120).boxed().toList(),
+                                fourth.getItems().stream().map(GitRepositoryItems::getId).toList());
+                assertEquals(List.of(1, 2), requests.stream().map(GitRepositoryClientImplTest::requestedPage).toList());
+        }
+
+        @Test
+        @DisplayName("A client page past the end of the results is empty")
+        void testClientPagePastTheEnd() {
+                when(apiProps.getDefaultPerPage()).thenReturn(30);
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.defaults());
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest),
+                                requestedPerPage(clientRequest), 95)));
+
+                GitRepositoryPaginatedResponse fourth = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").pageNumber(4).build()).block();
+
+                assertNotNull(fourth);
+                assertEquals(LongStream.range(90, 95).boxed().toList(),
+                                fourth.getItems().stream().map(GitRepositoryItems::getId).toList());
+                assertEquals(1, requests.size());
+        }
+
+        @Test
+        @DisplayName("Exhaustive fetch requests every page up to max-pages")
+        void testExhaustiveFetchRequestsEveryPage() {
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.builder()
+                                .upstreamPerPage(10)
+                                .strategy(GithubApiProperties.FetchStrategy.EXHAUSTIVE)
+                                .build());
+                respondWith(clientRequest -> Mono.just(searchPage(requestedPage(clientRequest), 12)));
+
+                GitRepositoryPaginatedResponse all = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").build()).block();
+
+                assertNotNull(all);
+                assertEquals(12, all.getItems().size());
+                assertEquals(10, requests.size());
+        }
+
+        @Test
+        @DisplayName("Page fan-out never exceeds the configured concurrency")
+        void testFanOutRespectsConcurrency() {
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.builder()
+                                .upstreamPerPage(10)
+                                .strategy(GithubApiProperties.FetchStrategy.EXHAUSTIVE)
+                                .concurrency(2)
+                                .build());
+                AtomicInteger inFlight = new AtomicInteger();
+                AtomicInteger peak = new AtomicInteger();
+                respondWith(clientRequest -> Mono.delay(Duration.ofMillis(20))
+                                .doOnSubscribe(s -> peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                                .map(tick -> searchPage(requestedPage(clientRequest), 100))
+                                .doOnTerminate(inFlight::decrementAndGet));
+
+                GitRepositoryPaginatedResponse all = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").build()).block();
+
+                assertNotNull(all);
+                assertEquals(100, all.getItems().size());
+                assertEquals(2, peak.get());
+        }
+
+        @Test
+        @DisplayName("Ordered fan-out keeps page order when pages complete out of order")
+        void testOrderedFanOutKeepsPageOrder() {
+                when(apiProps.getFetch()).thenReturn(GithubApiProperties.FetchProperties.builder()
+                                .upstreamPerPage(10)
+                                .strategy(GithubApiProperties.FetchStrategy.EXHAUSTIVE)
+                                .ordered(true)
+                                .build());
+                // Later pages answer first.
+                respondWith(clientRequest -> Mono.delay(Duration.ofMillis(5L * (11 - requestedPage(clientRequest))))
+                                .map(tick -> searchPage(requestedPage(clientRequest), 100)));
+
+                GitRepositoryPaginatedResponse all = client.fetchRepositories(
+                                SearchRequest.builder().language("Java").build()).block();
+
+                assertNotNull(all);
+                List<Long> ids = all.getItems().stream().map(GitRepositoryItems::getId).toList();
+                assertEquals(LongStream.range(0, 100).boxed().toList(), ids);
+        }
+
+        @Test
+        @DisplayName("fetchPages emits the first page before slower pages complete")
+        void testFetchPagesEmitsPagesAsTheyArrive() {
+                respondWith(clientRequest -> requestedPage(clientRequest) == 1
+                                ? Mono.just(searchPage(1, 20))
+                                : Mono.delay(Duration.ofMillis(200)).map(tick -> searchPage(2, 20)));
+
+                StepVerifier.create(client.fetchPages(SearchRequest.builder().language("Java").build()))
+                                .expectNextMatches(page -> page.getItems().get(0).getId() == 0L)
+                                .expectNoEvent(Duration.ofMillis(50))
+                                .expectNextMatches(page -> page.getItems().get(0).getId() == 10L)
+                                .verifyComplete();
+        }
 }
@@ -5,19 +5,29 @@ import com.example.githubsearch.exception.ApiException;
 import com.example.githubsearch.model.GitRepositoryItems;
 import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
 import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.model.SearchStreamEvent;
 import com.example.githubsearch.service.GitRepositoryClient;
+import com.example.githubsearch.service.impl.deadline.SearchDeadline;
 import com.example.githubsearch.service.impl.helper.PopularityScoreCalculator;
+import com.example.githubsearch.service.impl.leaderboard.LanguageLeaderboards;
+import com.example.githubsearch.service.impl.scoring.PopularityScoringExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,7 +46,9 @@ class GitRepositoryServiceImplTest {
     @Mock
     private GithubApiProperties.Api apiProps;
 
-    @InjectMocks
+    @Mock
+    private LanguageLeaderboards languageLeaderboards;
+
     private GitRepositoryServiceImpl service;
 
     @BeforeEach
@@ -45,6 +57,10 @@ class GitRepositoryServiceImplTest {
         when(githubApiProperties.getApi()).thenReturn(apiProps);
         when(apiProps.getDefaultPage()).thenReturn(1);
         when(apiProps.getDefaultPerPage()).thenReturn(10);
+        when(apiProps.getScoring()).thenReturn(GithubApiProperties.ScoringProperties.defaults());
+        when(apiProps.getDeadline()).thenReturn(GithubApiProperties.DeadlineProperties.defaults());
+        service = new GitRepositoryServiceImpl(gitRepositoryClient, githubApiProperties,
+                new PopularityScoringExecutor(githubApiProperties, new SimpleMeterRegistry()), languageLeaderboards);
     }
 
     @Test
@@ -302,4 +318,218 @@ class GitRepositoryServiceImplTest {
         assertNotNull(result.getItems());
         assertTrue(result.getItems().isEmpty());
     }
+
+    @Test
+    @DisplayName("Streaming search scores items per page and ends with a summary")
+    void testStreamRepositoriesEmitsItemsThenSummary() {
+        GitRepositoryItems first = GitRepositoryItems.builder()
+                .id(1L).name("a").stargazerCount(10).forksCount(1)
+                .updatedAt(Instant.parse("2025-10-15T12:34:56Z")).build();
+        GitRepositoryItems second = first.toBuilder().id(2L).name("b").stargazerCount(20).build();
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class))).thenReturn(Flux.just(
+                GitRepositoryPaginatedResponse.builder().totalCount(42).items(List.of(first)).build(),
+                GitRepositoryPaginatedResponse.builder().totalCount(42).incompleteResults(true)
+                        .items(List.of(second)).build()));
+
+        StepVerifier.create(service.streamRepositories(SearchRequest.builder().language("Java").build()))
+                .assertNext(event -> {
+                    assertEquals(SearchStreamEvent.Type.ITEM, event.getType());
+                    assertEquals(PopularityScoreCalculator.calculateScore(first).getPopularityScore(),
+                            event.getItem().getPopularityScore());
+                })
+                .assertNext(event -> assertEquals(2L, event.getItem().getId()))
+                .assertNext(event -> {
+                    assertEquals(SearchStreamEvent.Type.SUMMARY, event.getType());
+                    assertEquals(42, event.getSummary().getTotalCount());
+                    assertEquals(2, event.getSummary().getItemCount());
+                    assertEquals(2, event.getSummary().getPageCount());
+                    assertTrue(event.getSummary().isIncompleteResults());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Streaming search propagates upstream errors without a summary")
+    void testStreamRepositoriesPropagatesErrors() {
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class)))
+                .thenReturn(Flux.error(new ApiException(HttpStatus.BAD_GATEWAY, "boom")));
+
+        StepVerifier.create(service.streamRepositories(SearchRequest.builder().build()))
+                .expectError(ApiException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Ranked search keeps the top-K across all pages, best first")
+    void testSearchRepositoriesTopKAcrossPages() {
+        GitRepositoryItems base = GitRepositoryItems.builder().updatedAt(Instant.parse("2025-10-15T12:34:56Z")).build();
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class))).thenReturn(Flux.just(
+                GitRepositoryPaginatedResponse.builder().totalCount(5).items(List.of(
+                        base.toBuilder().id(1L).stargazerCount(10).build(),
+                        base.toBuilder().id(2L).stargazerCount(50).build(),
+                        base.toBuilder().id(3L).stargazerCount(30).build())).build(),
+                GitRepositoryPaginatedResponse.builder().totalCount(5).incompleteResults(true).items(List.of(
+                        base.toBuilder().id(4L).stargazerCount(40).build(),
+                        base.toBuilder().id(5L).stargazerCount(20).build())).build()));
+        SearchRequest request = SearchRequest.builder()
+                .language("Java")
+                .sortBy(SearchRequest.SortKey.STARS)
+                .limit(3)
+                .build();
+
+        StepVerifier.create(service.searchRepositories(request))
+                .assertNext(response -> {
+                    assertEquals(List.of(2L, 4L, 3L), response.getItems().stream().map(GitRepositoryItems::getId).toList());
+                    assertTrue(response.getItems().stream().allMatch(item -> item.getPopularityScore() > 0));
+                    assertEquals(5, response.getTotalCount());
+                    assertTrue(response.isIncompleteResults());
+                    assertEquals(1, response.getPageNumber());
+                })
+                .verifyComplete();
+        verify(gitRepositoryClient, never()).fetchRepositories(any());
+    }
+
+    @Test
+    @DisplayName("A top-K response has no next page however many repositories were ranked")
+    void testRankedResponseHasNoNextPage() {
+        List<GitRepositoryItems> items = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            items.add(GitRepositoryItems.builder().id(id).stargazerCount((int) id).build());
+        }
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class))).thenReturn(Flux.just(
+                GitRepositoryPaginatedResponse.builder().totalCount(25).items(items).build()));
+
+        StepVerifier.create(service.searchRepositories(SearchRequest.builder().limit(10).build()))
+                .assertNext(response -> {
+                    assertEquals(10, response.getItems().size());
+                    assertEquals(25, response.getTotalCount());
+                    assertFalse(response.isHasNextPage());
+                    assertNull(response.getNextPageNumber());
+                    assertEquals(1, response.getPageNumber());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("A limit without a sort key ranks by popularity score")
+    void testSearchRepositoriesLimitDefaultsToScore() {
+        GitRepositoryItems popular = GitRepositoryItems.builder().id(1L).stargazerCount(100).forksCount(10).build();
+        GitRepositoryItems obscure = GitRepositoryItems.builder().id(2L).stargazerCount(1).build();
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class))).thenReturn(Flux.just(
+                GitRepositoryPaginatedResponse.builder().totalCount(2).items(List.of(obscure, popular)).build()));
+
+        StepVerifier.create(service.searchRepositories(SearchRequest.builder().limit(1).build()))
+                .assertNext(response -> {
+                    assertEquals(1, response.getItems().size());
+                    assertEquals(1L, response.getItems().get(0).getId());
+                    assertEquals(PopularityScoreCalculator.calculateScore(popular).getPopularityScore(),
+                            response.getItems().get(0).getPopularityScore());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Ranked search answers with the pages received by the deadline and cancels the rest")
+    void testRankedSearchDeadline() {
+        GitRepositoryItems base = GitRepositoryItems.builder().updatedAt(Instant.parse("2025-10-15T12:34:56Z")).build();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class))).thenReturn(Flux.concat(
+                Flux.just(GitRepositoryPaginatedResponse.builder().totalCount(4).items(List.of(
+                        base.toBuilder().id(1L).stargazerCount(10).build(),
+                        base.toBuilder().id(2L).stargazerCount(50).build())).build()),
+                Mono.delay(Duration.ofSeconds(5))
+                        .map(tick -> GitRepositoryPaginatedResponse.builder().totalCount(4).items(List.of(
+                                base.toBuilder().id(3L).stargazerCount(90).build())).build())
+                        .doOnCancel(() -> cancelled.set(true))));
+        SearchRequest request = SearchRequest.builder()
+                .sortBy(SearchRequest.SortKey.STARS)
+                .timeBudget(Duration.ofSeconds(2))
+                .build();
+
+        StepVerifier.withVirtualTime(() -> service.searchRepositories(request))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(1999))
+                .thenAwait(Duration.ofMillis(1))
+                .assertNext(response -> {
+                    assertTrue(response.isIncompleteResults());
+                    assertEquals(List.of(2L, 1L), response.getItems().stream().map(GitRepositoryItems::getId).toList());
+                })
+                .verifyComplete();
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    @DisplayName("A client's time budget is capped at the configured maximum")
+    void testStreamDeadlineCappedAtMaxTimeout() {
+        when(apiProps.getDeadline()).thenReturn(GithubApiProperties.DeadlineProperties.builder()
+                .maxTimeout(Duration.ofSeconds(3))
+                .build());
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class))).thenReturn(Flux.never());
+
+        StepVerifier.withVirtualTime(() -> service.streamRepositories(SearchRequest.builder()
+                        .timeBudget(Duration.ofMinutes(10))
+                        .build()))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(2999))
+                .thenAwait(Duration.ofMillis(1))
+                .assertNext(event -> {
+                    assertEquals(SearchStreamEvent.Type.SUMMARY, event.getType());
+                    assertEquals(0, event.getSummary().getItemCount());
+                    assertTrue(event.getSummary().isIncompleteResults());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Assembled searches hand the deadline to the client; disabled deadlines hand none")
+    void testDeadlineHandedToClient() {
+        List<SearchDeadline> seen = new ArrayList<>();
+        when(gitRepositoryClient.fetchRepositories(any(SearchRequest.class))).thenAnswer(invocation ->
+                Mono.deferContextual(context -> {
+                    seen.add(SearchDeadline.from(context));
+                    return Mono.just(GitRepositoryPaginatedResponse.builder().items(List.of()).build());
+                }));
+
+        service.searchRepositories(SearchRequest.builder().timeBudget(Duration.ofSeconds(4)).build()).block();
+        when(apiProps.getDeadline()).thenReturn(GithubApiProperties.DeadlineProperties.builder()
+                .enabled(false)
+                .build());
+        service.searchRepositories(SearchRequest.builder().timeBudget(Duration.ofSeconds(4)).build()).block();
+
+        assertEquals(2, seen.size());
+        assertTrue(seen.get(0).remaining().compareTo(Duration.ofSeconds(3)) > 0);
+        assertTrue(seen.get(0).remaining().compareTo(Duration.ofSeconds(4)) <= 0);
+        assertNull(seen.get(1));
+    }
+
+    @Test
+    @DisplayName("A stale result from the cache stays marked stale")
+    void testStaleResultStaysMarked() {
+        when(gitRepositoryClient.fetchRepositories(any(SearchRequest.class))).thenReturn(Mono.just(
+                GitRepositoryPaginatedResponse.builder().totalCount(0).stale(true).items(List.of()).build()));
+
+        StepVerifier.create(service.searchRepositories(SearchRequest.builder().build()))
+                .assertNext(response -> assertTrue(response.isStale()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("A search the leaderboard answers makes no upstream request")
+    void testLeaderboardAnswersWithoutUpstream() {
+        SearchRequest request = SearchRequest.builder().language("Java").limit(20).build();
+        when(languageLeaderboards.lookup(request)).thenReturn(GitRepositoryPaginatedResponse.builder()
+                .totalCount(25)
+                .items(List.of(GitRepositoryItems.builder().id(1L).popularityScore(42).build()))
+                .build());
+
+        StepVerifier.create(service.searchRepositories(request))
+                .assertNext(response -> {
+                    assertEquals(List.of(1L), response.getItems().stream().map(GitRepositoryItems::getId).toList());
+                    assertEquals(25, response.getTotalCount());
+                    assertFalse(response.isHasNextPage());
+                    assertNull(response.getNextPageNumber());
+                })
+                .verifyComplete();
+        verifyNoInteractions(gitRepositoryClient);
+    }
 }
@@ -0,0 +1,71 @@
+package com.example.githubsearch.service.impl.cache;
+
+import com.example.githubsearch.model.GitRepositoryItems;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CompactItems}.
+ */
+class CompactItemsTest {
+
+    @Test
+    @DisplayName("Every field round-trips, including nulls, extremes and non-ASCII text")
+    void testRoundTrip() {
+        List<GitRepositoryItems> items = List.of(
+                GitRepositoryItems.builder()
+                        .id(Long.MAX_VALUE)
+                        .name("spring-boot")
+                        .description("Spring Boot – 春天 🌱")
+                        .language("Java")
+                        .stargazerCount(Integer.MAX_VALUE)
+                        .forksCount(-1)
+                        .htmlUrl("https://github.com/spring-projects/spring-boot")
+                        .updatedAt(Instant.parse("2025-10-15T12:34:56Z"))
+                        .createdAt(Instant.parse("1969-12-31T23:59:59Z"))
+                        .popularityScore(123.456)
+                        .build(),
+                GitRepositoryItems.builder().id(0L).build(),
+                GitRepositoryItems.builder().id(7L).language("C++").description("").build());
+
+        CompactItems compact = CompactItems.encode(items, new LanguageDictionary());
+
+        assertEquals(items, compact);
+        assertEquals(items.get(2), compact.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> compact.get(3));
+        assertTrue(CompactItems.encode(List.of(), new LanguageDictionary()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Languages are coded once in a shared dictionary and results take a few dozen bytes per repository")
+    void testCompactness() {
+        LanguageDictionary languages = new LanguageDictionary();
+        List<GitRepositoryItems> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(GitRepositoryItems.builder()
+                    .id(100_000_000L + i)
+                    .name("repo-" + i)
+                    .language(i % 2 == 0 ? "Java" : "Kotlin")
+                    .stargazerCount(i * 10)
+                    .forksCount(i)
+                    .htmlUrl("https://github.com/owner/repo-" + i)
+                    .updatedAt(Instant.parse("2025-10-15T12:34:56Z"))
+                    .createdAt(Instant.parse("2014-01-01T00:00:00Z"))
+                    .build());
+        }
+
+        CompactItems first = CompactItems.encode(items, languages);
+        CompactItems second = CompactItems.encode(items.subList(0, 10), languages);
+
+        assertEquals(2, languages.size());
+        assertEquals("Kotlin", second.get(1).getLanguage());
+        assertEquals(items, first);
+        assertTrue(first.sizeInBytes() < 1000 * 80, "encoded in " + first.sizeInBytes() + " bytes");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.githubsearch.service.impl.cache;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.exception.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link NegativeQueryCache}.
+ */
+class NegativeQueryCacheTest {
+
+    private NegativeQueryCache cache(GithubApiProperties.CacheProperties cacheProperties) {
+        return new NegativeQueryCache(new GithubApiProperties("token", GithubApiProperties.Api.builder()
+                .cache(cacheProperties)
+                .build()), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Rejected queries replay their 422 and empty queries complete empty, ignoring case")
+    void testReplay() {
+        NegativeQueryCache cache = cache(GithubApiProperties.CacheProperties.defaults());
+        cache.recordInvalid("language:Nope", "Validation failed: bad qualifier");
+        cache.recordEmpty("language:Java+stars:>=100000000");
+
+        StepVerifier.create(cache.replay("LANGUAGE:nope"))
+                .expectErrorMatches(e -> e instanceof ApiException
+                        && ((ApiException) e).getStatus() == HttpStatus.UNPROCESSABLE_ENTITY
+                        && e.getMessage().equals("Validation failed: bad qualifier"))
+                .verify();
+        StepVerifier.create(cache.replay("language:java+stars:>=100000000"))
+                .verifyComplete();
+        assertNull(cache.replay("language:Java"));
+    }
+
+    @Test
+    @DisplayName("Nothing is remembered when caching is disabled")
+    void testDisabled() {
+        NegativeQueryCache cache = cache(GithubApiProperties.CacheProperties.builder().enabled(false).build());
+        cache.recordEmpty("language:Java");
+        cache.recordInvalid("language:Nope", "Validation failed");
+
+        assertNull(cache.replay("language:Java"));
+        assertNull(cache.replay("language:Nope"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.githubsearch.service.impl.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SingleFlight}.
+ */
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Concurrent callers share one upstream subscription")
+    void testConcurrentCallersShareUpstream() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> call = singleFlight.execute("key",
+                () -> upstream.asMono().doOnSubscribe(s -> subscriptions.incrementAndGet()));
+
+        List<String> results = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            call.subscribe(results::add);
+        }
+        assertEquals(1, singleFlight.inFlight());
+        upstream.tryEmitValue("value");
+
+        assertEquals(1, subscriptions.get());
+        assertEquals(10, results.size());
+        assertTrue(results.stream().allMatch("value"::equals));
+        assertEquals(9, singleFlight.coalesced());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    @DisplayName("Different keys do not share upstream calls")
+    void testDifferentKeysAreIndependent() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Flux.just("a", "b", "a", "b")
+                .flatMap(key -> singleFlight.execute(key, () -> Mono.just(key)
+                        .doOnSubscribe(s -> subscriptions.incrementAndGet())))
+                .collectList()
+                .block();
+
+        // Synchronous upstreams complete before the next caller arrives, so nothing is shared.
+        assertEquals(4, subscriptions.get());
+        assertEquals(0, singleFlight.coalesced());
+    }
+
+    @Test
+    @DisplayName("One subscriber cancelling does not cancel the shared call")
+    void testPartialCancellationKeepsUpstream() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> call = singleFlight.execute("key",
+                () -> upstream.asMono().doOnCancel(() -> cancelled.set(true)));
+
+        Disposable first = call.subscribe();
+        AtomicInteger received = new AtomicInteger();
+        call.subscribe(v -> received.incrementAndGet());
+
+        first.dispose();
+        assertFalse(cancelled.get());
+
+        upstream.tryEmitValue("value");
+        assertEquals(1, received.get());
+    }
+
+    @Test
+    @DisplayName("Last subscriber cancelling cancels the shared call")
+    void testLastCancellationCancelsUpstream() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> call = singleFlight.execute("key",
+                () -> Mono.<String>never().doOnCancel(() -> cancelled.set(true)));
+
+        Disposable first = call.subscribe();
+        Disposable second = call.subscribe();
+        first.dispose();
+        second.dispose();
+
+        assertTrue(cancelled.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    @DisplayName("Errors are shared and the key is released afterwards")
+    void testErrorsAreSharedAndReleased() {
+        StepVerifier.create(singleFlight.execute("key", () -> Mono.error(new IllegalStateException("boom"))))
+                .expectErrorMessage("boom")
+                .verify();
+        assertEquals(0, singleFlight.inFlight());
+
+        StepVerifier.create(singleFlight.execute("key", () -> Mono.just("recovered")))
+                .expectNext("recovered")
+                .verifyComplete();
+    }
+}
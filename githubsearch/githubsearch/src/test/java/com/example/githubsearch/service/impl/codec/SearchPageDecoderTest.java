@@ -0,0 +1,171 @@
+package com.example.githubsearch.service.impl.codec;
+
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.support.GitHubSearchFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SearchPageDecoder}.
+ */
+class SearchPageDecoderTest {
+
+    private static final String PAGE = "{"
+            + "\"total_count\":1234,"
+            + "\"incomplete_results\":true,"
+            + "\"items\":["
+            + "{\"id\":1,\"name\":\"r\\u00e9po1\",\"language\":\"Java\",\"stargazers_count\":10,\"forks_count\":2,"
+            + "\"owner\":{\"login\":\"octo\",\"urls\":[\"a\",{\"deep\":[1,2,3]}]},"
+            + "\"topics\":[\"x\",\"y\"],\"license\":null,"
+            + "\"html_url\":\"https://github.com/octo/repo1\",\"updated_at\":\"2025-01-02T03:04:05Z\"},"
+            + "{\"id\":2,\"name\":\"repo2\",\"score\":1.5}"
+            + "],"
+            + "\"trailing\":{\"ignored\":[{}]}"
+            + "}";
+
+    private final ObjectMapper beanMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SearchPageDecoder decoder = new SearchPageDecoder(beanMapper);
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+    private final List<NettyDataBuffer> allocated = new ArrayList<>();
+
+    /**
+     * Splits the UTF-8 bytes of {@code json} into buffers of {@code chunkSize} bytes, so tokens
+     * (including multi-byte characters) straddle buffer boundaries.
+     */
+    private Flux<DataBuffer> chunks(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            NettyDataBuffer buffer = bufferFactory.allocateBuffer(chunkSize);
+            buffer.write(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+            allocated.add(buffer);
+            buffers.add(buffer);
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private void assertAllReleased() {
+        assertTrue(allocated.stream().allMatch(buffer -> buffer.getNativeBuffer().refCnt() == 0));
+    }
+
+    @Test
+    @DisplayName("Decodes a page split into tiny buffers and skips unknown subtrees")
+    void testDecodesChunkedPage() {
+        for (int chunkSize : new int[]{1, 3, 7, 64, 4096}) {
+            StepVerifier.create(decoder.decode(chunks(PAGE, chunkSize)))
+                    .assertNext(page -> {
+                        assertEquals(1234, page.getTotalCount());
+                        assertTrue(page.isIncompleteResults());
+                        assertEquals(2, page.getItems().size());
+                        GitRepositoryItems first = page.getItems().get(0);
+                        assertEquals(1L, first.getId());
+                        assertEquals("répo1", first.getName());
+                        assertEquals(10, first.getStargazerCount());
+                        assertEquals(2, first.getForksCount());
+                        assertEquals("https://github.com/octo/repo1", first.getHtmlUrl());
+                        assertEquals(Instant.parse("2025-01-02T03:04:05Z"), first.getUpdatedAt());
+                        assertEquals("repo2", page.getItems().get(1).getName());
+                    })
+                    .verifyComplete();
+        }
+        assertAllReleased();
+    }
+
+    @Test
+    @DisplayName("Full GitHub items decode to the same page as the bean deserializer")
+    void testMatchesBeanDeserializer() throws Exception {
+        String json = GitHubSearchFixtures.searchPageJson(5000, 30);
+
+        GitRepositoryPaginatedResponse decoded = decoder.decode(chunks(json, 1024)).block();
+
+        GitRepositoryPaginatedResponse expected = beanMapper.readValue(json, GitRepositoryPaginatedResponse.class);
+        assertEquals(30, expected.getItems().size());
+        assertEquals(expected, decoded);
+        assertEquals(Instant.parse("2025-10-15T12:34:56Z"), decoded.getItems().get(0).getUpdatedAt());
+        assertAllReleased();
+    }
+
+    @Test
+    @DisplayName("Nulls, numeric timestamps and the popularity score are handled like the bean deserializer")
+    void testEdgeValues() throws Exception {
+        String item = "{\"id\":7,\"name\":null,\"description\":\"d\",\"stargazers_count\":null,"
+                + "\"created_at\":1700000000.5,\"popularityScore\":12.5,\"owner\":{\"id\":1}}";
+
+        GitRepositoryItems decoded = decoder.decode(chunks("{\"items\":[" + item + "]}", 16)).block()
+                .getItems().get(0);
+
+        assertEquals(beanMapper.readValue(item, GitRepositoryItems.class), decoded);
+        assertEquals(7L, decoded.getId());
+        assertNull(decoded.getName());
+        assertEquals(0, decoded.getStargazerCount());
+        assertEquals(Instant.ofEpochSecond(1_700_000_000L, 500_000_000L), decoded.getCreatedAt());
+        assertEquals(12.5, decoded.getPopularityScore());
+    }
+
+    @Test
+    @DisplayName("Missing or null items decode to a page without items")
+    void testMissingItems() {
+        StepVerifier.create(decoder.decode(chunks("{\"total_count\":0,\"items\":null}", 5)))
+                .assertNext(page -> {
+                    assertEquals(0, page.getTotalCount());
+                    assertNull(page.getItems());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Empty body decodes to an empty Mono")
+    void testEmptyBody() {
+        StepVerifier.create(decoder.decode(Flux.empty())).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Malformed JSON fails with DecodingException and releases buffers")
+    void testMalformedJson() {
+        StepVerifier.create(decoder.decode(chunks("{\"total_count\":1,\"items\":[{\"id\":x}]}", 4)))
+                .expectError(DecodingException.class)
+                .verify();
+        assertAllReleased();
+    }
+
+    @Test
+    @DisplayName("Truncated body fails with DecodingException")
+    void testTruncatedBody() {
+        StepVerifier.create(decoder.decode(chunks(PAGE.substring(0, PAGE.length() / 2), 16)))
+                .expectError(DecodingException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("A non-object body fails with DecodingException")
+    void testNonObjectBody() {
+        StepVerifier.create(decoder.decode(chunks("[1,2]", 2)))
+                .expectError(DecodingException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("A structured value for a projected item field fails with DecodingException")
+    void testStructuredProjectedField() {
+        StepVerifier.create(decoder.decode(chunks("{\"items\":[{\"id\":1,\"description\":{\"x\":1}}]}", 8)))
+                .expectError(DecodingException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.githubsearch.service.impl.hedging;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RequestHedger}.
+ */
+class RequestHedgerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private RequestHedger hedger(GithubApiProperties.HedgingProperties hedging) {
+        return new RequestHedger(new GithubApiProperties("token", GithubApiProperties.Api.builder()
+                .hedging(hedging)
+                .build()), meterRegistry);
+    }
+
+    /**
+     * A hedger that has seen {@code samples} attempts of 100 ms each.
+     */
+    private RequestHedger warmHedger(double budgetRatio, int samples) {
+        RequestHedger hedger = hedger(GithubApiProperties.HedgingProperties.builder()
+                .enabled(true)
+                .percentile(0.9)
+                .budgetRatio(budgetRatio)
+                .minSamples(samples)
+                .minDelay(Duration.ZERO)
+                .build());
+        for (int i = 0; i < samples; i++) {
+            hedger.record(Duration.ofMillis(100).toNanos());
+        }
+        return hedger;
+    }
+
+    /**
+     * The first attempt answers after {@code first}, every later one after {@code others}.
+     */
+    private Supplier<Mono<String>> attempt(Duration first, Duration others) {
+        return () -> {
+            int attempt = attempts.incrementAndGet();
+            return Mono.delay(attempt == 1 ? first : others).thenReturn("attempt-" + attempt);
+        };
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    @DisplayName("A slow attempt is hedged after the latency percentile and the faster copy wins")
+    void testSlowAttemptIsHedged() {
+        RequestHedger hedger = warmHedger(1.0, 20);
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge(attempt(Duration.ofSeconds(10), Duration.ofMillis(50))))
+                .thenAwait(Duration.ofMillis(150))
+                .expectNext("attempt-2")
+                .verifyComplete();
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, count(RequestHedger.ISSUED_NAME));
+        assertEquals(1.0, count(RequestHedger.WON_NAME));
+        assertEquals(100.0, meterRegistry.get(RequestHedger.DELAY_NAME).gauge().value(), 1.0);
+    }
+
+    @Test
+    @DisplayName("An attempt answering within the hedge delay is not hedged")
+    void testFastAttemptIsNotHedged() {
+        RequestHedger hedger = warmHedger(1.0, 20);
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge(attempt(Duration.ofMillis(60), Duration.ofMillis(1))))
+                .thenAwait(Duration.ofMillis(60))
+                .expectNext("attempt-1")
+                .verifyComplete();
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, count(RequestHedger.ISSUED_NAME));
+    }
+
+    @Test
+    @DisplayName("Waiting for admission does not count towards the hedge delay; a hedge is admitted on its own")
+    void testHedgeDelayStartsAfterAdmission() {
+        RequestHedger hedger = warmHedger(1.0, 20);
+        AtomicInteger admissions = new AtomicInteger();
+        Mono<Integer> admission = Mono.defer(() -> Mono.delay(Duration.ofSeconds(5))
+                .thenReturn(admissions.incrementAndGet()));
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge(admission,
+                        admitted -> Mono.delay(Duration.ofMillis(60)).thenReturn("permit-" + admitted)))
+                .thenAwait(Duration.ofMillis(5060))
+                .expectNext("permit-1")
+                .verifyComplete();
+        assertEquals(1, admissions.get());
+        assertEquals(0.0, count(RequestHedger.ISSUED_NAME));
+
+        admissions.set(0);
+        StepVerifier.withVirtualTime(() -> hedger.hedge(admission,
+                        admitted -> Mono.delay(admitted == 1 ? Duration.ofSeconds(30) : Duration.ofMillis(10))
+                                .thenReturn("permit-" + admitted)))
+                .thenAwait(Duration.ofMillis(5000 + 100 + 5000 + 10))
+                .expectNext("permit-2")
+                .verifyComplete();
+        assertEquals(2, admissions.get());
+        assertEquals(1.0, count(RequestHedger.ISSUED_NAME));
+    }
+
+    @Test
+    @DisplayName("Hedges are limited to the budget ratio of requests")
+    void testBudget() {
+        RequestHedger hedger = warmHedger(0.5, 20);
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge(attempt(Duration.ofSeconds(1), Duration.ofMillis(10))))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("attempt-1")
+                .verifyComplete();
+        attempts.set(0);
+        StepVerifier.withVirtualTime(() -> hedger.hedge(attempt(Duration.ofSeconds(1), Duration.ofMillis(10))))
+                .thenAwait(Duration.ofMillis(110))
+                .expectNext("attempt-2")
+                .verifyComplete();
+        assertEquals(1.0, count(RequestHedger.ISSUED_NAME));
+    }
+
+    @Test
+    @DisplayName("No request is hedged before enough latencies are known")
+    void testNoHedgeBeforeMinSamples() {
+        RequestHedger hedger = warmHedger(1.0, 20);
+        RequestHedger cold = hedger(GithubApiProperties.HedgingProperties.builder()
+                .enabled(true)
+                .budgetRatio(1.0)
+                .minSamples(20)
+                .build());
+        cold.record(1);
+
+        StepVerifier.withVirtualTime(() -> cold.hedge(attempt(Duration.ofSeconds(5), Duration.ZERO)))
+                .thenAwait(Duration.ofSeconds(5))
+                .expectNext("attempt-1")
+                .verifyComplete();
+        assertEquals(-1, cold.hedgeDelayNanos());
+        assertTrue(hedger.hedgeDelayNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("A failed hedge is ignored and the original attempt decides")
+    void testFailedHedgeIsIgnored() {
+        RequestHedger hedger = warmHedger(1.0, 20);
+        Supplier<Mono<String>> attempt = () -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(1)).thenReturn("original")
+                : Mono.error(new IllegalStateException("hedge failed"));
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge(attempt))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("original")
+                .verifyComplete();
+        assertEquals(1.0, count(RequestHedger.ISSUED_NAME));
+        assertEquals(0.0, count(RequestHedger.WON_NAME));
+    }
+
+    @Test
+    @DisplayName("Hedging is off by default")
+    void testDisabledByDefault() {
+        RequestHedger hedger = hedger(GithubApiProperties.HedgingProperties.defaults());
+        for (int i = 0; i < 50; i++) {
+            hedger.record(1);
+        }
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge(attempt(Duration.ofSeconds(5), Duration.ZERO)))
+                .thenAwait(Duration.ofSeconds(5))
+                .expectNext("attempt-1")
+                .verifyComplete();
+        assertEquals(1, attempts.get());
+    }
+}
@@ -115,4 +115,59 @@ class GitHubQueryBuilderTest {
         SearchRequest req = SearchRequest.builder().build();
         assertThrows(NullPointerException.class, () -> GitHubQueryBuilder.buildUri(null, req));
     }
+
+    @Test
+    @DisplayName("buildUri: fallback for blank query keeps requested page")
+    void testBuildUri_fallbackBlankQueryKeepsPage() {
+        GithubApiProperties props = createProperties();
+        SearchRequest req = SearchRequest.builder().pageNumber(4).build();
+        String expected = "https://api.github.com/search/repositories?q=stars:>1&page=4&per_page=10";
+        assertEquals(expected, GitHubQueryBuilder.buildUri(props, req));
+    }
+
+    @Test
+    @DisplayName("resolveQuery: falls back to default query when no filters are given")
+    void testResolveQuery() {
+        GithubApiProperties props = createProperties();
+        assertEquals("stars:>1", GitHubQueryBuilder.resolveQuery(props, SearchRequest.builder().build()));
+        assertEquals("language:go",
+                GitHubQueryBuilder.resolveQuery(props, SearchRequest.builder().language("go").build()));
+    }
+
+    @Test
+    @DisplayName("buildSearchQuery: star and fork thresholds become qualifiers")
+    void testBuildSearchQuery_thresholds() {
+        SearchRequest req = SearchRequest.builder()
+                .language("java")
+                .minStars(1000)
+                .minForks(0)
+                .build();
+        assertEquals("language:java+stars:>=1000+forks:>=0", GitHubQueryBuilder.buildSearchQuery(req));
+        assertEquals("stars:>=5", GitHubQueryBuilder.buildSearchQuery(SearchRequest.builder().minStars(5).build()));
+    }
+
+    @Test
+    @DisplayName("buildUri: ranked requests carry sort and order")
+    void testBuildUri_sortPushdown() {
+        GithubApiProperties props = createProperties();
+        SearchRequest req = SearchRequest.builder()
+                .language("go")
+                .sortBy(SearchRequest.SortKey.UPDATED_AT)
+                .build();
+        assertEquals("https://api.github.com/search/repositories?q=language:go&sort=updated&order=desc&page=1&per_page=10",
+                GitHubQueryBuilder.buildUri(props, req));
+        assertEquals("https://api.github.com/search/repositories?q=stars:>1&sort=stars&order=desc&page=2&per_page=10",
+                GitHubQueryBuilder.buildUri(props, SearchRequest.builder()
+                        .sortBy(SearchRequest.SortKey.SCORE).pageNumber(2).build()));
+    }
+
+    @Test
+    @DisplayName("sortParameter: maps each ranking to a GitHub sort")
+    void testSortParameter() {
+        assertNull(GitHubQueryBuilder.sortParameter(null));
+        assertEquals("stars", GitHubQueryBuilder.sortParameter(SearchRequest.SortKey.SCORE));
+        assertEquals("stars", GitHubQueryBuilder.sortParameter(SearchRequest.SortKey.STARS));
+        assertEquals("forks", GitHubQueryBuilder.sortParameter(SearchRequest.SortKey.FORKS));
+        assertEquals("updated", GitHubQueryBuilder.sortParameter(SearchRequest.SortKey.UPDATED_AT));
+    }
 }
@@ -4,7 +4,11 @@ import com.example.githubsearch.model.GitRepositoryItems;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -132,4 +136,65 @@ class PopularityScoreCalculatorTest {
         assertNotNull(scored);
         assertTrue(scored.getPopularityScore() >= 0);
     }
+
+    /**
+     * Score {@link PopularityScoreCalculator#calculateScore} would assign at {@code now}.
+     */
+    private static double expectedScore(GitRepositoryItems item, Instant now) {
+        long days = item.getUpdatedAt() == null ? 0 : Duration.between(item.getUpdatedAt(), now).toDays();
+        return item.getStargazerCount() * 0.6 + item.getForksCount() * 0.3 + (1.0 / (1 + days)) * 100 * 0.1;
+    }
+
+    @Test
+    @DisplayName("Batch scoring matches the per-item formula exactly, including day boundaries")
+    void testCalculateScoresMatchesPerItemFormula() {
+        Random random = new Random(42);
+        Instant now = Instant.parse("2025-10-16T12:00:00.500Z");
+        List<GitRepositoryItems> items = new ArrayList<>();
+        // Just either side of whole-day and whole-second boundaries, in the past and the future.
+        for (long days : new long[]{0, 1, 10, 365}) {
+            for (long sign : new long[]{1, -1}) {
+                Instant boundary = now.minus(Duration.ofDays(days * sign));
+                items.add(GitRepositoryItems.builder().id(items.size()).updatedAt(boundary).build());
+                items.add(GitRepositoryItems.builder().id(items.size()).updatedAt(boundary.plusNanos(1)).build());
+                items.add(GitRepositoryItems.builder().id(items.size()).updatedAt(boundary.minusNanos(1)).build());
+            }
+        }
+        items.add(GitRepositoryItems.builder().id(items.size()).updatedAt(null).build());
+        for (int i = 0; i < 1000; i++) {
+            items.add(GitRepositoryItems.builder()
+                    .id(items.size())
+                    .stargazerCount(random.nextInt(500_000))
+                    .forksCount(random.nextInt(100_000))
+                    .updatedAt(random.nextInt(20) == 0 ? null : now
+                            .minusSeconds(random.nextLong(-86_400L * 30, 86_400L * 5_000))
+                            .plusNanos(random.nextInt(1_000_000_000)))
+                    .build());
+        }
+
+        List<GitRepositoryItems> scored = PopularityScoreCalculator.calculateScores(items, now);
+
+        assertEquals(items.size(), scored.size());
+        for (int i = 0; i < items.size(); i++) {
+            GitRepositoryItems item = items.get(i);
+            assertEquals(item.toBuilder().popularityScore(expectedScore(item, now)).build(), scored.get(i),
+                    "item " + i + " updated at " + item.getUpdatedAt());
+        }
+    }
+
+    @Test
+    @DisplayName("Batch scoring keeps input order and handles null or empty pages")
+    void testCalculateScoresOrderAndEmpty() {
+        List<GitRepositoryItems> items = List.of(
+                GitRepositoryItems.builder().id(1L).stargazerCount(1).build(),
+                GitRepositoryItems.builder().id(2L).stargazerCount(1000).build(),
+                GitRepositoryItems.builder().id(3L).stargazerCount(10).build());
+
+        List<GitRepositoryItems> scored = PopularityScoreCalculator.calculateScores(items);
+
+        assertEquals(List.of(1L, 2L, 3L), scored.stream().map(GitRepositoryItems::getId).toList());
+        assertEquals(1 * 0.6 + 10.0, scored.get(0).getPopularityScore());
+        assertTrue(PopularityScoreCalculator.calculateScores(null).isEmpty());
+        assertTrue(PopularityScoreCalculator.calculateScores(List.of()).isEmpty());
+    }
 }
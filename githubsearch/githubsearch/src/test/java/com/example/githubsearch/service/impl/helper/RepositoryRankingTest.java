@@ -0,0 +1,49 @@
+package com.example.githubsearch.service.impl.helper;
+
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.model.SearchRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RepositoryRanking}.
+ */
+class RepositoryRankingTest {
+
+    private static final GitRepositoryItems A = GitRepositoryItems.builder()
+            .id(1L).stargazerCount(10).forksCount(30).popularityScore(5.0)
+            .updatedAt(Instant.parse("2025-01-01T00:00:00Z")).build();
+    private static final GitRepositoryItems B = GitRepositoryItems.builder()
+            .id(2L).stargazerCount(30).forksCount(10).popularityScore(7.0)
+            .updatedAt(null).build();
+    private static final GitRepositoryItems C = GitRepositoryItems.builder()
+            .id(3L).stargazerCount(10).forksCount(20).popularityScore(9.0)
+            .updatedAt(Instant.parse("2025-06-01T00:00:00Z")).build();
+
+    private static List<Long> rank(SearchRequest.SortKey sortKey) {
+        return List.of(C, B, A).stream()
+                .sorted(RepositoryRanking.bestFirst(sortKey))
+                .map(GitRepositoryItems::getId)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Orders best first by each sort key, defaulting to score")
+    void testBestFirst() {
+        assertEquals(List.of(3L, 2L, 1L), rank(SearchRequest.SortKey.SCORE));
+        assertEquals(List.of(3L, 2L, 1L), rank(null));
+        assertEquals(List.of(1L, 3L, 2L), rank(SearchRequest.SortKey.FORKS));
+        assertEquals(List.of(3L, 1L, 2L), rank(SearchRequest.SortKey.UPDATED_AT));
+    }
+
+    @Test
+    @DisplayName("Ties are broken by ascending id")
+    void testTiesBrokenById() {
+        assertEquals(List.of(2L, 1L, 3L), rank(SearchRequest.SortKey.STARS));
+    }
+}
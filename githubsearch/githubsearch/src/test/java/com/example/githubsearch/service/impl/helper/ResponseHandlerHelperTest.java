@@ -1,5 +1,9 @@
 package com.example.githubsearch.service.impl.helper;
 
+import com.example.githubsearch.exception.ApiException;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.service.impl.cache.ConditionalRequestStore;
+import com.example.githubsearch.service.impl.ratelimit.RateLimitStatus;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
@@ -7,6 +11,12 @@ import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -73,4 +83,87 @@ class ResponseHandlerHelperTest {
                 .verify();
     }
 
+    @Test
+    @DisplayName("handleResponse: 304 with stored validator returns stored body")
+    void testHandleResponse_notModifiedWithValidator() {
+        GitRepositoryPaginatedResponse stored = GitRepositoryPaginatedResponse.builder().totalCount(3).build();
+        ClientResponse response = ClientResponse.create(HttpStatus.NOT_MODIFIED).build();
+        StepVerifier.create(ResponseHandlerHelper.handleResponse(response,
+                        new ConditionalRequestStore.ValidatedPage("\"etag\"", stored)))
+                .expectNext(stored)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("handleResponse: 304 without stored validator completes empty")
+    void testHandleResponse_notModifiedWithoutValidator() {
+        ClientResponse response = ClientResponse.create(HttpStatus.NOT_MODIFIED).build();
+        StepVerifier.create(ResponseHandlerHelper.handleResponse(response))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("extractETag: reads the ETag header")
+    void testExtractETag() {
+        ClientResponse response = ClientResponse.create(HttpStatus.OK).header("ETag", "W/\"abc\"").build();
+        assertEquals("W/\"abc\"", ResponseHandlerHelper.extractETag(response));
+    }
+
+    @Test
+    @DisplayName("extractRateLimit: reads X-RateLimit-* and Retry-After headers")
+    void testExtractRateLimit() {
+        ClientResponse response = ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                .header("X-RateLimit-Limit", "30")
+                .header("X-RateLimit-Remaining", "0")
+                .header("X-RateLimit-Reset", "1735689600")
+                .header("Retry-After", "42")
+                .build();
+        RateLimitStatus status = ResponseHandlerHelper.extractRateLimit(response);
+        assertEquals(429, status.getStatusCode());
+        assertEquals(30, status.getLimit());
+        assertEquals(0, status.getRemaining());
+        assertEquals(Instant.parse("2025-01-01T00:00:00Z"), status.getResetAt());
+        assertEquals(Duration.ofSeconds(42), status.getRetryAfter());
+        assertTrue(status.isRateLimited());
+    }
+
+    @Test
+    @DisplayName("extractRateLimit: missing or malformed headers are null, Retry-After may be an HTTP date")
+    void testExtractRateLimit_missingAndDateHeaders() {
+        RateLimitStatus missing = ResponseHandlerHelper.extractRateLimit(
+                ClientResponse.create(HttpStatus.OK).header("X-RateLimit-Remaining", "lots").build());
+        assertNull(missing.getLimit());
+        assertNull(missing.getRemaining());
+        assertNull(missing.getResetAt());
+        assertNull(missing.getRetryAfter());
+        assertFalse(missing.isRateLimited());
+
+        String inTwoMinutes = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(2));
+        Duration retryAfter = ResponseHandlerHelper.extractRateLimit(ClientResponse.create(HttpStatus.FORBIDDEN)
+                .header("Retry-After", inTwoMinutes).build()).getRetryAfter();
+        assertTrue(retryAfter.compareTo(Duration.ofSeconds(100)) > 0 && retryAfter.compareTo(Duration.ofMinutes(2)) <= 0);
+    }
+
+    @Test
+    @DisplayName("handleResponse: rate-limited responses carry when to retry, other errors do not")
+    void testHandleResponse_retryAfter() {
+        StepVerifier.create(ResponseHandlerHelper.handleResponse(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                        .header("Retry-After", "7").body("slow down").build()))
+                .expectErrorMatches(e -> e instanceof ApiException
+                        && Duration.ofSeconds(7).equals(((ApiException) e).getRetryAfter()))
+                .verify();
+        StepVerifier.create(ResponseHandlerHelper.handleResponse(ClientResponse.create(HttpStatus.FORBIDDEN)
+                        .body("secondary rate limit").build()))
+                .expectErrorMatches(e -> e instanceof ApiException && ((ApiException) e).getRetryAfter() == null)
+                .verify();
+        StepVerifier.create(ResponseHandlerHelper.handleResponse(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                        .body("secondary rate limit").build()))
+                .expectErrorMatches(e -> e instanceof ApiException
+                        && Duration.ofMinutes(1).equals(((ApiException) e).getRetryAfter()))
+                .verify();
+        StepVerifier.create(ResponseHandlerHelper.handleResponse(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("down").build()))
+                .expectErrorMatches(e -> e instanceof ApiException && ((ApiException) e).getRetryAfter() == null)
+                .verify();
+    }
 }
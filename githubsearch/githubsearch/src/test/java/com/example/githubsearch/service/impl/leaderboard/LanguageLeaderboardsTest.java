@@ -0,0 +1,155 @@
+package com.example.githubsearch.service.impl.leaderboard;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.exception.ApiException;
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.example.githubsearch.model.SearchRequest;
+import com.example.githubsearch.service.GitRepositoryClient;
+import com.example.githubsearch.service.impl.scheduling.RequestPriority;
+import com.example.githubsearch.service.impl.scoring.PopularityScoringExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link LanguageLeaderboards}.
+ */
+class LanguageLeaderboardsTest {
+
+    private final GitRepositoryClient gitRepositoryClient = mock(GitRepositoryClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+
+    private LanguageLeaderboards leaderboards(GithubApiProperties.LeaderboardProperties leaderboardProperties) {
+        GithubApiProperties properties = new GithubApiProperties("token", GithubApiProperties.Api.builder()
+                .leaderboard(leaderboardProperties)
+                .build());
+        return new LanguageLeaderboards(gitRepositoryClient, properties,
+                new PopularityScoringExecutor(properties, meterRegistry), meterRegistry, nanos::get, () -> 0.5);
+    }
+
+    private static GithubApiProperties.LeaderboardProperties.LeaderboardPropertiesBuilder java() {
+        return GithubApiProperties.LeaderboardProperties.builder()
+                .enabled(true)
+                .languages(List.of("Java"))
+                .maxAge(Duration.ofMinutes(30));
+    }
+
+    private static Flux<GitRepositoryPaginatedResponse> pages() {
+        GitRepositoryItems base = GitRepositoryItems.builder().updatedAt(Instant.parse("2025-10-15T12:34:56Z")).build();
+        return Flux.just(
+                GitRepositoryPaginatedResponse.builder().totalCount(3).items(List.of(
+                        base.toBuilder().id(1L).stargazerCount(10).build(),
+                        base.toBuilder().id(2L).stargazerCount(50).build())).build(),
+                GitRepositoryPaginatedResponse.builder().totalCount(3).items(List.of(
+                        base.toBuilder().id(3L).stargazerCount(30).build())).build());
+    }
+
+    @Test
+    @DisplayName("A refreshed leaderboard answers top-repository searches without upstream requests")
+    void testRefreshAndLookup() {
+        AtomicReference<RequestPriority> priority = new AtomicReference<>();
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class))).thenReturn(Flux.deferContextual(context -> {
+            priority.set(RequestPriority.from(context));
+            return pages();
+        }));
+        LanguageLeaderboards leaderboards = leaderboards(java().build());
+
+        StepVerifier.create(leaderboards.refresh("Java")).verifyComplete();
+        verify(gitRepositoryClient).fetchPages(SearchRequest.builder()
+                .language("Java")
+                .sortBy(SearchRequest.SortKey.SCORE)
+                .build());
+        assertEquals(RequestPriority.BACKGROUND, priority.get());
+
+        GitRepositoryPaginatedResponse top = leaderboards.lookup(SearchRequest.builder()
+                .language("java")
+                .sortBy(SearchRequest.SortKey.SCORE)
+                .limit(2)
+                .build());
+        assertEquals(List.of(2L, 3L), top.getItems().stream().map(GitRepositoryItems::getId).toList());
+        assertTrue(top.getItems().stream().allMatch(item -> item.getPopularityScore() > 0));
+        assertEquals(3, top.getTotalCount());
+        assertEquals(3, leaderboards.lookup(SearchRequest.builder().language("Java").limit(10).build())
+                .getItems().size());
+        verifyNoMoreInteractions(gitRepositoryClient);
+        assertEquals(1, meterRegistry.get(LanguageLeaderboards.REFRESHES_NAME)
+                .tag("outcome", LanguageLeaderboards.SUCCESS).counter().count());
+    }
+
+    @Test
+    @DisplayName("Filtered, paged, otherwise ranked or unconfigured searches are not answered")
+    void testLookupOnlyMatchesLeaderboardQueries() {
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class))).thenReturn(pages());
+        LanguageLeaderboards leaderboards = leaderboards(java().build());
+        leaderboards.refresh("Java").block();
+
+        SearchRequest top = SearchRequest.builder().language("Java").sortBy(SearchRequest.SortKey.SCORE).build();
+        assertNotNull(leaderboards.lookup(top));
+        assertNull(leaderboards.lookup(top.toBuilder().earliestCreatedDate(Instant.parse("2025-01-01T00:00:00Z"))
+                .build()));
+        assertNull(leaderboards.lookup(top.toBuilder().minStars(100).build()));
+        assertNull(leaderboards.lookup(top.toBuilder().minForks(10).build()));
+        assertNull(leaderboards.lookup(top.toBuilder().pageNumber(2).build()));
+        assertNull(leaderboards.lookup(top.toBuilder().sortBy(SearchRequest.SortKey.STARS).build()));
+        assertNull(leaderboards.lookup(top.toBuilder().sortBy(null).build()));
+        assertNull(leaderboards.lookup(top.toBuilder().language("Go").build()));
+        assertNull(leaderboards(java().enabled(false).build()).lookup(top));
+    }
+
+    @Test
+    @DisplayName("A failed refresh keeps the previous leaderboard until it is older than the max age")
+    void testFailedRefreshAndStaleness() {
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class)))
+                .thenReturn(pages())
+                .thenReturn(Flux.error(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "unavailable")));
+        LanguageLeaderboards leaderboards = leaderboards(java().build());
+        SearchRequest top = SearchRequest.builder().language("Java").limit(1).build();
+        leaderboards.refresh("Java").block();
+
+        nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+        StepVerifier.create(leaderboards.refresh("Java")).verifyError(ApiException.class);
+        assertEquals(2L, leaderboards.lookup(top).getItems().get(0).getId());
+        assertEquals(1200, meterRegistry.get(LanguageLeaderboards.AGE_NAME).tag("language", "java").gauge().value());
+        assertEquals(1, meterRegistry.get(LanguageLeaderboards.REFRESHES_NAME)
+                .tag("outcome", LanguageLeaderboards.FAILURE).counter().count());
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        assertNull(leaderboards.lookup(top));
+    }
+
+    @Test
+    @DisplayName("Refreshes repeat on the jittered interval while started")
+    void testScheduledRefreshes() {
+        when(gitRepositoryClient.fetchPages(any(SearchRequest.class))).thenReturn(pages());
+        LanguageLeaderboards leaderboards = leaderboards(java()
+                .refreshInterval(Duration.ofMillis(20))
+                .jitter(0.5)
+                .build());
+        assertEquals(Duration.ofMillis(20), leaderboards.nextRefresh());
+
+        leaderboards.start();
+        try {
+            assertTrue(leaderboards.isRunning());
+            verify(gitRepositoryClient, timeout(2000).atLeast(3)).fetchPages(any(SearchRequest.class));
+        } finally {
+            leaderboards.stop();
+        }
+        assertFalse(leaderboards.isRunning());
+        assertNotNull(leaderboards.lookup(SearchRequest.builder().language("Java").limit(1).build()));
+    }
+}
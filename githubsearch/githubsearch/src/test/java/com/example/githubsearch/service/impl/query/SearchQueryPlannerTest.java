@@ -0,0 +1,119 @@
+package com.example.githubsearch.service.impl.query;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.model.SearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SearchQueryPlanner}.
+ */
+class SearchQueryPlannerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SearchQueryPlanner planner = new SearchQueryPlanner(new GithubApiProperties("token",
+            GithubApiProperties.Api.builder()
+                    .defaultQuery("stars:>1")
+                    .defaultPerPage(30)
+                    .defaultPage(1)
+                    .build()),
+            meterRegistry);
+
+    private SearchQueryPlan plan(SearchRequest.SearchRequestBuilder request) {
+        return planner.plan(request.build());
+    }
+
+    @Test
+    @DisplayName("Unranked searches keep best-match order and want max-pages client pages of results")
+    void testUnrankedPlan() {
+        SearchQueryPlan plan = plan(SearchRequest.builder().language("Java").minStars(100));
+
+        assertEquals("language:Java+stars:>=100", plan.getQuery());
+        assertNull(plan.getSort());
+        assertEquals(0, plan.getFirstResult());
+        assertEquals(300, plan.getResultLimit());
+        assertEquals(100, plan.getUpstreamPerPage());
+        assertEquals(3, plan.getPageBudget());
+        assertFalse(plan.isExactOrder());
+    }
+
+    @Test
+    @DisplayName("An exact ranking with a limit wants only the first limit results")
+    void testExactTopKPlan() {
+        assertEquals(1, plan(SearchRequest.builder().sortBy(SearchRequest.SortKey.STARS).limit(10)).getPageBudget());
+        assertEquals(1, plan(SearchRequest.builder().sortBy(SearchRequest.SortKey.FORKS).limit(100)).getPageBudget());
+        assertEquals(2, plan(SearchRequest.builder().sortBy(SearchRequest.SortKey.UPDATED_AT).limit(101)).getPageBudget());
+        assertEquals(3, plan(SearchRequest.builder().sortBy(SearchRequest.SortKey.STARS).limit(1000)).getPageBudget());
+
+        SearchQueryPlan plan = plan(SearchRequest.builder().sortBy(SearchRequest.SortKey.STARS).limit(50));
+        assertEquals("stars", plan.getSort());
+        assertEquals("stars:>1", plan.getQuery());
+        assertEquals(50, plan.getResultLimit());
+        assertTrue(plan.isExactOrder());
+    }
+
+    @Test
+    @DisplayName("Score ranking sorts by stars but keeps the full window")
+    void testScorePlanIsNotBounded() {
+        SearchQueryPlan plan = plan(SearchRequest.builder().sortBy(SearchRequest.SortKey.SCORE).limit(5));
+
+        assertEquals("stars", plan.getSort());
+        assertEquals(300, plan.getResultLimit());
+        assertFalse(plan.isExactOrder());
+        assertEquals(300, plan(SearchRequest.builder().sortBy(SearchRequest.SortKey.STARS)).getResultLimit());
+    }
+
+    @Test
+    @DisplayName("A client page maps onto the one or two upstream pages holding it")
+    void testSinglePagePlan() {
+        SearchQueryPlan third = plan(SearchRequest.builder().pageNumber(3));
+        assertEquals(60, third.getFirstResult());
+        assertEquals(30, third.getResultLimit());
+        assertEquals(1, third.getFirstPage());
+        assertEquals(1, third.getLastPage());
+
+        SearchQueryPlan fourth = plan(SearchRequest.builder().pageNumber(4));
+        assertEquals(1, fourth.getFirstPage());
+        assertEquals(2, fourth.getLastPage());
+        assertEquals(2, fourth.getPageBudget());
+    }
+
+    @Test
+    @DisplayName("Slicing keeps only the results of an upstream page inside the window")
+    void testSlice() {
+        SearchQueryPlan fourth = plan(SearchRequest.builder().pageNumber(4));
+        List<Integer> firstPage = IntStream.range(0, 100).boxed().toList();
+        List<Integer> secondPage = IntStream.range(100, 200).boxed().toList();
+
+        assertEquals(IntStream.range(90, 100).boxed().toList(), fourth.slice(1, firstPage));
+        assertEquals(IntStream.range(100, 120).boxed().toList(), fourth.slice(2, secondPage));
+        assertEquals(List.of(), fourth.slice(3, secondPage));
+        assertEquals(List.of(), fourth.slice(1, null));
+
+        SearchQueryPlan all = plan(SearchRequest.builder());
+        assertSame(firstPage, all.slice(1, firstPage));
+        assertEquals(IntStream.range(200, 300).boxed().toList(), all.slice(3, IntStream.range(200, 300).boxed().toList()));
+        assertEquals(List.of(), all.slice(4, firstPage));
+    }
+
+    @Test
+    @DisplayName("Plans are counted by sort and bound, and page budgets recorded")
+    void testPlanMetrics() {
+        plan(SearchRequest.builder().sortBy(SearchRequest.SortKey.STARS).limit(10));
+        plan(SearchRequest.builder().sortBy(SearchRequest.SortKey.STARS).limit(10));
+        plan(SearchRequest.builder().language("Java"));
+
+        assertEquals(2, meterRegistry.get(SearchQueryPlanner.PLANS_NAME)
+                .tag("sort", "stars").tag("bounded", "true").counter().count());
+        assertEquals(1, meterRegistry.get(SearchQueryPlanner.PLANS_NAME)
+                .tag("sort", "none").tag("bounded", "false").counter().count());
+        assertEquals(3, meterRegistry.get(SearchQueryPlanner.PAGES_NAME).summary().count());
+        assertEquals(5, meterRegistry.get(SearchQueryPlanner.PAGES_NAME).summary().totalAmount());
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.githubsearch.service.impl.ratelimit;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.exception.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AdaptiveRateLimiter}.
+ */
+class AdaptiveRateLimiterTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static final RateLimitPermit FIRST_TOKEN = new RateLimitPermit("token", 0, 0);
+
+    private AdaptiveRateLimiter limiter(GithubApiProperties.RateLimitProperties rateLimit, String... tokens) {
+        GithubApiProperties properties = new GithubApiProperties("token", List.of(tokens),
+                GithubApiProperties.Api.builder()
+                        .rateLimit(rateLimit)
+                        .build());
+        return new AdaptiveRateLimiter(properties, meterRegistry, clock);
+    }
+
+    /**
+     * Reserves a permit and returns how long it waits, or -1 if it was rejected.
+     */
+    private static long reserve(AdaptiveRateLimiter limiter) {
+        RateLimitPermit permit = limiter.reserve();
+        return permit == null ? -1 : permit.getWaitMillis();
+    }
+
+    private RateLimitStatus.RateLimitStatusBuilder headers(int remaining, Duration untilReset) {
+        return RateLimitStatus.builder()
+                .statusCode(200)
+                .limit(30)
+                .remaining(remaining)
+                .resetAt(clock.instant().plus(untilReset));
+    }
+
+    @Test
+    @DisplayName("A burst is sent at once, then the remaining budget is spread over the window")
+    void testBurstThenPaced() {
+        AdaptiveRateLimiter limiter = limiter(GithubApiProperties.RateLimitProperties.builder()
+                .initialLimit(30)
+                .window(Duration.ofMinutes(1))
+                .burst(2)
+                .build());
+
+        assertEquals(0, reserve(limiter));
+        assertEquals(0, reserve(limiter));
+        // 28 requests left for 60 s: one every ~2.14 s
+        assertEquals(2143, reserve(limiter));
+        assertEquals(4445, reserve(limiter));
+        assertEquals(26, limiter.remaining(0));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(0, reserve(limiter));
+        assertEquals(29, limiter.remaining(0));
+    }
+
+    @Test
+    @DisplayName("An exhausted budget waits for X-RateLimit-Reset, or is rejected beyond max-wait")
+    void testExhaustedBudgetWaitsForReset() {
+        AdaptiveRateLimiter limiter = limiter(GithubApiProperties.RateLimitProperties.builder()
+                .maxWait(Duration.ofSeconds(10))
+                .build());
+
+        limiter.observe(FIRST_TOKEN, headers(0, Duration.ofSeconds(5)).build());
+        assertEquals(5000, reserve(limiter));
+
+        limiter.observe(FIRST_TOKEN, headers(0, Duration.ofSeconds(30)).build());
+        assertEquals(-1, reserve(limiter));
+        StepVerifier.create(limiter.acquire())
+                .expectErrorMatches(e -> e instanceof ApiException
+                        && ((ApiException) e).getStatus() == HttpStatus.TOO_MANY_REQUESTS)
+                .verify();
+        assertEquals(1.0, meterRegistry.get(AdaptiveRateLimiter.PERMITS_NAME)
+                .tag("outcome", AdaptiveRateLimiter.REJECTED).counter().count());
+    }
+
+    @Test
+    @DisplayName("Retry-After and secondary-limit responses hold permits back")
+    void testRetryAfterAndSecondaryLimit() {
+        AdaptiveRateLimiter limiter = limiter(GithubApiProperties.RateLimitProperties.builder()
+                .window(Duration.ofSeconds(60))
+                .maxWait(Duration.ofMinutes(2))
+                .build());
+
+        limiter.observe(FIRST_TOKEN, headers(20, Duration.ofSeconds(60)).statusCode(429).retryAfter(Duration.ofSeconds(3)).build());
+        assertEquals(3000, reserve(limiter));
+
+        clock.advance(Duration.ofSeconds(3));
+        limiter.observe(FIRST_TOKEN, RateLimitStatus.builder().statusCode(403).remaining(0).build());
+        limiter.observe(FIRST_TOKEN, RateLimitStatus.builder().statusCode(429).build());
+        assertEquals(60_000, reserve(limiter));
+    }
+
+    @Test
+    @DisplayName("A secondary limit without hints pauses for at least a minute under a shorter window")
+    void testSecondaryLimitWithShortWindow() {
+        AdaptiveRateLimiter limiter = limiter(GithubApiProperties.RateLimitProperties.builder()
+                .window(Duration.ofSeconds(10))
+                .maxWait(Duration.ofMinutes(2))
+                .build());
+
+        limiter.observe(FIRST_TOKEN, headers(20, Duration.ofSeconds(10)).statusCode(429).build());
+        assertEquals(TokenBudget.SECONDARY_LIMIT_PAUSE_MILLIS, reserve(limiter));
+    }
+
+    @Test
+    @DisplayName("Headers of an older window are ignored and the lower count wins within one window")
+    void testOutOfOrderHeaders() {
+        AdaptiveRateLimiter limiter = limiter(GithubApiProperties.RateLimitProperties.defaults());
+
+        limiter.observe(FIRST_TOKEN, headers(20, Duration.ofSeconds(40)).build());
+        limiter.observe(FIRST_TOKEN, headers(25, Duration.ofSeconds(40)).build());
+        assertEquals(20, limiter.remaining(0));
+        limiter.observe(FIRST_TOKEN, headers(30, Duration.ofSeconds(-20)).build());
+        assertEquals(20, limiter.remaining(0));
+        limiter.observe(FIRST_TOKEN, headers(30, Duration.ofSeconds(100)).build());
+        assertEquals(30, limiter.remaining(0));
+        assertEquals(30.0, meterRegistry.get(AdaptiveRateLimiter.REMAINING_NAME).tag("token", "1").gauge().value());
+    }
+
+    @Test
+    @DisplayName("After a local window rollover the next reported window is applied even if it resets sooner")
+    void testReportedWindowAfterLocalRollover() {
+        AdaptiveRateLimiter limiter = limiter(GithubApiProperties.RateLimitProperties.builder()
+                .initialLimit(30)
+                .window(Duration.ofMinutes(1))
+                .build());
+
+        limiter.observe(FIRST_TOKEN, headers(20, Duration.ofSeconds(30)).build());
+        clock.advance(Duration.ofSeconds(31));
+        assertEquals(0, reserve(limiter));
+        assertEquals(29, limiter.remaining(0));
+
+        limiter.observe(FIRST_TOKEN, headers(25, Duration.ofSeconds(29)).build());
+        assertEquals(25, limiter.remaining(0));
+        limiter.observe(FIRST_TOKEN, headers(10, Duration.ofSeconds(-1)).build());
+        assertEquals(25, limiter.remaining(0));
+    }
+
+    @Test
+    @DisplayName("Requests go to the token with budget left; exhausted tokens are retired until their reset")
+    void testTokenPool() {
+        AdaptiveRateLimiter limiter = limiter(GithubApiProperties.RateLimitProperties.builder()
+                .maxWait(Duration.ZERO)
+                .build(), "a", "b");
+        RateLimitPermit first = limiter.reserve();
+        assertEquals("a", first.getToken());
+        limiter.observe(first, headers(0, Duration.ofSeconds(30)).build());
+
+        RateLimitPermit second = limiter.reserve();
+        assertEquals("b", second.getToken());
+        limiter.observe(second, headers(1, Duration.ofSeconds(30)).build());
+        assertEquals("b", limiter.reserve().getToken());
+        assertEquals(0, limiter.remaining(1));
+        assertNull(limiter.reserve());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals(0, reserve(limiter));
+        assertEquals(29.0, meterRegistry.get(AdaptiveRateLimiter.REMAINING_NAME).tag("token", "1").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A disabled limiter hands out permits immediately")
+    void testDisabled() {
+        AdaptiveRateLimiter limiter = limiter(GithubApiProperties.RateLimitProperties.builder()
+                .enabled(false)
+                .maxWait(Duration.ZERO)
+                .build());
+        limiter.observe(FIRST_TOKEN, headers(0, Duration.ofMinutes(1)).build());
+
+        StepVerifier.create(limiter.acquire())
+                .assertNext(permit -> assertEquals(0, permit.getWaitMillis()))
+                .verifyComplete();
+    }
+
+    /**
+     * Clock advanced by hand.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
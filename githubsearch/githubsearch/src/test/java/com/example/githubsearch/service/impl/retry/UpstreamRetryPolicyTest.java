@@ -0,0 +1,136 @@
+package com.example.githubsearch.service.impl.retry;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.exception.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UpstreamRetryPolicy}.
+ */
+class UpstreamRetryPolicyTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    private UpstreamRetryPolicy policy(GithubApiProperties.RetryProperties retry, double random) {
+        return new UpstreamRetryPolicy(new GithubApiProperties("token", GithubApiProperties.Api.builder()
+                .retry(retry)
+                .build()), meterRegistry, () -> random);
+    }
+
+    /**
+     * Fails with {@code failure} on every subscription.
+     */
+    private Mono<String> failing(ApiException failure) {
+        return Mono.defer(() -> {
+            subscriptions.incrementAndGet();
+            return Mono.error(failure);
+        });
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get(UpstreamRetryPolicy.RETRIES_NAME).tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("Backoff is fully jittered, exponential, capped, and never shorter than Retry-After")
+    void testDelay() {
+        GithubApiProperties.RetryProperties retry = GithubApiProperties.RetryProperties.builder()
+                .backoffSeconds(1)
+                .maxBackoff(Duration.ofSeconds(5))
+                .build();
+
+        assertEquals(Duration.ZERO, policy(retry, 0.0).delay(3, null));
+        UpstreamRetryPolicy half = policy(retry, 0.5);
+        assertEquals(Duration.ofMillis(500), half.delay(0, null));
+        assertEquals(Duration.ofMillis(1000), half.delay(1, null));
+        assertEquals(Duration.ofMillis(2500), half.delay(5, null));
+        assertEquals(Duration.ofSeconds(4), half.delay(0, Duration.ofSeconds(4)));
+        assertEquals(Duration.ofMillis(500), half.delay(0, Duration.ofMillis(100)));
+    }
+
+    @Test
+    @DisplayName("Server errors are retried up to the configured attempts")
+    void testRetriesServerErrors() {
+        UpstreamRetryPolicy policy = policy(GithubApiProperties.RetryProperties.builder()
+                .attempts(2)
+                .build(), 0.0);
+
+        StepVerifier.create(failing(new ApiException(HttpStatus.BAD_GATEWAY, "bad gateway"))
+                        .retryWhen(policy.retrySpec("test")))
+                .expectErrorMatches(e -> e instanceof ApiException
+                        && ((ApiException) e).getStatus() == HttpStatus.BAD_GATEWAY)
+                .verify();
+        assertEquals(3, subscriptions.get());
+        assertEquals(2.0, count(UpstreamRetryPolicy.RETRIED));
+        assertEquals(1.0, count(UpstreamRetryPolicy.EXHAUSTED));
+    }
+
+    @Test
+    @DisplayName("Client errors are not retried; rate limits are retried after Retry-After unless it is too long")
+    void testRateLimitedAndClientErrors() {
+        UpstreamRetryPolicy policy = policy(GithubApiProperties.RetryProperties.builder()
+                .attempts(1)
+                .maxRetryAfter(Duration.ofSeconds(10))
+                .build(), 0.0);
+
+        StepVerifier.create(failing(new ApiException(HttpStatus.NOT_FOUND, "missing")).retryWhen(policy.retrySpec("test")))
+                .expectError(ApiException.class)
+                .verify();
+        assertEquals(1, subscriptions.getAndSet(0));
+
+        StepVerifier.withVirtualTime(() -> failing(new ApiException(HttpStatus.TOO_MANY_REQUESTS, "slow down",
+                                Duration.ofSeconds(3)))
+                        .retryWhen(policy.retrySpec("test")))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(2999))
+                .thenAwait(Duration.ofMillis(1))
+                .expectError(ApiException.class)
+                .verify();
+        assertEquals(2, subscriptions.getAndSet(0));
+
+        StepVerifier.create(failing(new ApiException(HttpStatus.FORBIDDEN, "secondary limit", Duration.ofMinutes(1)))
+                        .retryWhen(policy.retrySpec("test")))
+                .expectError(ApiException.class)
+                .verify();
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    @DisplayName("Retries are denied once the shared budget is spent and resume as requests succeed")
+    void testBudget() {
+        UpstreamRetryPolicy policy = policy(GithubApiProperties.RetryProperties.builder()
+                .attempts(3)
+                .budgetCapacity(2)
+                .budgetRatio(0.5)
+                .build(), 0.0);
+
+        StepVerifier.create(failing(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "down"))
+                        .retryWhen(policy.retrySpec("test")))
+                .expectError(ApiException.class)
+                .verify();
+        assertEquals(3, subscriptions.getAndSet(0));
+        assertEquals(1.0, count(UpstreamRetryPolicy.DENIED));
+        assertEquals(0.0, meterRegistry.get(UpstreamRetryPolicy.BUDGET_NAME).gauge().value());
+
+        policy.recordSuccess();
+        policy.recordSuccess();
+        policy.recordSuccess();
+        assertEquals(1.5, policy.budget());
+        StepVerifier.create(failing(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "down"))
+                        .retryWhen(policy.retrySpec("test")))
+                .expectError(ApiException.class)
+                .verify();
+        assertEquals(2, subscriptions.get());
+    }
+}
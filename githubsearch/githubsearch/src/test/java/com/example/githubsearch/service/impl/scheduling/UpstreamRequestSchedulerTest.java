@@ -0,0 +1,136 @@
+package com.example.githubsearch.service.impl.scheduling;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UpstreamRequestScheduler}.
+ */
+class UpstreamRequestSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> admitted = new CopyOnWriteArrayList<>();
+
+    private UpstreamRequestScheduler scheduler(GithubApiProperties.SchedulerProperties schedulerProperties) {
+        return new UpstreamRequestScheduler(new GithubApiProperties("token", GithubApiProperties.Api.builder()
+                .scheduler(schedulerProperties)
+                .build()), meterRegistry);
+    }
+
+    /**
+     * Submits a request that records {@code label} when admitted and completes at once.
+     */
+    private Disposable submit(UpstreamRequestScheduler scheduler, RequestPriority priority, String label) {
+        return scheduler.submit(Mono.fromCallable(() -> admitted.add(label)))
+                .contextWrite(priority.asContext())
+                .subscribe();
+    }
+
+    @Test
+    @DisplayName("Interactive requests go first, then prefetch and background by weight")
+    void testLaneOrder() {
+        UpstreamRequestScheduler scheduler = scheduler(GithubApiProperties.SchedulerProperties.builder()
+                .maxInFlight(1)
+                .prefetchWeight(3)
+                .backgroundWeight(1)
+                .build());
+        Sinks.Empty<Void> blocker = Sinks.empty();
+        scheduler.submit(blocker.asMono()).subscribe();
+
+        submit(scheduler, RequestPriority.BACKGROUND, "b1");
+        submit(scheduler, RequestPriority.PREFETCH, "p1");
+        submit(scheduler, RequestPriority.BACKGROUND, "b2");
+        submit(scheduler, RequestPriority.PREFETCH, "p2");
+        submit(scheduler, RequestPriority.PREFETCH, "p3");
+        submit(scheduler, RequestPriority.INTERACTIVE, "i1");
+        assertTrue(admitted.isEmpty());
+        assertEquals(1, scheduler.inFlight());
+        assertEquals(1.0, meterRegistry.get(UpstreamRequestScheduler.DEPTH_NAME).tag("lane", "interactive").gauge().value());
+        assertEquals(3.0, meterRegistry.get(UpstreamRequestScheduler.DEPTH_NAME).tag("lane", "prefetch").gauge().value());
+        assertEquals(2.0, meterRegistry.get(UpstreamRequestScheduler.DEPTH_NAME).tag("lane", "background").gauge().value());
+
+        blocker.tryEmitEmpty();
+
+        assertEquals(List.of("i1", "p1", "p2", "b1", "p3", "b2"), admitted);
+        assertEquals(0, scheduler.inFlight());
+        assertEquals(3, meterRegistry.get(UpstreamRequestScheduler.WAIT_NAME).tag("lane", "prefetch").timer().count());
+        assertEquals(2, meterRegistry.get(UpstreamRequestScheduler.WAIT_NAME).tag("lane", "interactive").timer().count());
+    }
+
+    @Test
+    @DisplayName("Requests without a priority in their context are interactive")
+    void testDefaultsToInteractive() {
+        UpstreamRequestScheduler scheduler = scheduler(GithubApiProperties.SchedulerProperties.builder()
+                .maxInFlight(1)
+                .build());
+        Sinks.Empty<Void> blocker = Sinks.empty();
+        scheduler.submit(blocker.asMono()).contextWrite(RequestPriority.BACKGROUND.asContext()).subscribe();
+
+        submit(scheduler, RequestPriority.BACKGROUND, "background");
+        scheduler.submit(Mono.fromCallable(() -> admitted.add("default"))).subscribe();
+        blocker.tryEmitEmpty();
+
+        assertEquals(List.of("default", "background"), admitted);
+    }
+
+    @Test
+    @DisplayName("A request cancelled while queued leaves the queue without taking a slot")
+    void testCancelWhileQueued() {
+        UpstreamRequestScheduler scheduler = scheduler(GithubApiProperties.SchedulerProperties.builder()
+                .maxInFlight(1)
+                .build());
+        Sinks.Empty<Void> blocker = Sinks.empty();
+        scheduler.submit(blocker.asMono()).subscribe();
+
+        Disposable cancelled = submit(scheduler, RequestPriority.BACKGROUND, "cancelled");
+        submit(scheduler, RequestPriority.BACKGROUND, "kept");
+        cancelled.dispose();
+        assertEquals(1, scheduler.queued(RequestPriority.BACKGROUND));
+
+        blocker.tryEmitEmpty();
+        assertEquals(List.of("kept"), admitted);
+        assertEquals(0, scheduler.inFlight());
+        assertEquals(0, scheduler.queued(RequestPriority.BACKGROUND));
+    }
+
+    @Test
+    @DisplayName("Failed requests release their slot")
+    void testFailureReleasesSlot() {
+        UpstreamRequestScheduler scheduler = scheduler(GithubApiProperties.SchedulerProperties.builder()
+                .maxInFlight(1)
+                .build());
+
+        StepVerifier.create(scheduler.submit(Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(scheduler.submit(Mono.just("next")))
+                .expectNext("next")
+                .verifyComplete();
+        assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    @DisplayName("A disabled scheduler runs requests directly")
+    void testDisabled() {
+        UpstreamRequestScheduler scheduler = scheduler(GithubApiProperties.SchedulerProperties.builder()
+                .enabled(false)
+                .maxInFlight(1)
+                .build());
+        scheduler.submit(Mono.never()).subscribe();
+
+        StepVerifier.create(scheduler.submit(Mono.just("direct")))
+                .expectNext("direct")
+                .verifyComplete();
+    }
+}
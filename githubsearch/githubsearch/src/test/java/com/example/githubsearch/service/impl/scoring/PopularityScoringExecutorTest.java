@@ -0,0 +1,93 @@
+package com.example.githubsearch.service.impl.scoring;
+
+import com.example.githubsearch.config.GithubApiProperties;
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.service.impl.helper.PopularityScoreCalculator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PopularityScoringExecutor}.
+ */
+class PopularityScoringExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PopularityScoringExecutor executor(int parallelThreshold, int chunkSize) {
+        GithubApiProperties properties = new GithubApiProperties("token", GithubApiProperties.Api.builder()
+                .scoring(GithubApiProperties.ScoringProperties.builder()
+                        .parallelThreshold(parallelThreshold)
+                        .chunkSize(chunkSize)
+                        .build())
+                .build());
+        return new PopularityScoringExecutor(properties, meterRegistry);
+    }
+
+    private static List<GitRepositoryItems> items(int count) {
+        // A fixed update time far in the past keeps the day count stable between the two paths.
+        Instant updatedAt = Instant.parse("2000-01-01T00:00:00Z");
+        return IntStream.range(0, count)
+                .mapToObj(i -> GitRepositoryItems.builder()
+                        .id(i)
+                        .stargazerCount(i * 7 % 1000)
+                        .forksCount(i % 13)
+                        .updatedAt(i % 5 == 0 ? null : updatedAt)
+                        .build())
+                .toList();
+    }
+
+    private double count(String name, String path) {
+        return meterRegistry.get(name).tag("path", path).counter().count();
+    }
+
+    private long timerCount(String path) {
+        return meterRegistry.get(PopularityScoringExecutor.TIMER_NAME).tag("path", path).timer().count();
+    }
+
+    @Test
+    @DisplayName("Batches below the threshold are scored inline on the subscribing thread")
+    void testInlineBelowThreshold() {
+        List<GitRepositoryItems> items = items(30);
+        Thread caller = Thread.currentThread();
+
+        StepVerifier.create(executor(100, 10).score(items)
+                        .doOnNext(scored -> assertSame(caller, Thread.currentThread())))
+                .assertNext(scored -> assertEquals(PopularityScoreCalculator.calculateScores(items), scored))
+                .verifyComplete();
+
+        assertEquals(1, timerCount(PopularityScoringExecutor.INLINE));
+        assertEquals(30, count(PopularityScoringExecutor.ITEMS_NAME, PopularityScoringExecutor.INLINE));
+        assertEquals(0, timerCount(PopularityScoringExecutor.PARALLEL));
+    }
+
+    @Test
+    @DisplayName("Batches at or above the threshold are scored in parallel chunks and keep input order")
+    void testParallelChunksKeepOrder() {
+        List<GitRepositoryItems> items = items(1_003);
+
+        StepVerifier.create(executor(1_000, 64).score(items))
+                .assertNext(scored -> assertEquals(PopularityScoreCalculator.calculateScores(items), scored))
+                .verifyComplete();
+
+        assertEquals(1, timerCount(PopularityScoringExecutor.PARALLEL));
+        assertEquals(1_003, count(PopularityScoringExecutor.ITEMS_NAME, PopularityScoringExecutor.PARALLEL));
+        assertEquals(0, timerCount(PopularityScoringExecutor.INLINE));
+    }
+
+    @Test
+    @DisplayName("Null or empty batches score to an empty list")
+    void testEmptyBatch() {
+        PopularityScoringExecutor executor = executor(100, 10);
+
+        StepVerifier.create(executor.score(null)).expectNext(List.of()).verifyComplete();
+        StepVerifier.create(executor.score(List.of())).expectNext(List.of()).verifyComplete();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.githubsearch.service.impl.scoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TopKSelector}.
+ */
+class TopKSelectorTest {
+
+    private static final Comparator<Integer> DESCENDING = Comparator.reverseOrder();
+
+    @Test
+    @DisplayName("Keeps the same elements, in the same order, as a full sort")
+    void testMatchesFullSort() {
+        Random random = new Random(7);
+        List<Integer> values = IntStream.range(0, 5_000).map(i -> random.nextInt(1_000)).boxed().toList();
+        for (int k : new int[]{1, 10, 300, 5_000, 10_000}) {
+            TopKSelector<Integer> selector = new TopKSelector<>(k, DESCENDING);
+            selector.offerAll(values);
+
+            assertEquals(values.stream().sorted(DESCENDING).limit(k).toList(), selector.toSortedList());
+            assertEquals(values.size(), selector.offered());
+        }
+    }
+
+    @Test
+    @DisplayName("Null batches are ignored")
+    void testNullBatch() {
+        TopKSelector<Integer> selector = new TopKSelector<>(2, DESCENDING);
+        selector.offerAll(null);
+        selector.offerAll(List.of(1, 3, 2));
+
+        assertEquals(List.of(3, 2), selector.toSortedList());
+        assertEquals(3, selector.offered());
+    }
+
+    @Test
+    @DisplayName("Rejects a non-positive k")
+    void testRejectsNonPositiveK() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKSelector<>(0, DESCENDING));
+    }
+}
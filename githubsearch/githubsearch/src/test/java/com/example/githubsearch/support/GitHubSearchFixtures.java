@@ -0,0 +1,141 @@
+package com.example.githubsearch.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search result pages shaped like real {@code GET /search/repositories} responses, with the
+ * full set of item fields GitHub returns (owner object, URL templates, license, topics),
+ * for decoder tests and benchmarks.
+ */
+public final class GitHubSearchFixtures {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().build();
+
+    private static final String[] URL_TEMPLATES = {
+            "forks_url", "keys_url", "collaborators_url", "teams_url", "hooks_url", "issue_events_url",
+            "events_url", "assignees_url", "branches_url", "tags_url", "blobs_url", "git_tags_url",
+            "git_refs_url", "trees_url", "statuses_url", "languages_url", "stargazers_url",
+            "contributors_url", "subscribers_url", "subscription_url", "commits_url", "git_commits_url",
+            "comments_url", "issue_comment_url", "contents_url", "compare_url", "merges_url",
+            "archive_url", "downloads_url", "issues_url", "pulls_url", "milestones_url",
+            "notifications_url", "labels_url", "releases_url", "deployments_url"};
+
+    private GitHubSearchFixtures() {
+    }
+
+    /**
+     * @param totalCount value of {@code total_count}
+     * @param items      number of items on the page
+     * @return the page as JSON
+     */
+    public static String searchPageJson(final int totalCount, final int items) {
+        final Map<String, Object> page = new LinkedHashMap<>();
+        page.put("total_count", totalCount);
+        page.put("incomplete_results", false);
+        final List<Map<String, Object>> list = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            list.add(item(i));
+        }
+        page.put("items", list);
+        try {
+            return OBJECT_MAPPER.writeValueAsString(page);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * One search item with every field GitHub returns.
+     */
+    public static Map<String, Object> item(final long id) {
+        final String fullName = "octo-org/repo-" + id;
+        final String apiUrl = "https://api.github.com/repos/" + fullName;
+        final Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", id);
+        item.put("node_id", "MDEwOlJlcG9zaXRvcnk" + id);
+        item.put("name", "repo-" + id);
+        item.put("full_name", fullName);
+        item.put("private", false);
+        item.put("owner", owner(id));
+        item.put("html_url", "https://github.com/" + fullName);
+        item.put("description", "Repository number " + id + " with a description of typical length for search results.");
+        item.put("fork", false);
+        item.put("url", apiUrl);
+        for (String template : URL_TEMPLATES) {
+            item.put(template, apiUrl + "/" + template.replace("_url", "") + "{/sha}");
+        }
+        item.put("created_at", "2014-01-01T00:00:00Z");
+        item.put("updated_at", "2025-10-15T12:34:56Z");
+        item.put("pushed_at", "2025-10-15T12:30:00Z");
+        item.put("git_url", "git://github.com/" + fullName + ".git");
+        item.put("ssh_url", "git@github.com:" + fullName + ".git");
+        item.put("clone_url", "https://github.com/" + fullName + ".git");
+        item.put("svn_url", "https://github.com/" + fullName);
+        item.put("homepage", "https://example.com/repo-" + id);
+        item.put("size", 123_456 + id);
+        item.put("stargazers_count", 1000 + id);
+        item.put("watchers_count", 1000 + id);
+        item.put("language", "Java");
+        item.put("has_issues", true);
+        item.put("has_projects", true);
+        item.put("has_downloads", true);
+        item.put("has_wiki", true);
+        item.put("has_pages", false);
+        item.put("has_discussions", true);
+        item.put("forks_count", 100 + id);
+        item.put("mirror_url", null);
+        item.put("archived", false);
+        item.put("disabled", false);
+        item.put("open_issues_count", 42);
+        item.put("license", Map.of(
+                "key", "apache-2.0",
+                "name", "Apache License 2.0",
+                "spdx_id", "Apache-2.0",
+                "url", "https://api.github.com/licenses/apache-2.0",
+                "node_id", "MDc6TGljZW5zZTI="));
+        item.put("allow_forking", true);
+        item.put("is_template", false);
+        item.put("web_commit_signoff_required", false);
+        item.put("topics", List.of("java", "framework", "spring", "microservices", "web"));
+        item.put("visibility", "public");
+        item.put("forks", 100 + id);
+        item.put("open_issues", 42);
+        item.put("watchers", 1000 + id);
+        item.put("default_branch", "main");
+        item.put("score", 1.0);
+        return item;
+    }
+
+    private static Map<String, Object> owner(final long id) {
+        final String login = "octo-org";
+        final String apiUrl = "https://api.github.com/users/" + login;
+        final Map<String, Object> owner = new LinkedHashMap<>();
+        owner.put("login", login);
+        owner.put("id", 317_776 + id);
+        owner.put("node_id", "MDEyOk9yZ2FuaXphdGlvbjMxNzc3Ng==");
+        owner.put("avatar_url", "https://avatars.githubusercontent.com/u/317776?v=4");
+        owner.put("gravatar_id", "");
+        owner.put("url", apiUrl);
+        owner.put("html_url", "https://github.com/" + login);
+        owner.put("followers_url", apiUrl + "/followers");
+        owner.put("following_url", apiUrl + "/following{/other_user}");
+        owner.put("gists_url", apiUrl + "/gists{/gist_id}");
+        owner.put("starred_url", apiUrl + "/starred{/owner}{/repo}");
+        owner.put("subscriptions_url", apiUrl + "/subscriptions");
+        owner.put("organizations_url", apiUrl + "/orgs");
+        owner.put("repos_url", apiUrl + "/repos");
+        owner.put("events_url", apiUrl + "/events{/privacy}");
+        owner.put("received_events_url", apiUrl + "/received_events");
+        owner.put("type", "Organization");
+        owner.put("user_view_type", "public");
+        owner.put("site_admin", false);
+        return owner;
+    }
+}
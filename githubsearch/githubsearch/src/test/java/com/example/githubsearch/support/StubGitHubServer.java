@@ -0,0 +1,198 @@
+package com.example.githubsearch.support;
+
+import com.example.githubsearch.model.GitRepositoryItems;
+import com.example.githubsearch.model.GitRepositoryPaginatedResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Local HTTP server answering {@code GET /search/repositories} like GitHub does, for tests
+ * and benchmarks that need a real network round trip.
+ * <p>
+ * Every page is served after a fixed latency and is filled from a result set of
+ * {@code totalCount} repositories according to the {@code page} and {@code per_page}
+ * query parameters. The server records how many requests it received and the peak number
+ * of requests it was serving at the same time.
+ * <p>
+ * Optionally, every token (the {@code Authorization} header) gets a quota of requests per
+ * window, reported in {@code X-RateLimit-*} headers; requests over the quota are answered
+ * with {@code 403} and {@code X-RateLimit-Remaining: 0}, as GitHub does.
+ */
+public final class StubGitHubServer implements AutoCloseable {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+    private static final Instant TIMESTAMP = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final Duration latency;
+    private final int totalCount;
+    private final int quotaPerToken;
+    private final Instant quotaReset;
+    private final Map<String, AtomicInteger> requestsByToken = new ConcurrentHashMap<>();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final DisposableServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private StubGitHubServer(final Duration latency, final int totalCount, final int quotaPerToken,
+                             final Duration quotaWindow) {
+        this.latency = latency;
+        this.totalCount = totalCount;
+        this.quotaPerToken = quotaPerToken;
+        this.quotaReset = Instant.now().plus(quotaWindow);
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/search/repositories", this::search))
+                .bindNow();
+    }
+
+    /**
+     * Starts a server on an ephemeral local port.
+     *
+     * @param latency    delay before each page is answered
+     * @param totalCount number of repositories matching every query
+     * @return the running server
+     */
+    public static StubGitHubServer start(final Duration latency, final int totalCount) {
+        return new StubGitHubServer(latency, totalCount, 0, Duration.ZERO);
+    }
+
+    /**
+     * Starts a server on an ephemeral local port that allows each token
+     * {@code quotaPerToken} requests in a single window of {@code quotaWindow}.
+     *
+     * @param latency       delay before each page is answered
+     * @param totalCount    number of repositories matching every query
+     * @param quotaPerToken requests allowed per token
+     * @param quotaWindow   time until the quota would reset
+     * @return the running server
+     */
+    public static StubGitHubServer startWithQuota(final Duration latency, final int totalCount,
+                                                  final int quotaPerToken, final Duration quotaWindow) {
+        return new StubGitHubServer(latency, totalCount, quotaPerToken, quotaWindow);
+    }
+
+    /**
+     * @return base URL to configure as {@code github.api.base-url}
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    /**
+     * @return number of search requests received so far
+     */
+    public int requests() {
+        return requests.get();
+    }
+
+    /**
+     * @return highest number of search requests served concurrently so far
+     */
+    public int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * @return number of search requests received with {@code Authorization: Bearer <token>}
+     */
+    public int requests(final String token) {
+        final AtomicInteger count = requestsByToken.get("Bearer " + token);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return number of search requests refused for exceeding their token's quota
+     */
+    public int rejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Resets the request and peak concurrency counters.
+     */
+    public void reset() {
+        requests.set(0);
+        peakInFlight.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> search(final HttpServerRequest request, final HttpServerResponse response) {
+        final QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        final int page = intParameter(query, "page", 1);
+        final int perPage = intParameter(query, "per_page", 30);
+        if (quotaPerToken > 0) {
+            final String token = String.valueOf(request.requestHeaders().get(HttpHeaderNames.AUTHORIZATION));
+            final int used = requestsByToken.computeIfAbsent(token, key -> new AtomicInteger()).incrementAndGet();
+            response.header("X-RateLimit-Limit", String.valueOf(quotaPerToken))
+                    .header("X-RateLimit-Remaining", String.valueOf(Math.max(0, quotaPerToken - used)))
+                    .header("X-RateLimit-Reset", String.valueOf(quotaReset.getEpochSecond()));
+            if (used > quotaPerToken) {
+                rejected.incrementAndGet();
+                return response.status(HttpResponseStatus.FORBIDDEN)
+                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .sendString(Mono.just("{\"message\":\"API rate limit exceeded\"}"))
+                        .then();
+            }
+        }
+        return Mono.defer(() -> {
+                    requests.incrementAndGet();
+                    peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return Mono.delay(latency);
+                })
+                .then(Mono.fromCallable(() -> OBJECT_MAPPER.writeValueAsString(page(page, perPage))))
+                .flatMap(body -> response
+                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .sendString(Mono.just(body))
+                        .then())
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    private GitRepositoryPaginatedResponse page(final int page, final int perPage) {
+        final int first = (page - 1) * perPage;
+        final int size = Math.max(0, Math.min(perPage, Math.min(totalCount, 1000) - first));
+        final List<GitRepositoryItems> items = IntStream.range(first, first + size)
+                .mapToObj(id -> GitRepositoryItems.builder()
+                        .id(id)
+                        .name("repo-" + id)
+                        .language("Java")
+                        .stargazerCount(id % 1000)
+                        .forksCount(id % 100)
+                        .htmlUrl("https://github.com/stub/repo-" + id)
+                        .createdAt(TIMESTAMP)
+                        .updatedAt(TIMESTAMP)
+                        .build())
+                .toList();
+        return GitRepositoryPaginatedResponse.builder()
+                .totalCount(totalCount)
+                .incompleteResults(false)
+                .items(items)
+                .build();
+    }
+
+    private static int intParameter(final QueryStringDecoder query, final String name, final int defaultValue) {
+        final List<String> values = query.parameters().get(name);
+        return values == null || values.isEmpty() ? defaultValue : Integer.parseInt(values.get(0));
+    }
+}